@@ -0,0 +1,155 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.ContentEncoderChannel;
+import org.apache.http.nio.FileContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.protocol.HttpContext;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 文件上传请求，文件内容不经过堆内存
+ *
+ * http 明文传输时由 FileChannel.transferTo 直接写入 socket；
+ * https 需加密，按段内存映射文件后交给 SSL 会话
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+class FileRequestProducer implements HttpAsyncRequestProducer {
+
+	/** 内存映射分段大小 */
+	private static final long MAP_SIZE = 8L * 1024 * 1024;
+
+	/** 目标主机 */
+	private final HttpHost target;
+	/** 请求 */
+	private final HttpPost request;
+	/** 上传文件 */
+	private final Path file;
+	/** 是否加密传输(按内存映射读取) */
+	private final boolean mapped;
+
+	/** 文件通道 */
+	private FileChannel fileChannel;
+	/** 文件长度 */
+	private long size;
+	/** 已发送位置 */
+	private long idx;
+	/** 当前映射段 */
+	private MappedByteBuffer buffer;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param request     请求(已设置URL及请求配置)
+	 * @param file        上传文件
+	 * @param contentType 文件类型
+	 * @param chunked     true:分块传输，false:按文件长度传输
+	 * @throws IOException
+	 */
+	FileRequestProducer(HttpPost request, Path file, ContentType contentType, boolean chunked) throws IOException {
+
+		this.target = URIUtils.extractHost(request.getURI());
+		this.request = request;
+		this.file = file;
+		this.mapped = "https".equalsIgnoreCase(target.getSchemeName());
+
+		BasicHttpEntity entity = new BasicHttpEntity();
+		entity.setContentType(contentType.toString());
+		entity.setChunked(chunked);
+		entity.setContentLength(chunked ? -1 : file.toFile().length());
+		request.setEntity(entity);
+	}
+
+	@Override
+	public HttpHost getTarget() {
+		return target;
+	}
+
+	@Override
+	public HttpRequest generateRequest() {
+		return request;
+	}
+
+	@Override
+	public void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+
+		if (fileChannel == null) {
+			fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+			size = fileChannel.size();
+			idx = 0;
+		}
+
+		long transferred;
+		if (mapped) {
+			if (buffer == null || !buffer.hasRemaining()) {
+				buffer = idx < size ? fileChannel.map(FileChannel.MapMode.READ_ONLY, idx, Math.min(MAP_SIZE, size - idx)) : null;
+			}
+			transferred = buffer == null ? 0 : encoder.write(buffer);
+		} else if (encoder instanceof FileContentEncoder) {
+			transferred = ((FileContentEncoder) encoder).transfer(fileChannel, idx, Integer.MAX_VALUE);
+		} else {
+			transferred = fileChannel.transferTo(idx, Integer.MAX_VALUE, new ContentEncoderChannel(encoder));
+		}
+		if (transferred > 0) {
+			idx += transferred;
+		}
+
+		if (idx >= size) {
+			encoder.complete();
+			closeChannel();
+		}
+	}
+
+	@Override
+	public void requestCompleted(HttpContext context) {
+	}
+
+	@Override
+	public void failed(Exception ex) {
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public void resetRequest() throws IOException {
+		closeChannel();
+	}
+
+	@Override
+	public void close() throws IOException {
+		closeChannel();
+	}
+
+	/**
+	 * 关闭文件通道
+	 *
+	 * @throws IOException
+	 */
+	private void closeChannel() throws IOException {
+
+		buffer = null;
+		if (fileChannel != null) {
+			try {
+				fileChannel.close();
+			} finally {
+				fileChannel = null;
+			}
+		}
+	}
+}
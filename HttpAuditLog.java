@@ -0,0 +1,258 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.Consts;
+import org.apache.http.HttpEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * http请求审计日志
+ *
+ * 请求线程只做采样判断并写入无锁环形队列，报文截断、拼接及日志输出由后台线程完成；
+ * 队列满时丢弃并计数，不阻塞请求。后台线程队列为空时挂起，由写入的请求线程唤醒，空闲时不占用CPU；
+ * 客户端共用一个实例(一个后台线程)
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpAuditLog {
+
+	/** 审计日志 */
+	private static final Logger auditLogger = LoggerFactory.getLogger(HttpClientUtil.class.getName() + ".audit");
+
+	/** 环形队列 */
+	private final AtomicReferenceArray<AuditEvent> ring;
+	/** 队列长度掩码 */
+	private final int mask;
+	/** 写入序号 */
+	private final AtomicLong tail = new AtomicLong();
+	/** 读取序号(仅后台线程写) */
+	private volatile long head;
+	/** 后台线程 */
+	private final Thread writer;
+	/** 后台线程是否已挂起等待(写入后需唤醒) */
+	private volatile boolean waiting;
+	/** 丢弃笔数 */
+	private final AtomicLong dropped = new AtomicLong();
+	/** 成功请求采样比例(0-100) */
+	private final int sampleRate;
+	/** 报文最大记录长度(字符) */
+	private final int maxBody;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param capacity   队列长度，向上取2的幂
+	 * @param sampleRate 成功请求采样比例(0-100)，失败请求全部记录
+	 * @param maxBody    报文最大记录长度(字符)
+	 */
+	HttpAuditLog(int capacity, int sampleRate, int maxBody) {
+
+		int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+		this.ring = new AtomicReferenceArray<AuditEvent>(size);
+		this.mask = size - 1;
+		this.sampleRate = sampleRate;
+		this.maxBody = Math.max(maxBody, 0);
+
+		writer = new Thread("http-audit-writer") {
+
+			@Override
+			public void run() {
+				drain();
+			}
+		};
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * 是否需要记录报文体(非2xx响应)
+	 *
+	 * @param stsCode 响应编码
+	 * @return
+	 */
+	boolean captureBody(int stsCode) {
+
+		return maxBody > 0 && (stsCode < 200 || stsCode >= 300) && auditLogger.isInfoEnabled();
+	}
+
+	/**
+	 * 读取响应体前 maxBody 个字符，用于记录非2xx响应
+	 *
+	 * 读取会消费响应流，之后不可再读取响应体，调用方只需释放(EntityUtils.consume)
+	 *
+	 * @param entity  响应实体
+	 * @param charSet 字符集
+	 * @return
+	 */
+	String readBody(HttpEntity entity, Charset charSet) {
+
+		if (entity == null) {
+			return null;
+		}
+		try {
+			InputStream in = entity.getContent();
+			if (in == null) {
+				return null;
+			}
+			Reader reader = new InputStreamReader(in, charSet != null ? charSet : Consts.UTF_8);
+			char[] buf = new char[maxBody];
+			int len = 0;
+			int n;
+			while (len < buf.length && (n = reader.read(buf, len, buf.length - len)) != -1) {
+				len += n;
+			}
+			return new String(buf, 0, len);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 记录请求，成功请求按比例采样
+	 *
+	 * @param method    请求方法
+	 * @param url       请求URL
+	 * @param reqBody   请求参数(在调用线程转为字符串，调用方之后修改不影响日志)
+	 * @param stsCode   响应编码
+	 * @param rsnPhrase 原因短语
+	 * @param elapsed   花费时间(单位毫秒)
+	 * @param respBody  响应体(仅非2xx)
+	 */
+	void record(String method, String url, Object reqBody, int stsCode, String rsnPhrase, long elapsed, String respBody) {
+
+		boolean isErr = stsCode < 200 || stsCode >= 300;
+		if (!auditLogger.isInfoEnabled()) {
+			return;
+		}
+		if (!isErr && (sampleRate <= 0 || (sampleRate < 100 && ThreadLocalRandom.current().nextInt(100) >= sampleRate))) {
+			return;
+		}
+		//调用线程上生成快照，Map 等可变参数不交给后台线程
+		String reqStr = reqBody == null || maxBody <= 0 ? null : String.valueOf(reqBody);
+
+		long seq;
+		do {
+			seq = tail.get();
+			if (seq - head >= ring.length()) {
+				dropped.incrementAndGet();
+				return;
+			}
+		} while (!tail.compareAndSet(seq, seq + 1));
+		//volatile 写入，与后台线程挂起前的检查配对，不丢失唤醒
+		ring.set((int) (seq & mask), new AuditEvent(method, url, reqStr, stsCode, rsnPhrase, elapsed, respBody));
+		if (waiting) {
+			LockSupport.unpark(writer);
+		}
+	}
+
+	/**
+	 * 获取丢弃笔数
+	 *
+	 * @return
+	 */
+	long getDropped() {
+
+		return dropped.get();
+	}
+
+	/**
+	 * 后台线程：取出并输出日志，队列为空时挂起至有新记录写入
+	 */
+	private void drain() {
+
+		long droppedLogged = 0;
+		while (true) {
+			long seq = head;
+			int idx = (int) (seq & mask);
+			AuditEvent event = ring.get(idx);
+			if (event == null) {
+				long droppedNow = dropped.get();
+				if (droppedNow != droppedLogged) {
+					auditLogger.warn("http 审计日志队列已满，累计丢弃：" + droppedNow);
+					droppedLogged = droppedNow;
+				}
+				//先标记再检查，检查后写入的请求线程必定看到标记并唤醒
+				waiting = true;
+				if (ring.get(idx) == null) {
+					LockSupport.park(this);
+				}
+				waiting = false;
+				continue;
+			}
+			ring.lazySet(idx, null);
+			head = seq + 1;
+
+			try {
+				auditLogger.info(event.format(maxBody));
+			} catch (Exception e) {
+				auditLogger.warn("http 审计日志输出失败" + e.getMessage(), e);
+			}
+		}
+	}
+
+
+	/**
+	 * 审计事件
+	 */
+	private static class AuditEvent {
+		private final String method;
+		private final String url;
+		private final String reqBody;
+		private final int stsCode;
+		private final String rsnPhrase;
+		private final long elapsed;
+		private final String respBody;
+
+		AuditEvent(String method, String url, String reqBody, int stsCode, String rsnPhrase, long elapsed, String respBody) {
+			this.method = method;
+			this.url = url;
+			this.reqBody = reqBody;
+			this.stsCode = stsCode;
+			this.rsnPhrase = rsnPhrase;
+			this.elapsed = elapsed;
+			this.respBody = respBody;
+		}
+
+		/**
+		 * 格式化日志，报文超过 maxBody 时截断
+		 */
+		String format(int maxBody) {
+
+			StringBuilder sb = new StringBuilder(128 + maxBody * 2);
+			sb.append("调用API 花费时间(单位：毫秒)：").append(elapsed)
+			  .append("，statusCode：").append(stsCode);
+			if (rsnPhrase != null) {
+				sb.append("，reason：").append(rsnPhrase);
+			}
+			sb.append("，").append(method).append(" ").append(url);
+			if (reqBody != null && maxBody > 0) {
+				sb.append("，请求参数===>");
+				truncate(sb, reqBody, maxBody);
+			}
+			if (respBody != null) {
+				sb.append("，http response body is:");
+				truncate(sb, respBody, maxBody);
+			}
+			return sb.toString();
+		}
+
+		private static void truncate(StringBuilder sb, String str, int maxBody) {
+
+			if (str.length() > maxBody) {
+				sb.append(str, 0, maxBody).append("...(").append(str.length()).append(")");
+			} else {
+				sb.append(str);
+			}
+		}
+	}
+}
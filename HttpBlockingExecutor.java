@@ -0,0 +1,109 @@
+package com.jf.ams.notify.common.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 同步请求执行器
+ *
+ * virtual 模式(Java 21+)每个任务一个虚拟线程，通过反射创建，低版本自动退回平台线程池；
+ * 同时执行的任务数不超过连接池最大连接数，超出的任务在信号量上挂起(不占用载体线程)，
+ * 避免大量虚拟线程在连接池获取连接(内部为 synchronized 等待)时占满载体线程
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpBlockingExecutor implements Executor {
+
+	/** 日志 */
+	private static final Logger logger = LoggerFactory.getLogger(HttpBlockingExecutor.class);
+
+	/** 实际执行 */
+	private final ExecutorService delegate;
+	/** 并发任务数 */
+	private final Semaphore permits;
+	/** 是否虚拟线程 */
+	private final boolean virtual;
+
+	private HttpBlockingExecutor(ExecutorService delegate, int maxConcurrency, boolean virtual) {
+
+		this.delegate = delegate;
+		this.permits = virtual ? new Semaphore(maxConcurrency) : null;
+		this.virtual = virtual;
+	}
+
+	/**
+	 * 创建执行器
+	 *
+	 * @param name           客户端名称，默认客户端为空
+	 * @param mode           virtual：虚拟线程；其他：平台线程池
+	 * @param maxConcurrency 最大并发任务数(连接池最大连接数)
+	 * @return
+	 */
+	static HttpBlockingExecutor create(String name, String mode, int maxConcurrency) {
+
+		if ("virtual".equalsIgnoreCase(mode)) {
+			try {
+				Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return new HttpBlockingExecutor((ExecutorService) factory.invoke(null), maxConcurrency, true);
+			} catch (Exception e) {
+				logger.warn("http 当前运行环境不支持虚拟线程，使用平台线程池：" + e);
+			}
+		}
+
+		final String prefix = "http-blocking-" + (name == null ? "default" : name) + "-";
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+					private final AtomicInteger seq = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, prefix + seq.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return new HttpBlockingExecutor(executor, maxConcurrency, false);
+	}
+
+	@Override
+	public void execute(final Runnable task) {
+
+		if (!virtual) {
+			delegate.execute(task);
+			return;
+		}
+		delegate.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				permits.acquireUninterruptibly();
+				try {
+					task.run();
+				} finally {
+					permits.release();
+				}
+			}
+		});
+	}
+
+	/**
+	 * 是否虚拟线程
+	 */
+	boolean isVirtual() {
+
+		return virtual;
+	}
+}
@@ -0,0 +1,278 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.HttpHost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 单个下游主机的熔断器
+ *
+ * 按时间滑动窗口统计失败率(连接/响应超时、I/O异常、5xx)及慢调用率，超过阈值时打开，
+ * 打开期间请求直接失败；到期后放行少量探测请求(半开)，全部成功则关闭，任一失败或半开超时未完成探测时重新打开。
+ * 状态及计数均为原子变量，请求路径不加锁
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpCircuitBreaker {
+
+	/** 日志 */
+	private static final Logger logger = LoggerFactory.getLogger(HttpCircuitBreaker.class);
+
+	/** 关闭 */
+	private static final int CLOSED = 0;
+	/** 打开 */
+	private static final int OPEN = 1;
+	/** 半开 */
+	private static final int HALF_OPEN = 2;
+
+	/** 窗口分桶数 */
+	private static final int BUCKETS = 10;
+	/** 每个桶的计数：时间片序号、总数、失败数、慢调用数 */
+	private static final int SLOT = 4;
+
+	/** 主机 */
+	private final HttpHost host;
+	/** 熔断参数 */
+	private final Config config;
+	/** 每桶时长(单位毫秒) */
+	private final long bucketMillis;
+	/** 滑动窗口计数 */
+	private final AtomicLongArray window = new AtomicLongArray(BUCKETS * SLOT);
+
+	/** 状态 */
+	private final AtomicInteger state = new AtomicInteger(CLOSED);
+	/** 打开截止时间(单位毫秒) */
+	private volatile long openUntil;
+	/** 半开截止时间(单位毫秒) */
+	private volatile long halfOpenUntil;
+	/** 半开剩余探测次数 */
+	private final AtomicInteger probePermits = new AtomicInteger();
+	/** 半开探测成功次数 */
+	private final AtomicInteger probeSucc = new AtomicInteger();
+
+	/**
+	 * 构造方法
+	 *
+	 * @param host   主机
+	 * @param config 熔断参数
+	 */
+	HttpCircuitBreaker(HttpHost host, Config config) {
+
+		this.host = host;
+		this.config = config;
+		this.bucketMillis = Math.max(config.windowMillis / BUCKETS, 1);
+	}
+
+	/**
+	 * 请求前检查，打开状态或半开探测名额用尽时抛出异常
+	 *
+	 * @throws OpenException
+	 */
+	void acquire() throws OpenException {
+
+		int curState = state.get();
+		if (curState == CLOSED) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		if (curState == OPEN) {
+			if (now < openUntil) {
+				throw new OpenException(host);
+			}
+			//到期：仅一个线程完成切换并分配探测名额，其间其他线程按名额用尽处理；半开截止时间先于状态设置
+			halfOpenUntil = now + config.halfOpenMillis;
+			if (state.compareAndSet(OPEN, HALF_OPEN)) {
+				probeSucc.set(0);
+				probePermits.set(config.probes);
+				logger.warn("http 熔断器半开，开始探测：" + host);
+			}
+		}
+		curState = state.get();
+		if (curState == CLOSED) {
+			return;
+		}
+		if (curState == HALF_OPEN && now >= halfOpenUntil) {
+			//探测结果未在半开时间内全部返回(请求丢失或挂起)，重新打开，到期后重新分配探测名额
+			trip(HALF_OPEN, "半开探测超时");
+			throw new OpenException(host);
+		}
+		//名额用尽时不再扣减，归还的名额可立即使用
+		for (;;) {
+			int permits = probePermits.get();
+			if (permits <= 0) {
+				throw new OpenException(host);
+			}
+			if (probePermits.compareAndSet(permits, permits - 1)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 放弃请求结果(调用方取消，如对冲落选)：半开时归还探测名额，不计入成功或失败
+	 */
+	void release() {
+
+		if (state.get() != HALF_OPEN) {
+			return;
+		}
+		for (;;) {
+			int permits = probePermits.get();
+			if (permits >= config.probes || probePermits.compareAndSet(permits, permits + 1)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 记录请求结果
+	 *
+	 * @param stsCode 响应编码
+	 * @param nanos   耗时(单位纳秒)
+	 */
+	void record(int stsCode, long nanos) {
+
+		boolean failed = stsCode < 0 || stsCode >= 500;
+		boolean slow = nanos >= config.slowCallNanos;
+
+		int curState = state.get();
+		if (curState == HALF_OPEN) {
+			if (failed || slow) {
+				trip(HALF_OPEN, "探测失败");
+			} else if (probeSucc.incrementAndGet() >= config.probes && state.compareAndSet(HALF_OPEN, CLOSED)) {
+				clearWindow();
+				logger.warn("http 熔断器关闭：" + host);
+			}
+			return;
+		}
+		if (curState != CLOSED) {
+			return;
+		}
+
+		//计入当前时间片
+		long now = System.currentTimeMillis();
+		long epoch = now / bucketMillis;
+		int base = (int) (epoch % BUCKETS) * SLOT;
+		long bucketEpoch = window.get(base);
+		if (bucketEpoch != epoch && window.compareAndSet(base, bucketEpoch, epoch)) {
+			//复用过期桶，并发时少量计数可能丢失，不影响比例判断
+			window.set(base + 1, 0);
+			window.set(base + 2, 0);
+			window.set(base + 3, 0);
+		}
+		window.incrementAndGet(base + 1);
+		if (failed) {
+			window.incrementAndGet(base + 2);
+		}
+		if (slow) {
+			window.incrementAndGet(base + 3);
+		}
+		if (!failed && !slow) {
+			return;
+		}
+
+		//仅失败或慢调用时汇总窗口
+		long total = 0;
+		long failures = 0;
+		long slowCalls = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			int idx = i * SLOT;
+			if (epoch - window.get(idx) < BUCKETS) {
+				total += window.get(idx + 1);
+				failures += window.get(idx + 2);
+				slowCalls += window.get(idx + 3);
+			}
+		}
+		if (total < config.minCalls) {
+			return;
+		}
+		if (config.failureRate > 0 && failures * 100 >= total * config.failureRate) {
+			trip(CLOSED, "失败率" + (failures * 100 / total) + "%");
+		} else if (config.slowRate > 0 && slowCalls * 100 >= total * config.slowRate) {
+			trip(CLOSED, "慢调用率" + (slowCalls * 100 / total) + "%");
+		}
+	}
+
+	/**
+	 * 打开熔断器
+	 *
+	 * @param expect 当前状态
+	 * @param reason 原因
+	 */
+	private void trip(int expect, String reason) {
+
+		openUntil = System.currentTimeMillis() + config.openMillis;
+		if (state.compareAndSet(expect, OPEN)) {
+			logger.warn("http 熔断器打开：" + host + "，" + reason + "，" + config.openMillis + "毫秒内快速失败");
+		}
+	}
+
+	/**
+	 * 清空滑动窗口
+	 */
+	private void clearWindow() {
+
+		for (int i = 0; i < window.length(); i++) {
+			window.set(i, 0);
+		}
+	}
+
+
+	/**
+	 * 熔断参数
+	 */
+	static class Config {
+		/** 失败率阈值(百分比)，小于等于0时不按失败率熔断 */
+		final int failureRate;
+		/** 慢调用率阈值(百分比)，小于等于0时不按慢调用率熔断 */
+		final int slowRate;
+		/** 慢调用耗时(单位纳秒) */
+		final long slowCallNanos;
+		/** 窗口内最少请求数 */
+		final int minCalls;
+		/** 滑动窗口时长(单位毫秒) */
+		final long windowMillis;
+		/** 打开时长(单位毫秒) */
+		final long openMillis;
+		/** 半开探测次数 */
+		final int probes;
+		/** 半开时长上限(单位毫秒)，超过时仍未完成探测则重新打开 */
+		final long halfOpenMillis;
+
+		Config(int failureRate, int slowRate, long slowCallMillis, int minCalls, long windowMillis, long openMillis, int probes,
+				long halfOpenMillis) {
+			this.failureRate = failureRate;
+			this.slowRate = slowRate;
+			this.slowCallNanos = slowCallMillis * 1000000L;
+			this.minCalls = Math.max(minCalls, 1);
+			this.windowMillis = windowMillis;
+			this.openMillis = openMillis;
+			this.probes = Math.max(probes, 1);
+			this.halfOpenMillis = Math.max(halfOpenMillis, 1);
+		}
+
+		/**
+		 * 是否开启熔断
+		 */
+		boolean isEnabled() {
+			return failureRate > 0 || slowRate > 0;
+		}
+	}
+
+
+	/**
+	 * 熔断器打开，请求未发出
+	 */
+	static class OpenException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		OpenException(HttpHost host) {
+			super("circuit breaker open: " + host);
+		}
+	}
+}
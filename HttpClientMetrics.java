@@ -0,0 +1,421 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * http连接工具类监控指标
+ *
+ * 请求耗时按路由及响应编码分别记录到对数分桶直方图(精度约3%)，记录只做原子累加；
+ * 连接池统计在 JMX 读取时实时获取
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+class HttpClientMetrics implements HttpClientMetricsMXBean {
+
+	/** 日志 */
+	private static final Logger logger = LoggerFactory.getLogger(HttpClientMetrics.class);
+
+	/** 编码下标：0-599 为HTTP状态码，600以后为负数的 STS_* 编码，最后一位为其他 */
+	private static final int OUTCOME_SIZE = 620;
+
+	/** 同步连接池 */
+	private final PoolingHttpClientConnectionManager cm;
+	/** 各路由并发限制 */
+	private final Map<HttpHost, HttpConcurrencyLimiter> limiters;
+	/** 各主机速率限制 */
+	private final Map<HttpHost, HttpRateLimiter> rateLimiters;
+	/** GET响应缓存，未开启时为空 */
+	private final HttpResponseCache responseCache;
+	/** 通知日志，未开启时为空 */
+	private final HttpJournal journal;
+	/** 各路由请求耗时 */
+	private final ConcurrentHashMap<String, AtomicReferenceArray<Histogram>> latency = new ConcurrentHashMap<String, AtomicReferenceArray<Histogram>>();
+	/** 各路由获取连接等待时间 */
+	private final ConcurrentHashMap<HttpRoute, Histogram> leaseWait = new ConcurrentHashMap<HttpRoute, Histogram>();
+	/** 当前生效的配置 */
+	private volatile ConfigView config;
+
+	/**
+	 * 构造方法，并注册到 JMX
+	 *
+	 * @param name     客户端名称，默认客户端为空
+	 * @param cm       同步连接池
+	 * @param limiters 各路由并发限制
+	 * @param rateLimiters 各主机速率限制
+	 * @param responseCache GET响应缓存，未开启时为空
+	 * @param journal  通知日志，未开启时为空
+	 */
+	HttpClientMetrics(String name, PoolingHttpClientConnectionManager cm, Map<HttpHost, HttpConcurrencyLimiter> limiters,
+			Map<HttpHost, HttpRateLimiter> rateLimiters, HttpResponseCache responseCache, HttpJournal journal) {
+
+		this.cm = cm;
+		this.limiters = limiters;
+		this.rateLimiters = rateLimiters;
+		this.responseCache = responseCache;
+		this.journal = journal;
+		try {
+			ObjectName objectName = new ObjectName("com.jf.ams.notify.common.util:type=HttpClientUtil,name="
+					+ ObjectName.quote(name == null ? "default" : name));
+			if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			}
+		} catch (Exception e) {
+			logger.warn("http 监控指标注册JMX失败：" + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 记录请求耗时
+	 *
+	 * @param route   路由(host:port)
+	 * @param stsCode 响应编码
+	 * @param nanos   耗时(单位纳秒)
+	 */
+	void record(String route, int stsCode, long nanos) {
+
+		if (route == null) {
+			route = "unknown";
+		}
+		AtomicReferenceArray<Histogram> outcomes = latency.get(route);
+		if (outcomes == null) {
+			AtomicReferenceArray<Histogram> created = new AtomicReferenceArray<Histogram>(OUTCOME_SIZE);
+			outcomes = latency.putIfAbsent(route, created);
+			if (outcomes == null) {
+				outcomes = created;
+			}
+		}
+		int idx = outcomeIndex(stsCode);
+		Histogram histogram = outcomes.get(idx);
+		if (histogram == null) {
+			outcomes.compareAndSet(idx, null, new Histogram());
+			histogram = outcomes.get(idx);
+		}
+		histogram.record(nanos);
+	}
+
+	/**
+	 * 获取路由某响应编码的耗时分位值
+	 *
+	 * @param route      路由(host:port)
+	 * @param stsCode    响应编码
+	 * @param percentile 百分位，如 95
+	 * @param minCount   最少样本数
+	 * @return 单位微秒，样本不足时返回-1
+	 */
+	long percentile(String route, int stsCode, double percentile, long minCount) {
+
+		AtomicReferenceArray<Histogram> outcomes = latency.get(route);
+		Histogram histogram = outcomes == null ? null : outcomes.get(outcomeIndex(stsCode));
+		if (histogram == null || histogram.count.sum() < minCount) {
+			return -1;
+		}
+		return histogram.percentile(percentile);
+	}
+
+	/**
+	 * 记录获取连接等待时间
+	 *
+	 * @param route 路由
+	 * @param nanos 等待时间(单位纳秒)
+	 */
+	void recordLease(HttpRoute route, long nanos) {
+
+		Histogram histogram = leaseWait.get(route);
+		if (histogram == null) {
+			Histogram created = new Histogram();
+			histogram = leaseWait.putIfAbsent(route, created);
+			if (histogram == null) {
+				histogram = created;
+			}
+		}
+		histogram.record(nanos);
+	}
+
+	/**
+	 * 路由获取连接累计笔数及等待时间
+	 *
+	 * @param route 路由
+	 * @return {笔数, 等待时间合计(单位微秒)}，未记录时均为0
+	 */
+	long[] leaseTotals(HttpRoute route) {
+
+		Histogram histogram = leaseWait.get(route);
+		return histogram == null ? new long[2] : new long[] {histogram.count.sum(), histogram.sum.sum()};
+	}
+
+	/**
+	 * 包装连接请求，记录获取连接等待时间
+	 *
+	 * @param route   路由
+	 * @param request 连接请求
+	 * @return
+	 */
+	ConnectionRequest meterLease(final HttpRoute route, final ConnectionRequest request) {
+
+		return new ConnectionRequest() {
+
+			@Override
+			public HttpClientConnection get(long timeout, TimeUnit tunit)
+					throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+				long startTime = System.nanoTime();
+				try {
+					return request.get(timeout, tunit);
+				} finally {
+					recordLease(route, System.nanoTime() - startTime);
+				}
+			}
+
+			@Override
+			public boolean cancel() {
+				return request.cancel();
+			}
+		};
+	}
+
+	@Override
+	public PoolView getPoolTotal() {
+
+		return toView(cm.getTotalStats());
+	}
+
+	@Override
+	public Map<String, PoolView> getPoolRoutes() {
+
+		Map<String, PoolView> routes = new TreeMap<String, PoolView>();
+		for (HttpRoute route : cm.getRoutes()) {
+			routes.put(route.getTargetHost().toHostString(), toView(cm.getStats(route)));
+		}
+		return routes;
+	}
+
+	@Override
+	public Map<String, LatencyView> getLatency() {
+
+		Map<String, LatencyView> views = new TreeMap<String, LatencyView>();
+		for (Map.Entry<String, AtomicReferenceArray<Histogram>> entry : latency.entrySet()) {
+			AtomicReferenceArray<Histogram> outcomes = entry.getValue();
+			for (int i = 0; i < OUTCOME_SIZE; i++) {
+				Histogram histogram = outcomes.get(i);
+				if (histogram != null) {
+					views.put(entry.getKey() + " " + outcomeName(i), histogram.toView());
+				}
+			}
+		}
+		return views;
+	}
+
+	@Override
+	public Map<String, LatencyView> getLeaseWait() {
+
+		Map<String, LatencyView> views = new TreeMap<String, LatencyView>();
+		for (Map.Entry<HttpRoute, Histogram> entry : leaseWait.entrySet()) {
+			views.put(entry.getKey().getTargetHost().toHostString(), entry.getValue().toView());
+		}
+		return views;
+	}
+
+	@Override
+	public Map<String, LimitView> getConcurrencyLimit() {
+
+		Map<String, LimitView> views = new TreeMap<String, LimitView>();
+		for (Map.Entry<HttpHost, HttpConcurrencyLimiter> entry : limiters.entrySet()) {
+			HttpConcurrencyLimiter limiter = entry.getValue();
+			views.put(entry.getKey().toHostString(), new LimitView(limiter.getLimit(), limiter.getInFlight(), limiter.getRejected()));
+		}
+		return views;
+	}
+
+	@Override
+	public Map<String, RateView> getRateLimit() {
+
+		Map<String, RateView> views = new TreeMap<String, RateView>();
+		for (Map.Entry<HttpHost, HttpRateLimiter> entry : rateLimiters.entrySet()) {
+			HttpRateLimiter limiter = entry.getValue();
+			if (limiter != HttpRateLimiter.UNLIMITED) {
+				views.put(entry.getKey().toHostString(), new RateView(limiter.getRate(), limiter.getDelayed(), limiter.getRejected()));
+			}
+		}
+		return views;
+	}
+
+	@Override
+	public CacheView getResponseCache() {
+
+		return responseCache == null ? null : responseCache.toView();
+	}
+
+	@Override
+	public JournalView getJournal() {
+
+		return journal == null ? null : journal.toView();
+	}
+
+	@Override
+	public ConfigView getConfig() {
+
+		return config;
+	}
+
+	/**
+	 * 发布生效的配置(初始化及重新加载时)
+	 *
+	 * @param config 配置
+	 */
+	void publishConfig(ConfigView config) {
+
+		this.config = config;
+	}
+
+	@Override
+	public void reset() {
+
+		latency.clear();
+		leaseWait.clear();
+	}
+
+	/**
+	 * 连接池统计转换
+	 */
+	private static PoolView toView(PoolStats stats) {
+
+		return new PoolView(stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax());
+	}
+
+	/**
+	 * 响应编码对应下标
+	 */
+	private static int outcomeIndex(int stsCode) {
+
+		if (stsCode >= 0 && stsCode < 600) {
+			return stsCode;
+		}
+		if (stsCode < 0 && stsCode > 600 - OUTCOME_SIZE) {
+			return 599 - stsCode;
+		}
+		return OUTCOME_SIZE - 1;
+	}
+
+	/**
+	 * 下标对应响应编码
+	 */
+	private static String outcomeName(int idx) {
+
+		if (idx < 600) {
+			return String.valueOf(idx);
+		}
+		return idx == OUTCOME_SIZE - 1 ? "other" : String.valueOf(599 - idx);
+	}
+
+
+	/**
+	 * 对数分桶直方图(单位微秒)，每个2的幂区间分32个线性桶
+	 */
+	static class Histogram {
+		/** 每区间桶数(2^SUB_BITS) */
+		private static final int SUB_BITS = 5;
+		private static final int SUB_COUNT = 1 << SUB_BITS;
+		/** 最大记录值 2^40 微秒 */
+		private static final int MAX_EXP = 40;
+		private static final long MAX_VALUE = (1L << MAX_EXP) - 1;
+
+		private final AtomicLongArray counts = new AtomicLongArray((MAX_EXP - SUB_BITS + 2) * SUB_COUNT);
+		private final LongAdder count = new LongAdder();
+		private final LongAdder sum = new LongAdder();
+		private final AtomicLong max = new AtomicLong();
+
+		/**
+		 * 记录耗时
+		 *
+		 * @param nanos 耗时(单位纳秒)
+		 */
+		void record(long nanos) {
+
+			long micros = Math.min(Math.max(nanos / 1000, 0), MAX_VALUE);
+			counts.incrementAndGet(index(micros));
+			count.increment();
+			sum.add(micros);
+			long curMax = max.get();
+			while (micros > curMax && !max.compareAndSet(curMax, micros)) {
+				curMax = max.get();
+			}
+		}
+
+		/**
+		 * 分位值(单位微秒)，取所在桶上界
+		 *
+		 * @param percentile 百分位，如 99.9
+		 * @return
+		 */
+		long percentile(double percentile) {
+
+			long total = 0;
+			for (int i = 0; i < counts.length(); i++) {
+				total += counts.get(i);
+			}
+			if (total == 0) {
+				return 0;
+			}
+			long target = Math.max(1, (long) Math.ceil(percentile / 100D * total));
+			long acc = 0;
+			for (int i = 0; i < counts.length(); i++) {
+				acc += counts.get(i);
+				if (acc >= target) {
+					return Math.min(upperBound(i), max.get());
+				}
+			}
+			return max.get();
+		}
+
+		/**
+		 * 转换为统计视图(单位毫秒)
+		 */
+		LatencyView toView() {
+
+			long n = count.sum();
+			return new LatencyView(n, n == 0 ? 0 : sum.sum() / 1000D / n,
+					percentile(50) / 1000D, percentile(90) / 1000D, percentile(99) / 1000D,
+					percentile(99.9) / 1000D, max.get() / 1000D);
+		}
+
+		private static int index(long value) {
+
+			if (value < SUB_COUNT) {
+				return (int) value;
+			}
+			int exp = 63 - Long.numberOfLeadingZeros(value);
+			int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+			return (exp - SUB_BITS + 1) * SUB_COUNT + sub;
+		}
+
+		private static long upperBound(int idx) {
+
+			if (idx < SUB_COUNT) {
+				return idx;
+			}
+			int exp = idx / SUB_COUNT + SUB_BITS - 1;
+			int sub = idx % SUB_COUNT;
+			long lower = (long) (SUB_COUNT + sub) << (exp - SUB_BITS);
+			return lower + (1L << (exp - SUB_BITS)) - 1;
+		}
+	}
+}
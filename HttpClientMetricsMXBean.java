@@ -0,0 +1,448 @@
+package com.jf.ams.notify.common.util;
+
+import java.util.Map;
+
+/**
+ * http连接工具类监控指标(JMX)
+ *
+ * ObjectName 为 com.jf.ams.notify.common.util:type=HttpClientUtil,name=客户端名称(默认客户端为default)
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+public interface HttpClientMetricsMXBean {
+
+	/**
+	 * 获取连接池整体统计
+	 *
+	 * @return
+	 */
+	PoolView getPoolTotal();
+
+	/**
+	 * 获取连接池各路由统计，key 为 host:port
+	 *
+	 * @return
+	 */
+	Map<String, PoolView> getPoolRoutes();
+
+	/**
+	 * 获取各路由请求耗时，key 为 "host:port 响应编码"(HTTP状态码或 STS_* 编码)
+	 *
+	 * @return
+	 */
+	Map<String, LatencyView> getLatency();
+
+	/**
+	 * 获取各路由从连接池获取连接的等待时间，key 为 host:port
+	 *
+	 * @return
+	 */
+	Map<String, LatencyView> getLeaseWait();
+
+	/**
+	 * 获取各路由自适应并发上限，key 为 host:port(未开启时为空)
+	 *
+	 * @return
+	 */
+	Map<String, LimitView> getConcurrencyLimit();
+
+	/**
+	 * 获取各主机速率限制(host:port -&gt; 统计)
+	 *
+	 * @return
+	 */
+	Map<String, RateView> getRateLimit();
+
+	/**
+	 * 获取GET响应缓存统计(未开启时为空)
+	 *
+	 * @return
+	 */
+	CacheView getResponseCache();
+
+	/**
+	 * 获取通知日志(持久化投递)统计(未开启时为空)
+	 *
+	 * @return
+	 */
+	JournalView getJournal();
+
+	/**
+	 * 获取当前生效的配置
+	 *
+	 * @return
+	 */
+	ConfigView getConfig();
+
+	/**
+	 * 清空耗时统计
+	 */
+	void reset();
+
+
+	/**
+	 * 连接池统计
+	 */
+	class PoolView {
+		/** 使用中连接数 */
+		private final int leased;
+		/** 等待连接的请求数 */
+		private final int pending;
+		/** 空闲连接数 */
+		private final int available;
+		/** 最大连接数 */
+		private final int max;
+
+		public PoolView(int leased, int pending, int available, int max) {
+			this.leased = leased;
+			this.pending = pending;
+			this.available = available;
+			this.max = max;
+		}
+
+		public int getLeased() {
+			return leased;
+		}
+
+		public int getPending() {
+			return pending;
+		}
+
+		public int getAvailable() {
+			return available;
+		}
+
+		public int getMax() {
+			return max;
+		}
+	}
+
+
+	/**
+	 * 耗时统计(单位毫秒)
+	 */
+	class LatencyView {
+		/** 笔数 */
+		private final long count;
+		/** 平均值 */
+		private final double mean;
+		/** 50分位 */
+		private final double p50;
+		/** 90分位 */
+		private final double p90;
+		/** 99分位 */
+		private final double p99;
+		/** 99.9分位 */
+		private final double p999;
+		/** 最大值 */
+		private final double max;
+
+		public LatencyView(long count, double mean, double p50, double p90, double p99, double p999, double max) {
+			this.count = count;
+			this.mean = mean;
+			this.p50 = p50;
+			this.p90 = p90;
+			this.p99 = p99;
+			this.p999 = p999;
+			this.max = max;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public double getMean() {
+			return mean;
+		}
+
+		public double getP50() {
+			return p50;
+		}
+
+		public double getP90() {
+			return p90;
+		}
+
+		public double getP99() {
+			return p99;
+		}
+
+		public double getP999() {
+			return p999;
+		}
+
+		public double getMax() {
+			return max;
+		}
+	}
+
+
+	/**
+	 * 并发限制统计
+	 */
+	class LimitView {
+		/** 当前并发上限 */
+		private final int limit;
+		/** 处理中请求数 */
+		private final int inFlight;
+		/** 累计拒绝笔数 */
+		private final long rejected;
+
+		public LimitView(int limit, int inFlight, long rejected) {
+			this.limit = limit;
+			this.inFlight = inFlight;
+			this.rejected = rejected;
+		}
+
+		public int getLimit() {
+			return limit;
+		}
+
+		public int getInFlight() {
+			return inFlight;
+		}
+
+		public long getRejected() {
+			return rejected;
+		}
+	}
+
+
+	/**
+	 * 速率限制统计
+	 */
+	class RateView {
+		/** 每秒请求数 */
+		private final double rate;
+		/** 累计排队等待笔数 */
+		private final long delayed;
+		/** 累计拒绝笔数 */
+		private final long rejected;
+
+		public RateView(double rate, long delayed, long rejected) {
+			this.rate = rate;
+			this.delayed = delayed;
+			this.rejected = rejected;
+		}
+
+		public double getRate() {
+			return rate;
+		}
+
+		public long getDelayed() {
+			return delayed;
+		}
+
+		public long getRejected() {
+			return rejected;
+		}
+	}
+
+
+	/**
+	 * 响应缓存统计
+	 */
+	class CacheView {
+		/** 命中次数 */
+		private final long hits;
+		/** 未命中次数(含过期需条件请求) */
+		private final long misses;
+		/** 条件请求返回304次数 */
+		private final long revalidations;
+		/** 淘汰次数 */
+		private final long evictions;
+		/** 条目数 */
+		private final int entries;
+		/** 当前字节数(估算) */
+		private final long bytes;
+		/** 最大字节数 */
+		private final long maxBytes;
+
+		public CacheView(long hits, long misses, long revalidations, long evictions, int entries, long bytes, long maxBytes) {
+			this.hits = hits;
+			this.misses = misses;
+			this.revalidations = revalidations;
+			this.evictions = evictions;
+			this.entries = entries;
+			this.bytes = bytes;
+			this.maxBytes = maxBytes;
+		}
+
+		public long getHits() {
+			return hits;
+		}
+
+		public long getMisses() {
+			return misses;
+		}
+
+		public long getRevalidations() {
+			return revalidations;
+		}
+
+		public long getEvictions() {
+			return evictions;
+		}
+
+		public int getEntries() {
+			return entries;
+		}
+
+		public long getBytes() {
+			return bytes;
+		}
+
+		public long getMaxBytes() {
+			return maxBytes;
+		}
+	}
+
+
+	/**
+	 * 通知日志统计
+	 */
+	class JournalView {
+		/** 追加笔数 */
+		private final long appended;
+		/** 投递成功笔数 */
+		private final long delivered;
+		/** 重试次数 */
+		private final long retries;
+		/** 放弃笔数 */
+		private final long failed;
+		/** 未完成笔数(含重启后待重放) */
+		private final long pending;
+		/** 分段文件数 */
+		private final int segments;
+
+		public JournalView(long appended, long delivered, long retries, long failed, long pending, int segments) {
+			this.appended = appended;
+			this.delivered = delivered;
+			this.retries = retries;
+			this.failed = failed;
+			this.pending = pending;
+			this.segments = segments;
+		}
+
+		public long getAppended() {
+			return appended;
+		}
+
+		public long getDelivered() {
+			return delivered;
+		}
+
+		public long getRetries() {
+			return retries;
+		}
+
+		public long getFailed() {
+			return failed;
+		}
+
+		public long getPending() {
+			return pending;
+		}
+
+		public int getSegments() {
+			return segments;
+		}
+	}
+
+
+	/**
+	 * 生效配置
+	 */
+	class ConfigView {
+		/** 加载次数(初始化为1) */
+		private final int version;
+		/** 加载时间(毫秒时间戳) */
+		private final long loadedAt;
+		/** 响应超时时间(单位毫秒) */
+		private final int socketTimeout;
+		/** 建立连接超时时间(单位毫秒) */
+		private final int connectTimeout;
+		/** 获取连接超时时间(单位毫秒) */
+		private final int connectionRequestTimeout;
+		/** 连接池最大连接数 */
+		private final int maxTotal;
+		/** 每路由最大连接数 */
+		private final int maxPerRoute;
+		/** 连接保持时间(单位毫秒) */
+		private final long keepAliveTime;
+		/** 请求体压缩阈值(单位字节) */
+		private final int gzipThreshold;
+		/** 单次请求总耗时上限(单位毫秒) */
+		private final int deadline;
+		/** 连接池维护间隔(单位毫秒) */
+		private final long poolValidateInterval;
+		/** 是否自适应调整连接数上限 */
+		private final boolean poolAdaptive;
+
+		public ConfigView(int version, long loadedAt, int socketTimeout, int connectTimeout, int connectionRequestTimeout,
+				int maxTotal, int maxPerRoute, long keepAliveTime, int gzipThreshold, int deadline,
+				long poolValidateInterval, boolean poolAdaptive) {
+			this.version = version;
+			this.loadedAt = loadedAt;
+			this.socketTimeout = socketTimeout;
+			this.connectTimeout = connectTimeout;
+			this.connectionRequestTimeout = connectionRequestTimeout;
+			this.maxTotal = maxTotal;
+			this.maxPerRoute = maxPerRoute;
+			this.keepAliveTime = keepAliveTime;
+			this.gzipThreshold = gzipThreshold;
+			this.deadline = deadline;
+			this.poolValidateInterval = poolValidateInterval;
+			this.poolAdaptive = poolAdaptive;
+		}
+
+		public int getVersion() {
+			return version;
+		}
+
+		public long getLoadedAt() {
+			return loadedAt;
+		}
+
+		public int getSocketTimeout() {
+			return socketTimeout;
+		}
+
+		public int getConnectTimeout() {
+			return connectTimeout;
+		}
+
+		public int getConnectionRequestTimeout() {
+			return connectionRequestTimeout;
+		}
+
+		public int getMaxTotal() {
+			return maxTotal;
+		}
+
+		public int getMaxPerRoute() {
+			return maxPerRoute;
+		}
+
+		public long getKeepAliveTime() {
+			return keepAliveTime;
+		}
+
+		public int getGzipThreshold() {
+			return gzipThreshold;
+		}
+
+		public int getDeadline() {
+			return deadline;
+		}
+
+		public long getPoolValidateInterval() {
+			return poolValidateInterval;
+		}
+
+		public boolean isPoolAdaptive() {
+			return poolAdaptive;
+		}
+	}
+}
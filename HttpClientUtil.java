@@ -3,40 +3,88 @@ package com.jf.ams.notify.common.util;
 import com.jf.common.tools.prop.PropertyManager;
 import org.apache.http.*;
 import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.config.SocketConfig;
 import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
 import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.DnsResolver;
 import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.DefaultConnectionReuseStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
 import org.apache.http.impl.io.DefaultHttpRequestWriterFactory;
 import org.apache.http.impl.io.DefaultHttpResponseParserFactory;
-import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.ManagedNHttpClientConnectionFactory;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
 import org.apache.http.util.Args;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.URI;
 import java.net.SocketTimeoutException;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * http连接工具类
@@ -54,6 +102,14 @@ public class HttpClientUtil {
 	public final int STS_TIMEOUT_CONN = -1;
 	/** 响应超时编码 */
 	public final int STS_TIMEOUT_SOCK = -2;
+	/** 熔断快速失败编码(请求未发出) */
+	public final int STS_CIRCUIT_OPEN = -3;
+	/** 超过并发上限编码(请求未发出) */
+	public final int STS_LIMITED = -4;
+	/** 超过速率限制编码(请求未发出) */
+	public final int STS_RATE_LIMITED = -5;
+	/** 等待发送时调用线程被中断编码(请求未发出) */
+	public final int STS_INTERRUPTED = -6;
 	/** 其他编码 */
 	public final int STS_OTHER = -9;
 	/** 非阻塞 I/O超时时间 */
@@ -68,26 +124,124 @@ public class HttpClientUtil {
 	private static int MAX_TOTAL = 500;
 	/**  每路由最大连接数，默认值是2  */
 	private static int MAX_ROUTE = 400;
+	/** 连接保持时间(单位毫秒)，小于等于0时以服务端Keep-Alive响应头为准 */
+	private static int KEEP_ALIVE_TIME = -1;
+	/** 请求体压缩阈值(单位字节)，小于0时不开启压缩模式 */
+	private static int GZIP_THRESHOLD = -1;
+	/** json请求体类型(与 StringEntity 默认类型一致) */
+	private static final ContentType JSON_CONTENT_TYPE = ContentType.create("text/plain", Consts.UTF_8);
+	/** 表单请求内容类型 */
+	private static final ContentType FORM_CONTENT_TYPE = ContentType.create(URLEncodedUtils.CONTENT_TYPE, Consts.UTF_8);
 
+	/** 审计日志 */
+	private static final HttpAuditLog AUDIT;
+	/** 域名解析(所有客户端共用缓存) */
+	private static final DnsResolver DNS_RESOLVER;
 	/** http连接工具类单利对象 */
 	private static final HttpClientUtil CLIENT_UTIL;
+	/** 按下游名称隔离的连接工具类对象 */
+	private static final ConcurrentHashMap<String, HttpClientUtil> CLIENT_REGISTRY = new ConcurrentHashMap<String, HttpClientUtil>();
+	/** 命名客户端创建锁(不使用 synchronized，虚拟线程等待时不占用载体线程) */
+	private static final ReentrantLock REGISTRY_LOCK = new ReentrantLock();
+	/** 缓存的端点及目标主机数上限 */
+	private static final int MAX_ENDPOINTS = 1024;
+	/** 单次请求未指定速率限制等待时间，按客户端配置(http_client_rate_max_wait) */
+	private static final long RATE_WAIT_CONFIG = -1;
+
+	/** 客户端名称，默认客户端为空 */
+	private final String name;
+	/** 请求连接(连接池中)超时时间  */
+	private volatile int conReqTimeOut = CON_REQ_TIME_OUT;
+	/** 建立链接超时时间  */
+	private volatile int conTimeOut = CON_TIME_OUT;
+	/** SOCKET 超时时间 */
+	private volatile int socketTimeOut = SOCKET_TIME_OUT;
+	/**  整个连接池最大连接数 */
+	private volatile int maxTotal = MAX_TOTAL;
+	/**  每路由最大连接数 */
+	private volatile int maxRoute = MAX_ROUTE;
+	/** 连接保持时间(单位毫秒) */
+	private volatile long keepAliveTime = KEEP_ALIVE_TIME;
+	/** 请求体压缩阈值(单位字节) */
+	private volatile int gzipThreshold = GZIP_THRESHOLD;
+	/** 单次请求总耗时上限(单位毫秒)，小于等于0时不限制 */
+	private volatile int deadlineTime = -1;
+	/** 配置重新加载锁 */
+	private final ReentrantLock configLock = new ReentrantLock();
+	/** 配置加载次数 */
+	private int configVersion;
 	/**  */
-	private static PoolingHttpClientConnectionManager cm ;
+	private HttpPoolManager.ConnectionPool cm ;
+	/** 异步(NIO)连接池 */
+	private PoolingNHttpClientConnectionManager ncm;
+	/** 监控指标 */
+	private HttpClientMetrics metrics;
+	/** 幂等请求对冲策略 */
+	private HttpHedgePolicy hedge;
+	/** 熔断参数 */
+	private HttpCircuitBreaker.Config breakerConfig;
+	/** 各主机熔断器 */
+	private final ConcurrentHashMap<HttpHost, HttpCircuitBreaker> breakers = new ConcurrentHashMap<HttpHost, HttpCircuitBreaker>();
+	/** 自适应并发限制参数 */
+	private HttpConcurrencyLimiter.Config limiterConfig;
+	/** 各路由并发限制 */
+	private final ConcurrentHashMap<HttpHost, HttpConcurrencyLimiter> limiters = new ConcurrentHashMap<HttpHost, HttpConcurrencyLimiter>();
+	/** 速率限制参数 */
+	private HttpRateLimiter.Config rateConfig;
+	/** 各主机速率限制(未配置速率的主机为 UNLIMITED) */
+	private final ConcurrentHashMap<HttpHost, HttpRateLimiter> rateLimiters = new ConcurrentHashMap<HttpHost, HttpRateLimiter>();
+	/** 连接池预热及最小空闲连接维护 */
+	private HttpPoolWarmer warmer;
+	/** 空闲连接后台校验及连接数上限调整 */
+	private HttpPoolManager poolManager;
+	/** 同步请求执行器(平台线程池或虚拟线程) */
+	private HttpBlockingExecutor executor;
+	/** 是否使用 HTTP/2 传输 */
+	private boolean h2Enabled;
+	/** HTTP 是否按预知方式使用 h2c */
+	private boolean h2c;
+	/** 主机协商 HTTP/2 失败后改用 HTTP/1.1 的时间(单位毫秒)，到期后重新尝试 */
+	private long h2FallbackTime;
+	/** GET响应缓存，未开启时为空 */
+	private HttpResponseCache responseCache;
+	/** 相同GET请求合并，未开启时为空 */
+	private HttpSingleFlight<HttpResRtn> singleFlight;
+	/** 通知日志(持久化投递)，未开启时为空 */
+	private HttpJournal journal;
+	/** 客户端创建锁(不使用 synchronized，虚拟线程等待时不占用载体线程) */
+	private final ReentrantLock initLock = new ReentrantLock();
+	/** 已解析的请求地址(URL -&gt; 端点) */
+	private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<String, Endpoint>();
+	/** 已解析的目标主机(host:port -&gt; 主机) */
+	private final ConcurrentHashMap<String, HttpHost> routes = new ConcurrentHashMap<String, HttpHost>();
 
-    private static ConnectionKeepAliveStrategy myStrategy;
+    private ConnectionKeepAliveStrategy myStrategy;
 
-	private static RequestConfig config;
+	private volatile RequestConfig config;
 
-	private CloseableHttpClient client;
+	private volatile CloseableHttpClient client;
+
+	private volatile CloseableHttpAsyncClient asyncClient;
+
+	private volatile HttpH2Transport h2Transport;
 
 	static {
 		init();
+		//审计日志：成功请求采样比例(0-100)、报文最大记录长度、队列长度
+		AUDIT = new HttpAuditLog(getIntProp("http_client_audit_buffer", 8192),
+				getIntProp("http_client_audit_sample", 100),
+				getIntProp("http_client_audit_max_body", 1024));
+		//域名解析缓存时间(单位毫秒)，小于等于0时每次新建连接由系统解析；
+		//过期后最多等待刷新 dns_max_wait 毫秒，刷新失败时旧结果最多使用至解析后 dns_max_stale 毫秒
+		int dnsTtl = getIntProp("http_client_dns_ttl", -1);
+		DNS_RESOLVER = dnsTtl > 0 ? new HttpDnsCache(dnsTtl, getIntProp("http_client_dns_max_wait", 1000),
+				getIntProp("http_client_dns_max_stale", dnsTtl * 10)) : SystemDefaultDnsResolver.INSTANCE;
 		//
-		CLIENT_UTIL = new HttpClientUtil();
+		CLIENT_UTIL = new HttpClientUtil(null);
 	}
 
 	/**
-	 * 配置连接池参数
+	 * 读取默认连接池参数
 	 *
 	 * @return
 	 */
@@ -105,21 +259,333 @@ public class HttpClientUtil {
 			logger.error("http 连接池初始化参数失败"+e.getMessage(),e);
 		}
 
+		KEEP_ALIVE_TIME = getIntProp("http_client_keepalive_timeout", KEEP_ALIVE_TIME);
+		GZIP_THRESHOLD = getIntProp("http_client_gzip_threshold", GZIP_THRESHOLD);
+	}
+
+	/**
+	 * 读取整型配置，未配置或格式错误时返回默认值
+	 *
+	 * @param key    配置项
+	 * @param defVal 默认值
+	 * @return
+	 */
+	private static int getIntProp(String key, int defVal) {
+
+		try {
+			String strVal = PropertyManager.getString(key);
+			if (strVal == null || strVal.trim().length() == 0) {
+				return defVal;
+			}
+			return Integer.parseInt(strVal.trim());
+		} catch (Exception e) {
+			logger.warn("http 连接池参数" + key + "读取失败，使用默认值" + defVal + "：" + e.getMessage());
+			return defVal;
+		}
+	}
+
+	/**
+	 * 读取字符串配置，未配置时返回默认值
+	 *
+	 * @param key    配置项
+	 * @param defVal 默认值
+	 * @return
+	 */
+	private static String getStringProp(String key, String defVal) {
+
+		try {
+			String strVal = PropertyManager.getString(key);
+			return strVal == null || strVal.trim().length() == 0 ? defVal : strVal.trim();
+		} catch (Exception e) {
+			logger.warn("http 连接池参数" + key + "读取失败，使用默认值" + defVal + "：" + e.getMessage());
+			return defVal;
+		}
+	}
+
+	/**
+	 * 配置项名称，命名客户端以"名称."为前缀
+	 *
+	 * @param key 配置项
+	 * @return
+	 */
+	private String propKey(String key) {
+
+		return name == null ? key : name + "." + key;
+	}
+
+	/**
+	 * 配置连接池参数
+	 *
+	 * 命名客户端读取"名称."前缀的配置项，未配置的沿用默认配置
+	 */
+	private void initPool() {
+
+		if (name != null) {
+			socketTimeOut = getIntProp(propKey("http_client_socket_timeout"), SOCKET_TIME_OUT);
+			conTimeOut = getIntProp(propKey("http_client_connectiontimeout"), CON_TIME_OUT);
+			conReqTimeOut = getIntProp(propKey("http_client_connectionrequest_timeout"), CON_REQ_TIME_OUT);
+			maxRoute = getIntProp(propKey("http_client_max_perroute"), MAX_ROUTE);
+			maxTotal = getIntProp(propKey("http_client_max_poolcount"), MAX_TOTAL);
+			keepAliveTime = getIntProp(propKey("http_client_keepalive_timeout"), KEEP_ALIVE_TIME);
+			gzipThreshold = getIntProp(propKey("http_client_gzip_threshold"), GZIP_THRESHOLD);
+		}
+
 		final Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
 				.register("http", PlainConnectionSocketFactory.INSTANCE)
 				.register("https", SSLConnectionSocketFactory.getSystemSocketFactory()).build();
 		final ManagedHttpClientConnectionFactory connectionFactory = new ManagedHttpClientConnectionFactory(DefaultHttpRequestWriterFactory.INSTANCE,
 				DefaultHttpResponseParserFactory.INSTANCE);
-		cm = new PoolingHttpClientConnectionManager(socketFactoryRegistry, connectionFactory);
+		cm = new HttpPoolManager.ConnectionPool(socketFactoryRegistry, connectionFactory, DNS_RESOLVER) {
+
+			@Override
+			public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+				//记录获取连接等待时间
+				return metrics.meterLease(route, super.requestConnection(route, state));
+			}
+
+			@Override
+			public void connect(HttpClientConnection managedConn, HttpRoute route, int connectTimeout, HttpContext context) throws IOException {
+				//建立连接超时不超过请求剩余时间
+				super.connect(managedConn, route, HttpDeadline.cap(connectTimeout, context), context);
+			}
+		};
+		//GET 响应缓存最大字节数，小于等于0时不开启
+		int cacheSize = getIntProp(propKey("http_client_cache_size"), getIntProp("http_client_cache_size", -1));
+		responseCache = cacheSize > 0 ? new HttpResponseCache(cacheSize) : null;
+		journal = openJournal();
+		metrics = new HttpClientMetrics(name, cm, limiters, rateLimiters, responseCache, journal);
+		//相同GET请求合并：执行中的相同请求共享一次网络调用
+		if (Boolean.parseBoolean(getStringProp(propKey("http_client_single_flight"), getStringProp("http_client_single_flight", "false")))) {
+			singleFlight = new HttpSingleFlight<HttpResRtn>();
+		}
+		//GET 对冲：对冲延迟分位未配置时不开启，对冲及重试不超过请求量的 budget%
+		hedge = new HttpHedgePolicy(
+				getIntProp(propKey("http_client_hedge_percentile"), getIntProp("http_client_hedge_percentile", -1)),
+				getIntProp(propKey("http_client_hedge_budget"), getIntProp("http_client_hedge_budget", 10)),
+				getIntProp(propKey("http_client_hedge_min_delay"), getIntProp("http_client_hedge_min_delay", 5)),
+				getIntProp(propKey("http_client_hedge_min_samples"), getIntProp("http_client_hedge_min_samples", 100)),
+				metrics);
 		final SocketConfig defaultSocketConfig = SocketConfig.custom().setTcpNoDelay(true).build();
 		cm.setDefaultSocketConfig(defaultSocketConfig);
-		cm.setMaxTotal(MAX_TOTAL);
-		cm.setDefaultMaxPerRoute(MAX_ROUTE);
+		cm.setMaxTotal(maxTotal);
+		cm.setDefaultMaxPerRoute(maxRoute);
 		cm.setValidateAfterInactivity(5*1000);
-		config = RequestConfig.custom().setConnectTimeout(CON_TIME_OUT)
-				.setSocketTimeout(SOCKET_TIME_OUT)
-				.setConnectionRequestTimeout(CON_REQ_TIME_OUT)
+		//后台每 validate_interval 毫秒关闭过期连接并校验空闲超过 validate_idle 毫秒的连接，检查时不持有连接池锁，获取连接时仅校验后台未及时校验的连接(小于等于0时均在获取时校验)；
+		//http_client_pool_adaptive=true 时按获取连接等待、排队及使用率在 route_min~route_max、total_min~total_max 范围内调整连接数上限
+		poolManager = new HttpPoolManager(cm, metrics, poolConfig());
+		poolManager.start();
+		config = RequestConfig.custom().setConnectTimeout(conTimeOut)
+				.setSocketTimeout(socketTimeOut)
+				.setConnectionRequestTimeout(conReqTimeOut)
 				.build();
+		//单次请求总耗时上限：覆盖限流等待、获取连接、建立连接及读取响应，到期中止请求
+		deadlineTime = getIntProp(propKey("http_client_deadline"), getIntProp("http_client_deadline", -1));
+
+		//熔断：失败率或慢调用率阈值(百分比)均未配置时不开启；命名客户端未配置的沿用默认配置
+		breakerConfig = new HttpCircuitBreaker.Config(
+				getIntProp(propKey("http_client_breaker_failure_rate"), getIntProp("http_client_breaker_failure_rate", -1)),
+				getIntProp(propKey("http_client_breaker_slow_rate"), getIntProp("http_client_breaker_slow_rate", -1)),
+				getIntProp(propKey("http_client_breaker_slow_call"), getIntProp("http_client_breaker_slow_call", socketTimeOut)),
+				getIntProp(propKey("http_client_breaker_min_calls"), getIntProp("http_client_breaker_min_calls", 20)),
+				getIntProp(propKey("http_client_breaker_window"), getIntProp("http_client_breaker_window", 10000)),
+				getIntProp(propKey("http_client_breaker_open_time"), getIntProp("http_client_breaker_open_time", 5000)),
+				getIntProp(propKey("http_client_breaker_probes"), getIntProp("http_client_breaker_probes", 5)),
+				//半开时长上限，默认为探测请求的最长耗时(获取连接、建立连接及读取超时之和)
+				getIntProp(propKey("http_client_breaker_half_open_time"),
+						getIntProp("http_client_breaker_half_open_time", conReqTimeOut + conTimeOut + socketTimeOut)));
+
+		//自适应并发限制：初始上限未配置时不开启，上限不超过每路由最大连接数，同步请求默认最多等待获取连接超时时间
+		limiterConfig = new HttpConcurrencyLimiter.Config(
+				getIntProp(propKey("http_client_limiter_initial"), getIntProp("http_client_limiter_initial", -1)),
+				getIntProp(propKey("http_client_limiter_min"), getIntProp("http_client_limiter_min", 1)),
+				maxRoute,
+				getIntProp(propKey("http_client_limiter_backoff"), getIntProp("http_client_limiter_backoff", 90)),
+				getIntProp(propKey("http_client_limiter_rtt_tolerance"), getIntProp("http_client_limiter_rtt_tolerance", 2)),
+				getIntProp(propKey("http_client_limiter_queue_timeout"), getIntProp("http_client_limiter_queue_timeout", conReqTimeOut)));
+
+		//速率限制：http_client_rate_limit 为各主机默认每秒请求数，http_client_rate_limits 按主机配置(如 host=50,host:8443=200)，均未配置时不开启；
+		//超过速率的请求按发送间隔排队(同时发送不超过 burst 个)，预计等待超过 max_wait 毫秒(默认获取连接超时时间，0 时直接拒绝，可按单次请求指定)时返回 STS_RATE_LIMITED
+		rateConfig = new HttpRateLimiter.Config(
+				getIntProp(propKey("http_client_rate_limit"), getIntProp("http_client_rate_limit", -1)),
+				getStringProp(propKey("http_client_rate_limits"), getStringProp("http_client_rate_limits", null)),
+				getIntProp(propKey("http_client_rate_burst"), getIntProp("http_client_rate_burst", 1)),
+				getIntProp(propKey("http_client_rate_max_wait"), getIntProp("http_client_rate_max_wait", conReqTimeOut)));
+
+		//连接保持策略：服务端未返回Keep-Alive或超过配置值时，按配置值保持；未配置时以服务端Keep-Alive响应头为准(配置可重新加载)
+		myStrategy = new ConnectionKeepAliveStrategy() {
+
+			@Override
+			public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+				long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+				long keepAlive = keepAliveTime;
+				if (keepAlive <= 0) {
+					return duration;
+				}
+				return duration > 0 && duration < keepAlive ? duration : keepAlive;
+			}
+		};
+
+		//异步连接池：少量I/O线程承载大量并发请求
+		try {
+			final Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+					.register("http", NoopIOSessionStrategy.INSTANCE)
+					.register("https", SSLIOSessionStrategy.getSystemDefaultStrategy()).build();
+			final IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+					.setIoThreadCount(Runtime.getRuntime().availableProcessors())
+					.setSelectInterval(SO_TIME_OUT)
+					.setConnectTimeout(conTimeOut)
+					.setSoTimeout(socketTimeOut)
+					.setTcpNoDelay(true)
+					.build();
+			ncm = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig),
+					ManagedNHttpClientConnectionFactory.INSTANCE, sessionStrategyRegistry, DNS_RESOLVER);
+			ncm.setMaxTotal(maxTotal);
+			ncm.setDefaultMaxPerRoute(maxRoute);
+		} catch (Exception e) {
+			logger.error("http 异步连接池初始化失败"+e.getMessage(),e);
+		}
+
+		initWarmer();
+
+		//传输协议：h2 时 HTTPS 经 ALPN 协商 HTTP/2(不支持时 HTTP/1.1)，HTTP 默认使用 h2c，可由 http_client_h2c=false 关闭
+		h2Enabled = "h2".equalsIgnoreCase(getStringProp(propKey("http_client_transport"), getStringProp("http_client_transport", "http1")));
+		h2c = Boolean.parseBoolean(getStringProp(propKey("http_client_h2c"), getStringProp("http_client_h2c", "true")));
+		//协商失败的主机改用 HTTP/1.1 的时间，默认10分钟
+		h2FallbackTime = getIntProp(propKey("http_client_h2_fallback_time"), getIntProp("http_client_h2_fallback_time", 10 * 60 * 1000));
+
+		//同步请求执行器：virtual 时(Java 21+)每个请求一个虚拟线程，默认平台线程池
+		executor = HttpBlockingExecutor.create(name,
+				getStringProp(propKey("http_client_executor"), getStringProp("http_client_executor", "platform")), maxTotal);
+
+		metrics.publishConfig(configView());
+
+		if (journal != null) {
+			journal.start(name == null ? "http-journal" : "http-journal-" + name);
+			Runtime.getRuntime().addShutdownHook(new Thread(){
+
+				@Override
+				public void run() {
+					journal.close();
+				}
+			});
+		}
+	}
+
+	/**
+	 * 读取连接池管理参数
+	 *
+	 * @return
+	 */
+	private HttpPoolManager.Config poolConfig() {
+
+		return new HttpPoolManager.Config(
+				getIntProp(propKey("http_client_pool_validate_interval"), getIntProp("http_client_pool_validate_interval", 1000)),
+				getIntProp(propKey("http_client_pool_validate_idle"), getIntProp("http_client_pool_validate_idle", 2000)),
+				getIntProp(propKey("http_client_pool_validate_batch"), getIntProp("http_client_pool_validate_batch", 32)),
+				getIntProp(propKey("http_client_pool_max_idle"), getIntProp("http_client_pool_max_idle", -1)),
+				Boolean.parseBoolean(getStringProp(propKey("http_client_pool_adaptive"), getStringProp("http_client_pool_adaptive", "false"))),
+				getIntProp(propKey("http_client_pool_resize_interval"), getIntProp("http_client_pool_resize_interval", 10000)),
+				getIntProp(propKey("http_client_pool_grow_wait"), getIntProp("http_client_pool_grow_wait", 2)),
+				getIntProp(propKey("http_client_pool_route_min"), getIntProp("http_client_pool_route_min", 2)),
+				getIntProp(propKey("http_client_pool_route_max"), getIntProp("http_client_pool_route_max", maxRoute * 2)),
+				getIntProp(propKey("http_client_pool_total_min"), getIntProp("http_client_pool_total_min", maxRoute)),
+				getIntProp(propKey("http_client_pool_total_max"), getIntProp("http_client_pool_total_max", maxTotal * 2)));
+	}
+
+	/**
+	 * 当前生效的配置
+	 *
+	 * @return
+	 */
+	private HttpClientMetricsMXBean.ConfigView configView() {
+
+		HttpPoolManager.Config poolConfig = poolManager.getConfig();
+		return new HttpClientMetricsMXBean.ConfigView(++configVersion, System.currentTimeMillis(), socketTimeOut, conTimeOut,
+				conReqTimeOut, maxTotal, maxRoute, keepAliveTime, gzipThreshold, deadlineTime, poolConfig.interval, poolConfig.adaptive);
+	}
+
+	/**
+	 * 打开通知日志(持久化投递)并从检查点恢复
+	 *
+	 * 按 http_client_journal_dir 配置日志目录，未配置时不开启；命名客户端须使用各自的目录
+	 *
+	 * @return 未开启或打开失败时为空
+	 */
+	private HttpJournal openJournal() {
+
+		String dir = getStringProp(propKey("http_client_journal_dir"), name == null ? getStringProp("http_client_journal_dir", null) : null);
+		if (dir == null) {
+			return null;
+		}
+		try {
+			return new HttpJournal(new File(dir),
+					//分段文件大小，默认64M
+					getIntProp(propKey("http_client_journal_segment_size"), getIntProp("http_client_journal_segment_size", 64 * 1024 * 1024)),
+					//同时发送(含等待重试)笔数
+					getIntProp(propKey("http_client_journal_senders"), getIntProp("http_client_journal_senders", 1024)),
+					//重试延迟从 retry_delay 逐次加倍至 retry_max_delay，最多发送 max_attempts 次后转入死信文件(小于等于0时不限)
+					getIntProp(propKey("http_client_journal_retry_delay"), getIntProp("http_client_journal_retry_delay", 1000)),
+					getIntProp(propKey("http_client_journal_retry_max_delay"), getIntProp("http_client_journal_retry_max_delay", 300 * 1000)),
+					getIntProp(propKey("http_client_journal_max_attempts"), getIntProp("http_client_journal_max_attempts", 20)),
+					Boolean.parseBoolean(getStringProp(propKey("http_client_journal_sync"), getStringProp("http_client_journal_sync", "false"))),
+					new HttpJournal.Sender() {
+
+						@Override
+						public CompletableFuture<Integer> send(byte kind, String url, byte[] body) {
+							HttpPost postMethod = new HttpPost(toUri(url));
+							postMethod.setEntity(new ByteArrayEntity(body, kind == HttpJournal.FORM ? FORM_CONTENT_TYPE : JSON_CONTENT_TYPE));
+							return executeAsync(postMethod, null, kind == HttpJournal.FORM ? null : "utf-8", new String(body, Consts.UTF_8),
+									HttpDeadline.after(deadlineTime), RATE_WAIT_CONFIG)
+									.thenApply(new Function<HttpResRtn, Integer>() {
+
+										@Override
+										public Integer apply(HttpResRtn resRtn) {
+											return resRtn.getStsCode();
+										}
+									});
+						}
+					});
+		} catch (Exception e) {
+			logger.error("http 通知日志" + dir + "打开失败" + e.getMessage(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * 连接池预热
+	 *
+	 * 按 http_client_warm_routes(逗号分隔，如 https://host:port)每路由建立 http_client_warm_connections 个连接，
+	 * 之后每 http_client_warm_interval 毫秒校验并补足 http_client_warm_min_idle 个空闲连接(连接池管理定时维护时仅补足空闲连接不足且无排队的路由)
+	 */
+	private void initWarmer() {
+
+		int connections = getIntProp(propKey("http_client_warm_connections"), getIntProp("http_client_warm_connections", 2));
+		int minIdle = getIntProp(propKey("http_client_warm_min_idle"), getIntProp("http_client_warm_min_idle", connections));
+		int interval = getIntProp(propKey("http_client_warm_interval"), getIntProp("http_client_warm_interval", 10000));
+		//预热连接未收到服务端Keep-Alive，按连接保持时间放回，未配置时保持60秒
+		warmer = new HttpPoolWarmer(cm, poolManager, Math.min(minIdle, maxRoute), conTimeOut, keepAliveTime > 0 ? keepAliveTime : 60 * 1000);
+		warmer.start(interval);
+
+		String strRoutes = getStringProp(propKey("http_client_warm_routes"), null);
+		if (strRoutes == null) {
+			return;
+		}
+
+		//在当前线程预热(静态初始化期间其他线程无法访问本类)
+		int opened = 0;
+		for (String strRoute : strRoutes.split(",")) {
+			if (strRoute.trim().length() == 0) {
+				continue;
+			}
+			try {
+				HttpRoute route = HttpPoolWarmer.toRoute(strRoute);
+				warmer.register(route);
+				opened += warmer.warm(route, Math.min(connections, maxRoute));
+			} catch (Exception e) {
+				logger.warn("http 预热路由格式错误" + strRoute + "：" + e.getMessage());
+			}
+		}
+		logger.info("http 连接池预热完成" + strRoutes + "：" + opened);
 	}
 
 	/**
@@ -130,17 +596,37 @@ public class HttpClientUtil {
 	private CloseableHttpClient getConnection() {
 
 		if(null == client){
-			synchronized (this){
+			initLock.lock();
+			try {
 				if(null == client){
-					client = HttpClients.custom().setConnectionManager(cm)
+					HttpClientBuilder builder = HttpClients.custom().setConnectionManager(cm)
 							.setConnectionManagerShared(false)
 							.evictExpiredConnections()
 							.setConnectionTimeToLive(60, TimeUnit.SECONDS)
 							.setDefaultRequestConfig(config)
 							.setConnectionReuseStrategy(DefaultConnectionReuseStrategy.INSTANCE)
-							.setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+							.setKeepAliveStrategy(myStrategy)
 							.setRetryHandler(new DefaultHttpRequestRetryHandler(0,false))
-							.build();
+							.setRequestExecutor(new HttpRequestExecutor() {
+
+								@Override
+								public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context)
+										throws IOException, HttpException {
+									//读取响应超时不超过请求剩余时间
+									HttpDeadline deadline = HttpDeadline.of(context);
+									if (deadline != null) {
+										conn.setSocketTimeout(deadline.cap(conn.getSocketTimeout()));
+									}
+									return super.execute(request, conn, context);
+								}
+							});
+					//压缩模式：池化解压器替换默认解压
+					if (gzipThreshold >= 0) {
+						builder.disableContentCompression()
+								.addInterceptorLast(HttpCompressor.ACCEPT_ENCODING)
+								.addInterceptorFirst(HttpCompressor.RESPONSE_DECODING);
+					}
+					client = builder.build();
 
 					Runtime.getRuntime().addShutdownHook(new Thread(){
 
@@ -154,29 +640,100 @@ public class HttpClientUtil {
 						}
 					});
 				}
+			} finally {
+				initLock.unlock();
 			}
 		}
 		return client;
 	}
 
 	/**
+	 * 获取异步链接
 	 *
+	 * @return
+	 */
+	private CloseableHttpAsyncClient getAsyncConnection() {
+
+		if(null == asyncClient){
+			initLock.lock();
+			try {
+				if(null == asyncClient){
+					Args.notNull(ncm, "async connection manager");
+					HttpAsyncClientBuilder builder = HttpAsyncClients.custom().setConnectionManager(ncm)
+							.setConnectionManagerShared(false)
+							.setDefaultRequestConfig(config)
+							.setConnectionReuseStrategy(DefaultConnectionReuseStrategy.INSTANCE)
+							.setKeepAliveStrategy(myStrategy);
+					//压缩模式(响应在读取完成后解压，见 executeAsync)
+					if (gzipThreshold >= 0) {
+						builder.addInterceptorLast(HttpCompressor.ACCEPT_ENCODING);
+					}
+					CloseableHttpAsyncClient httpAsyncClient = builder.build();
+					httpAsyncClient.start();
+					asyncClient = httpAsyncClient;
+
+					Runtime.getRuntime().addShutdownHook(new Thread(){
+
+						@Override
+						public void run() {
+							try {
+								asyncClient.close();
+							} catch (IOException e) {
+								logger.error(e.getMessage(),e);
+							}
+						}
+					});
+				}
+			} finally {
+				initLock.unlock();
+			}
+		}
+		return asyncClient;
+	}
+
+	/**
+	 * 获取 HTTP/2 传输
 	 *
-	 * @param paraMap
-	 * @param charSet
 	 * @return
-	 * @throws Exception
 	 */
-	private UrlEncodedFormEntity mapToEntity(Map<Object, Object> paraMap, Charset charSet) throws Exception {
+	private HttpH2Transport getH2Transport() {
 
-		//实体
-		List<NameValuePair> params = new ArrayList<NameValuePair>();
-		//赋值
-		for (Object key : paraMap.keySet()) {
-			params.add(new BasicNameValuePair(key.toString(), (String)paraMap.get(key)));
+		if(null == h2Transport){
+			initLock.lock();
+			try {
+				if(null == h2Transport){
+					h2Transport = new HttpH2Transport(conTimeOut, socketTimeOut, keepAliveTime, h2c, h2FallbackTime, DNS_RESOLVER, new HttpH2Transport.Http1Client() {
+
+						@Override
+						public CloseableHttpAsyncClient get() {
+							return getAsyncConnection();
+						}
+					});
+
+					Runtime.getRuntime().addShutdownHook(new Thread(){
+
+						@Override
+						public void run() {
+							h2Transport.close();
+						}
+					});
+				}
+			} finally {
+				initLock.unlock();
+			}
 		}
+		return h2Transport;
+	}
+
+	/**
+	 * 表单请求实体(UTF-8)
+	 *
+	 * @param paraMap 请求参数
+	 * @return
+	 */
+	private HttpEntity formEntity(Map<Object, Object> paraMap) {
 
-		return new UrlEncodedFormEntity(params,charSet);
+		return new ByteArrayEntity(HttpFormEncoder.encodeBytes(paraMap), FORM_CONTENT_TYPE);
 	}
 
 	/**
@@ -199,663 +756,3396 @@ public class HttpClientUtil {
 		return strUrl;
 	}
 
-
 	/**
-	 * http请求响应信息
-	 *
-	 * @author brilliance.ke
+	 * 请求URI，已注册端点的URL不再重复解析
 	 *
+	 * @param strUrl 请求URL
+	 * @return
 	 */
-	public class HttpResRtn {
-		/** 响应编码 */
-		private int stsCode;
-		/** 响应原因短语 */
-		private String rsnPhrase;
-		/** 响应值 */
-		private String value;
+	private URI toUri(String strUrl) {
 
-		/**
-		 * 构造方法
-		 */
-		private HttpResRtn() {
+		Endpoint ep = endpoints.isEmpty() ? null : endpoints.get(strUrl);
+		return ep != null ? ep.uri : URI.create(strUrl);
+	}
 
-		}
+	/**
+	 * 拼接参数的请求URI，已注册端点只解析参数部分
+	 *
+	 * @param strUrl 请求URL
+	 * @param paras  参数
+	 * @return
+	 */
+	private URI queryUri(String strUrl, String paras) {
 
-		/**
-		 * 获取响应编码
-		 *
-		 * @return
-		 */
-		public int getStsCode() {
-			return stsCode;
-		}
+		Endpoint ep = endpoints.isEmpty() ? null : endpoints.get(strUrl);
+		return ep != null ? ep.bind(paras) : URI.create(urlAppend(strUrl, paras));
+	}
 
-		/**
-		 * 设置响应编码
-		 *
-		 * @param stsCode
-		 */
-		protected void setStsCode(int stsCode) {
-			this.stsCode = stsCode;
-		}
+	/**
+	 * 拼接参数的请求URI，已注册端点只解析参数部分
+	 *
+	 * @param strUrl  请求URL
+	 * @param paraMap 参数
+	 * @return
+	 */
+	private URI queryUri(String strUrl, Map<Object, Object> paraMap) {
 
-		/**
-		 * 获取原因原语
-		 *
-		 * @return
-		 */
-		public String getRsnPhrase() {
-			return rsnPhrase;
-		}
+		Endpoint ep = endpoints.isEmpty() ? null : endpoints.get(strUrl);
+		return ep != null ? ep.bind(HttpFormEncoder.encode(paraMap)) : URI.create(HttpFormEncoder.appendQuery(strUrl, paraMap));
+	}
 
-		/**
-		 * 设置原因原语
-		 *
-		 * @param rsnPhrase
-		 */
-		protected void setRsnPhrase(String rsnPhrase) {
-			this.rsnPhrase = rsnPhrase;
-		}
+	/**
+	 * 请求目标主机，按 host:port 缓存，不再逐次解析
+	 *
+	 * @param uri 请求URI
+	 * @return 非绝对地址时返回null
+	 */
+	private HttpHost hostOf(URI uri) {
 
-		/**
-		 * 获取返回信息
-		 *
-		 * @return
-		 */
-		public String getValue() {
-			return value;
+		String authority = uri == null ? null : uri.getRawAuthority();
+		if (authority == null) {
+			return URIUtils.extractHost(uri);
 		}
-
-		/**
-		 * 设置返回信息
-		 *
-		 * @param value
-		 */
-		protected void setValue(String value) {
-			this.value = value;
+		HttpHost host = routes.get(authority);
+		if (host != null && host.getSchemeName().equalsIgnoreCase(uri.getScheme())) {
+			return host;
 		}
-
+		host = URIUtils.extractHost(uri);
+		if (host != null && routes.size() < MAX_ENDPOINTS) {
+			routes.put(authority, host);
+		}
+		return host;
 	}
 
 
 	/**
-	 * 私有化构造方法
+	 * json请求实体，压缩模式下超过阈值的请求体以gzip发送
+	 *
+	 * @param strJson  请求json字符串
+	 * @param compress 本次请求是否压缩(客户端未开启压缩模式时阈值为0)
+	 * @return
 	 */
-	private HttpClientUtil() {
-		
+	private HttpEntity jsonEntity(String strJson, boolean compress) {
+
+		int threshold = compress ? Math.max(gzipThreshold, 0) : gzipThreshold;
+		if (threshold >= 0) {
+			byte[] data = strJson.getBytes(Consts.UTF_8);
+			if (data.length >= threshold) {
+				return HttpCompressor.gzipEntity(data, JSON_CONTENT_TYPE);
+			}
+		}
+		return new StringEntity(strJson,"utf-8");
 	}
-	
+
 	/**
-	 * 获取当前对象，单例对象
+	 * 请求路由(host:port)，用于监控指标分组
+	 *
+	 * @param method 请求
 	 * @return
 	 */
-	public static HttpClientUtil getInstance() {
-		
-		return CLIENT_UTIL;
+	private String routeOf(HttpRequestBase method) {
+
+		return method == null || method.getURI() == null ? null : method.getURI().getRawAuthority();
 	}
-	
-	
+
 	/**
-	 * post请求 参数为json串
+	 * 请求前获取目标路由并发名额
+	 *
+	 * @param method 请求
+	 * @param wait   上限已满时是否等待(异步请求不等待)
+	 * @return 并发限制，未开启时为空
+	 * @throws HttpConcurrencyLimiter.LimitException 超过并发上限
+	 * @throws InterruptedException
+	 */
+	private HttpConcurrencyLimiter acquireLimiter(HttpRequestBase method, boolean wait, HttpDeadline deadline)
+			throws HttpConcurrencyLimiter.LimitException, InterruptedException {
+
+		if (!limiterConfig.isEnabled()) {
+			return null;
+		}
+		HttpHost host = hostOf(method.getURI());
+		if (host == null) {
+			return null;
+		}
+		HttpConcurrencyLimiter limiter = limiters.get(host);
+		if (limiter == null) {
+			HttpConcurrencyLimiter created = new HttpConcurrencyLimiter(host, limiterConfig);
+			limiter = limiters.putIfAbsent(host, created);
+			if (limiter == null) {
+				limiter = created;
+			}
+		}
+		long waitMillis = wait ? limiterConfig.queueTimeout : 0;
+		if (deadline != null) {
+			waitMillis = Math.min(waitMillis, deadline.remainingMillis());
+		}
+		limiter.acquire(waitMillis);
+		return limiter;
+	}
+
+	/**
+	 * 目标主机的速率限制
+	 *
+	 * @param method 请求
+	 * @return 未开启或目标主机未配置速率时为空
+	 */
+	private HttpRateLimiter rateLimiter(HttpRequestBase method) {
+
+		if (!rateConfig.isEnabled()) {
+			return null;
+		}
+		HttpHost host = hostOf(method.getURI());
+		if (host == null) {
+			return null;
+		}
+		HttpRateLimiter limiter = rateLimiters.get(host);
+		if (limiter == null) {
+			double rate = rateConfig.rateOf(host);
+			HttpRateLimiter created = rate > 0 ? new HttpRateLimiter(host, rate, rateConfig.burst) : HttpRateLimiter.UNLIMITED;
+			limiter = rateLimiters.putIfAbsent(host, created);
+			if (limiter == null) {
+				limiter = created;
+			}
+		}
+		return limiter == HttpRateLimiter.UNLIMITED ? null : limiter;
+	}
+
+	/**
+	 * 请求前按目标主机速率限制预约发送时间
+	 *
+	 * @param limiter  速率限制
+	 * @param deadline 截止时间，为空时不限制
+	 * @param rateWait 超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @return 需等待的时间(单位纳秒)，无需等待时为0
+	 * @throws HttpRateLimiter.RejectedException 预计等待超过最长等待时间或截止时间
+	 */
+	private long reserveRate(HttpRateLimiter limiter, HttpDeadline deadline, long rateWait) throws HttpRateLimiter.RejectedException {
+
+		long waitMillis = rateWait < 0 ? rateConfig.maxWait : rateWait;
+		if (deadline != null) {
+			waitMillis = Math.min(waitMillis, deadline.remainingMillis());
+		}
+		return limiter.reserve(TimeUnit.MILLISECONDS.toNanos(waitMillis));
+	}
+
+	/**
+	 * 同步请求按速率限制等待至预约发送时间，等待被中断时归还许可
+	 *
+	 * @param method   请求
+	 * @param deadline 截止时间，为空时不限制
+	 * @param rateWait 超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @return 已预约许可的速率限制，未开启时为空
+	 * @throws HttpRateLimiter.RejectedException 预计等待超过最长等待时间或截止时间
+	 * @throws InterruptedException
+	 */
+	private HttpRateLimiter acquireRate(HttpRequestBase method, HttpDeadline deadline, long rateWait)
+			throws HttpRateLimiter.RejectedException, InterruptedException {
+
+		HttpRateLimiter limiter = rateLimiter(method);
+		if (limiter == null) {
+			return null;
+		}
+		long wait = reserveRate(limiter, deadline, rateWait);
+		if (wait > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(wait);
+			} catch (InterruptedException e) {
+				limiter.refund();
+				throw e;
+			}
+		}
+		return limiter;
+	}
+
+	/**
+	 * 请求被并发限制、熔断拒绝或等待并发名额时被中断(未发出)，归还速率限制许可
+	 *
+	 * @param rate    已预约许可的速率限制，为空时忽略
+	 * @param stsCode 响应编码
+	 */
+	private void refundRate(HttpRateLimiter rate, int stsCode) {
+
+		if (rate != null && (stsCode == STS_LIMITED || stsCode == STS_CIRCUIT_OPEN || stsCode == STS_INTERRUPTED)) {
+			rate.refund();
+		}
+	}
+
+	/**
+	 * 释放并发名额，超时及429/503视为拥塞，熔断快速失败不参与调整
+	 *
+	 * @param limiter 并发限制
+	 * @param stsCode 响应编码
+	 * @param nanos   耗时(单位纳秒)
+	 */
+	private void releaseLimiter(HttpConcurrencyLimiter limiter, int stsCode, long nanos) {
+
+		if (stsCode == STS_CIRCUIT_OPEN) {
+			limiter.release();
+		} else {
+			limiter.release(stsCode == STS_TIMEOUT_CONN || stsCode == STS_TIMEOUT_SOCK
+					|| stsCode == 429 || stsCode == HttpStatus.SC_SERVICE_UNAVAILABLE, nanos);
+		}
+	}
+
+	/**
+	 * 同步执行请求，设置截止时间时各阶段超时不超过剩余时间
+	 *
+	 * @param method   请求
+	 * @param deadline 截止时间，为空时不限制
+	 * @return
+	 * @throws IOException
+	 */
+	private HttpResponse execute(HttpRequestBase method, HttpDeadline deadline) throws IOException {
+
+		//目标主机已缓存，客户端不再从URI解析
+		HttpHost target = hostOf(method.getURI());
+		//未单独指定超时的请求使用当前配置(可重新加载)，不使用创建客户端时的默认配置
+		if (method.getConfig() == null) {
+			method.setConfig(config);
+		}
+		if (deadline == null) {
+			return target == null ? getConnection().execute(method) : getConnection().execute(target, method);
+		}
+		method.setConfig(deadline.cap(method.getConfig()));
+		return target == null ? getConnection().execute(method, deadline.newContext())
+				: getConnection().execute(target, method, deadline.newContext());
+	}
+
+	/**
+	 * 请求前检查目标主机熔断器
+	 *
+	 * @param method 请求
+	 * @return 熔断器，未开启熔断时为空
+	 * @throws HttpCircuitBreaker.OpenException 熔断器打开
+	 */
+	private HttpCircuitBreaker acquireBreaker(HttpRequestBase method) throws HttpCircuitBreaker.OpenException {
+
+		if (!breakerConfig.isEnabled()) {
+			return null;
+		}
+		HttpHost host = hostOf(method.getURI());
+		if (host == null) {
+			return null;
+		}
+		HttpCircuitBreaker breaker = breakers.get(host);
+		if (breaker == null) {
+			HttpCircuitBreaker created = new HttpCircuitBreaker(host, breakerConfig);
+			breaker = breakers.putIfAbsent(host, created);
+			if (breaker == null) {
+				breaker = created;
+			}
+		}
+		breaker.acquire();
+		return breaker;
+	}
+
+	/**
+	 * 响应体交由处理器流式读取
+	 *
+	 * @param entity     响应实体
+	 * @param defCharSet 默认字符集
+	 * @param handler    响应体处理器
+	 * @throws IOException
+	 */
+	private void handleBody(HttpEntity entity, Charset defCharSet, BodyHandler handler) throws IOException {
+
+		if (entity == null) {
+			return;
+		}
+		ContentType contentType = ContentType.get(entity);
+		Charset charSet = contentType != null && contentType.getCharset() != null ? contentType.getCharset() : defCharSet;
+
+		InputStream content = entity.getContent();
+		try {
+			handler.handle(content, charSet);
+		} finally {
+			//关闭流：读取剩余内容后连接归还连接池
+			content.close();
+		}
+	}
+
+	/**
+	 * http请求响应信息
+	 *
+	 * @author brilliance.ke
+	 *
+	 */
+	public class HttpResRtn {
+		/** 响应编码 */
+		private int stsCode;
+		/** 响应原因短语 */
+		private String rsnPhrase;
+		/** 响应值 */
+		private String value;
+
+		/**
+		 * 构造方法
+		 */
+		private HttpResRtn() {
+
+		}
+
+		/**
+		 * 获取响应编码
+		 *
+		 * @return
+		 */
+		public int getStsCode() {
+			return stsCode;
+		}
+
+		/**
+		 * 设置响应编码
+		 *
+		 * @param stsCode
+		 */
+		protected void setStsCode(int stsCode) {
+			this.stsCode = stsCode;
+		}
+
+		/**
+		 * 获取原因原语
+		 *
+		 * @return
+		 */
+		public String getRsnPhrase() {
+			return rsnPhrase;
+		}
+
+		/**
+		 * 设置原因原语
+		 *
+		 * @param rsnPhrase
+		 */
+		protected void setRsnPhrase(String rsnPhrase) {
+			this.rsnPhrase = rsnPhrase;
+		}
+
+		/**
+		 * 获取返回信息
+		 *
+		 * @return
+		 */
+		public String getValue() {
+			return value;
+		}
+
+		/**
+		 * 设置返回信息
+		 *
+		 * @param value
+		 */
+		protected void setValue(String value) {
+			this.value = value;
+		}
+
+	}
+
+
+	/**
+	 * 响应体处理器，用于边接收边解析大报文，避免整体读取为字符串
+	 *
+	 * 需要按通道读取时可使用 java.nio.channels.Channels.newChannel(content)
+	 *
+	 * @author brilliance.ke
+	 *
+	 */
+	public interface BodyHandler {
+
+		/**
+		 * 处理响应体(仅状态码为200时调用)，方法返回后由工具类关闭流并释放连接
+		 *
+		 * @param content 响应体输入流
+		 * @param charSet 响应字符集，响应头未声明时为接口默认字符集(可能为空)
+		 * @throws IOException
+		 */
+		void handle(InputStream content, Charset charSet) throws IOException;
+	}
+
+	/**
+	 * 批量请求参数
+	 *
+	 * @author brilliance.ke
+	 *
+	 */
+	public static class Request {
+		/** 请求URL */
+		private final String url;
+		/** 请求json字符串 */
+		private final String strJson;
+		/** 请求Map对象 */
+		private final Map<Object, Object> paraMap;
+
+		/**
+		 * 构造方法，参数为json串
+		 *
+		 * @param url     请求URL
+		 * @param strJson 请求json字符串
+		 */
+		public Request(String url, String strJson) {
+			this.url = url;
+			this.strJson = strJson;
+			this.paraMap = null;
+		}
+
+		/**
+		 * 构造方法，参数为Map
+		 *
+		 * @param url     请求URL
+		 * @param paraMap 请求Map对象
+		 */
+		public Request(String url, Map<Object, Object> paraMap) {
+			this.url = url;
+			this.strJson = null;
+			this.paraMap = paraMap;
+		}
+
+		/**
+		 * 获取请求URL
+		 *
+		 * @return
+		 */
+		public String getUrl() {
+			return url;
+		}
+
+		/**
+		 * 获取请求json字符串
+		 *
+		 * @return
+		 */
+		public String getStrJson() {
+			return strJson;
+		}
+
+		/**
+		 * 获取请求Map对象
+		 *
+		 * @return
+		 */
+		public Map<Object, Object> getParaMap() {
+			return paraMap;
+		}
+	}
+
+
+	/**
+	 * 批量请求响应信息
+	 *
+	 * @author brilliance.ke
+	 *
+	 */
+	public class BatchRtn {
+		/** 响应信息，与请求顺序一致 */
+		private final List<HttpResRtn> results;
+		/** 成功(200)笔数 */
+		private final int succCount;
+		/** 总耗时(单位毫秒) */
+		private final long elapsedTime;
+		/** 吞吐量(笔/秒) */
+		private final double throughput;
+		/** 单笔耗时(单位毫秒)，升序 */
+		private final long[] latencies;
+
+		/**
+		 * 构造方法
+		 */
+		private BatchRtn(List<HttpResRtn> results, long[] latencies, long elapsedTime) {
+			int count = 0;
+			for (HttpResRtn resRtn : results) {
+				if (resRtn.getStsCode() == HttpStatus.SC_OK) {
+					count++;
+				}
+			}
+			//复制后排序：中止时执行中的请求仍会写入原数组
+			long[] sorted = latencies.clone();
+			Arrays.sort(sorted);
+			this.results = results;
+			this.succCount = count;
+			this.elapsedTime = elapsedTime;
+			this.throughput = elapsedTime > 0 ? results.size() * 1000D / elapsedTime : results.size();
+			this.latencies = sorted;
+		}
+
+		/**
+		 * 获取响应信息，与请求顺序一致
+		 *
+		 * @return
+		 */
+		public List<HttpResRtn> getResults() {
+			return results;
+		}
+
+		/**
+		 * 获取成功(200)笔数
+		 *
+		 * @return
+		 */
+		public int getSuccCount() {
+			return succCount;
+		}
+
+		/**
+		 * 获取总耗时(单位毫秒)
+		 *
+		 * @return
+		 */
+		public long getElapsedTime() {
+			return elapsedTime;
+		}
+
+		/**
+		 * 获取吞吐量(笔/秒)
+		 *
+		 * @return
+		 */
+		public double getThroughput() {
+			return throughput;
+		}
+
+		/**
+		 * 获取单笔耗时百分位(单位毫秒)
+		 *
+		 * @param percentile 百分位，如 50、99、99.9
+		 * @return
+		 */
+		public long getLatency(double percentile) {
+			if (latencies.length == 0) {
+				return 0;
+			}
+			int idx = (int) Math.ceil(percentile / 100D * latencies.length) - 1;
+			return latencies[Math.min(Math.max(idx, 0), latencies.length - 1)];
+		}
+
+		@Override
+		public String toString() {
+			return "total：" + results.size() + "，succ：" + succCount + "，花费时间(单位：毫秒)：" + elapsedTime
+					+ "，tps：" + String.format("%.1f", throughput) + "，p50：" + getLatency(50) + "，p90：" + getLatency(90)
+					+ "，p99：" + getLatency(99) + "，max：" + getLatency(100);
+		}
+	}
+
+
+	/**
+	 * 请求端点：URL 只解析一次，URI 及目标主机随端点缓存
+	 *
+	 * 经端点发送的请求直接使用已解析的 URI，不再拼接及解析 URL；GET 参数按端点 URL 拼接(已含 ? 时以 &amp; 连接)
+	 *
+	 * @author brilliance.ke
+	 *
+	 */
+	public class Endpoint {
+		/** 请求URL */
+		private final String url;
+		/** 已解析的URI */
+		private final URI uri;
+		/** 目标主机 */
+		private final HttpHost host;
+		/** 绑定参数的相对引用前缀(路径最后一段及原有参数)，按已解析的URI解析，不再解析协议及主机 */
+		private final String queryPrefix;
+
+		/**
+		 * 构造方法
+		 */
+		private Endpoint(String url) {
+			URI parsed = URI.create(url);
+			HttpHost target = hostOf(parsed);
+			Args.check(target != null, "url must be absolute: " + url);
+			this.url = url;
+			this.uri = parsed;
+			this.host = target;
+
+			String path = parsed.getRawPath();
+			StringBuilder prefix = new StringBuilder();
+			if (path == null || path.isEmpty()) {
+				prefix.append('/');
+			} else {
+				//以 ./ 开头，最后一段含 : 时不作为协议
+				prefix.append("./").append(path, path.lastIndexOf('/') + 1, path.length());
+			}
+			String query = parsed.getRawQuery();
+			prefix.append('?');
+			if (query != null) {
+				prefix.append(query).append('&');
+			}
+			this.queryPrefix = prefix.toString();
+		}
+
+		/**
+		 * 绑定请求参数
+		 *
+		 * @param query 已编码的参数
+		 * @return 请求URI
+		 */
+		private URI bind(String query) {
+			return uri.resolve(URI.create(queryPrefix + query));
+		}
+
+		/**
+		 * 获取请求URL
+		 *
+		 * @return
+		 */
+		public String getUrl() {
+			return url;
+		}
+
+		/**
+		 * 获取目标主机(host:port)
+		 *
+		 * @return
+		 */
+		public String getRoute() {
+			return host.toHostString();
+		}
+
+		/**
+		 * post请求 参数为json串
+		 *
+		 * @param strJson 请求json字符串
+		 * @return
+		 */
+		public HttpResRtn postJson(String strJson) {
+			return HttpClientUtil.this.postJson(url, strJson, null, null, false, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * post请求 参数为json串
+		 *
+		 * @param strJson      请求json字符串
+		 * @param socetTimeOut 响应超时时间(单位毫秒)
+		 * @return
+		 */
+		public HttpResRtn postJson(String strJson, int socetTimeOut) {
+			return HttpClientUtil.this.postJson(url, strJson, timeoutConfig(socetTimeOut, conTimeOut), null, false, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * post请求 参数为json串，响应体交由处理器读取
+		 *
+		 * @param strJson 请求json字符串
+		 * @param handler 响应体处理器
+		 * @return
+		 */
+		public HttpResRtn postJson(String strJson, BodyHandler handler) {
+			Args.notNull(handler, "body handler");
+			return HttpClientUtil.this.postJson(url, strJson, null, handler, false, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * post请求 参数为map
+		 *
+		 * @param paraMap 请求map
+		 * @return
+		 */
+		public HttpResRtn postMap(Map<Object, Object> paraMap) {
+			return HttpClientUtil.this.postMap(url, paraMap, null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * post请求 参数为map
+		 *
+		 * @param paraMap       请求map
+		 * @param socketTimeOut 响应超时时间(单位毫秒)
+		 * @return
+		 */
+		public HttpResRtn postMap(Map<Object, Object> paraMap, int socketTimeOut) {
+			return HttpClientUtil.this.postMap(url, paraMap, timeoutConfig(socketTimeOut, conTimeOut), null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * get请求 参数为json串
+		 *
+		 * @param strJson 请求参数(拼接于URL后)
+		 * @return
+		 */
+		public HttpResRtn getJson(String strJson) {
+			return HttpClientUtil.this.getJson(url, strJson, null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * get请求 参数为map
+		 *
+		 * @param paraMap 请求map
+		 * @return
+		 */
+		public HttpResRtn getMap(Map<Object, Object> paraMap) {
+			return HttpClientUtil.this.getMap(url, paraMap, null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * get请求 参数为map
+		 *
+		 * @param paraMap       请求map
+		 * @param socketTimeOut 响应超时时间(单位毫秒)
+		 * @return
+		 */
+		public HttpResRtn getMap(Map<Object, Object> paraMap, int socketTimeOut) {
+			return HttpClientUtil.this.getMap(url, paraMap, timeoutConfig(socketTimeOut, conTimeOut), null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * 异步POST提交
+		 *
+		 * @param strJson 请求json字符串
+		 * @return
+		 */
+		public CompletableFuture<HttpResRtn> postJsonAsync(String strJson) {
+			return HttpClientUtil.this.postJsonAsync(url, strJson, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * 异步POST提交
+		 *
+		 * @param paraMap 请求map
+		 * @return
+		 */
+		public CompletableFuture<HttpResRtn> postMapAsync(Map<Object, Object> paraMap) {
+			return HttpClientUtil.this.postMapAsync(url, paraMap, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * 异步get提交
+		 *
+		 * @param strJson 请求参数(拼接于URL后)
+		 * @return
+		 */
+		public CompletableFuture<HttpResRtn> getJsonAsync(String strJson) {
+			return HttpClientUtil.this.getJsonAsync(url, strJson, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * 异步get提交
+		 *
+		 * @param paraMap 请求map
+		 * @return
+		 */
+		public CompletableFuture<HttpResRtn> getMapAsync(Map<Object, Object> paraMap) {
+			return HttpClientUtil.this.getMapAsync(url, paraMap, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+		}
+
+		/**
+		 * post请求 参数为json串，整个调用不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+		 *
+		 * @param strJson        请求json字符串
+		 * @param deadlineMillis 总耗时上限(单位毫秒)，小于等于0时不限制
+		 * @return
+		 */
+		public HttpResRtn postJson(String strJson, long deadlineMillis) {
+			return HttpClientUtil.this.postJson(url, strJson, null, null, false, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+		}
+
+		/**
+		 * post请求，参数为Map，整个调用不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+		 *
+		 * @param paraMap        请求Map对象
+		 * @param deadlineMillis 总耗时上限(单位毫秒)，小于等于0时不限制
+		 * @return
+		 */
+		public HttpResRtn postMap(Map<Object, Object> paraMap, long deadlineMillis) {
+			return HttpClientUtil.this.postMap(url, paraMap, null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+		}
+
+		/**
+		 * get请求 参数为json串，整个调用不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+		 *
+		 * @param strJson        请求json字符串
+		 * @param deadlineMillis 总耗时上限(单位毫秒)，小于等于0时不限制
+		 * @return
+		 */
+		public HttpResRtn getJson(String strJson, long deadlineMillis) {
+			return HttpClientUtil.this.getJson(url, strJson, null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+		}
+
+		/**
+		 * GET提交MAP参数，整个调用不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+		 *
+		 * @param paraMap        请求Map对象
+		 * @param deadlineMillis 总耗时上限(单位毫秒)，小于等于0时不限制
+		 * @return
+		 */
+		public HttpResRtn getMap(Map<Object, Object> paraMap, long deadlineMillis) {
+			return HttpClientUtil.this.getMap(url, paraMap, null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+		}
+
+		/**
+		 * 异步post请求 参数为json串，整个调用不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+		 *
+		 * @param strJson        请求json字符串
+		 * @param deadlineMillis 总耗时上限(单位毫秒)，小于等于0时不限制
+		 * @return
+		 */
+		public CompletableFuture<HttpResRtn> postJsonAsync(String strJson, long deadlineMillis) {
+			return HttpClientUtil.this.postJsonAsync(url, strJson, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+		}
+
+		/**
+		 * 异步POST提交 参数为Map对象，整个调用不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+		 *
+		 * @param paraMap        请求Map
+		 * @param deadlineMillis 总耗时上限(单位毫秒)，小于等于0时不限制
+		 * @return
+		 */
+		public CompletableFuture<HttpResRtn> postMapAsync(Map<Object, Object> paraMap, long deadlineMillis) {
+			return HttpClientUtil.this.postMapAsync(url, paraMap, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+		}
+
+		/**
+		 * 异步get请求 参数为json串，整个调用不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+		 *
+		 * @param strJson        请求json字符串
+		 * @param deadlineMillis 总耗时上限(单位毫秒)，小于等于0时不限制
+		 * @return
+		 */
+		public CompletableFuture<HttpResRtn> getJsonAsync(String strJson, long deadlineMillis) {
+			return HttpClientUtil.this.getJsonAsync(url, strJson, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+		}
+
+		/**
+		 * 异步GET提交MAP参数，整个调用不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+		 *
+		 * @param paraMap        请求MAP对象
+		 * @param deadlineMillis 总耗时上限(单位毫秒)，小于等于0时不限制
+		 * @return
+		 */
+		public CompletableFuture<HttpResRtn> getMapAsync(Map<Object, Object> paraMap, long deadlineMillis) {
+			return HttpClientUtil.this.getMapAsync(url, paraMap, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+		}
+
+		@Override
+		public String toString() {
+			return url;
+		}
+	}
+
+
+	/**
+	 * 对冲GET请求
+	 *
+	 * 超过路由耗时分位值仍未响应时发出第二个请求；首个请求连接失败、I/O异常或503时立即重发。
+	 * 额外请求最多一次且受预算限制，取先成功返回的结果并取消另一请求。
+	 * 同步请求经同步连接池发送：首个请求在调用线程发送，额外请求在同步请求执行器中发送，落选的请求被中止
+	 */
+	private class HedgedGet implements BiConsumer<HttpResRtn, Throwable>, Runnable {
+		/** 请求URI(含参数) */
+		private final URI uri;
+		/** 请求连接配置参数 */
+		private final RequestConfig reqConfig;
+		/** 响应字符集 */
+		private final String charSet;
+		/** 日志中记录的请求参数 */
+		private final Object reqLog;
+		/** 超过速率时最长等待时间(单位毫秒) */
+		private final long rateWait;
+		/** 同步请求的URL(审计日志)，为空时为异步请求 */
+		private final String syncUrl;
+		/** 结果 */
+		private final CompletableFuture<HttpResRtn> result = new CompletableFuture<HttpResRtn>();
+		/** 未结束的请求数 */
+		private final AtomicInteger pending = new AtomicInteger(1);
+		/** 是否已尝试额外请求 */
+		private final AtomicBoolean launched = new AtomicBoolean();
+		/** 首个请求 */
+		private volatile CompletableFuture<HttpResRtn> primary;
+		/** 额外请求 */
+		private volatile CompletableFuture<HttpResRtn> backup;
+		/** 最近一次失败结果 */
+		private volatile HttpResRtn lastFailure;
+		/** 截止时间(各次请求共用)，为空时不限制 */
+		private final HttpDeadline deadline;
+
+		HedgedGet(URI uri, RequestConfig reqConfig, String charSet, Object reqLog, long rateWait, HttpDeadline deadline) {
+			this(uri, reqConfig, charSet, reqLog, rateWait, deadline, null);
+		}
+
+		HedgedGet(URI uri, RequestConfig reqConfig, String charSet, Object reqLog, long rateWait, HttpDeadline deadline, String syncUrl) {
+			this.uri = uri;
+			this.reqConfig = reqConfig;
+			this.charSet = charSet;
+			this.reqLog = reqLog;
+			this.rateWait = rateWait;
+			this.deadline = deadline;
+			this.syncUrl = syncUrl;
+		}
+
+		/**
+		 * 发出首个请求，并按路由耗时分位值设置对冲定时；同步请求在调用线程发送，返回时首个请求已结束
+		 *
+		 * @return 始终正常完成，异常以响应编码返回；调用方取消时中止全部请求
+		 */
+		CompletableFuture<HttpResRtn> start() {
+
+			hedge.deposit();
+			result.whenComplete(new BiConsumer<HttpResRtn, Throwable>() {
+
+				@Override
+				public void accept(HttpResRtn rtn, Throwable e) {
+					if (result.isCancelled()) {
+						cancel(primary);
+						cancel(backup);
+					}
+				}
+			});
+			HttpGet getMethod = newGet(uri, reqConfig);
+			if (syncUrl != null) {
+				long delay = hedge.getDelay(routeOf(getMethod));
+				ScheduledFuture<?> timer = delay >= 0 ? HttpHedgePolicy.timer().schedule(this, delay, TimeUnit.MILLISECONDS) : null;
+				primary = new CompletableFuture<HttpResRtn>();
+				primary.whenComplete(this);
+				sendBlocking(getMethod, primary);
+				if (timer != null) {
+					timer.cancel(false);
+				}
+				return result;
+			}
+			primary = executeAsync(getMethod, null, charSet, reqLog, deadline, rateWait);
+			primary.whenComplete(this);
+			if (!primary.isDone()) {
+				long delay = hedge.getDelay(routeOf(getMethod));
+				if (delay >= 0) {
+					HttpHedgePolicy.timer().schedule(this, delay, TimeUnit.MILLISECONDS);
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * 经同步连接池发送单次请求，请求被取消(落选)时中止
+		 *
+		 * @param getMethod 请求
+		 * @param attempt   单次请求结果
+		 */
+		private void sendBlocking(final HttpGet getMethod, final CompletableFuture<HttpResRtn> attempt) {
+
+			attempt.whenComplete(new BiConsumer<HttpResRtn, Throwable>() {
+
+				@Override
+				public void accept(HttpResRtn rtn, Throwable e) {
+					if (attempt.isCancelled()) {
+						getMethod.abort();
+					}
+				}
+			});
+			if (!attempt.isDone()) {
+				attempt.complete(sendGet(getMethod, syncUrl, charSet, null, reqLog, deadline, rateWait, attempt));
+			}
+		}
+
+		/**
+		 * 对冲定时到期
+		 */
+		@Override
+		public void run() {
+
+			launch();
+		}
+
+		/**
+		 * 单个请求结束
+		 */
+		@Override
+		public void accept(HttpResRtn resRtn, Throwable e) {
+
+			if (resRtn == null) {
+				//落选被取消
+				return;
+			}
+			int stsCode = resRtn.getStsCode();
+			if (stsCode != STS_TIMEOUT_CONN && stsCode != STS_OTHER && stsCode != HttpStatus.SC_SERVICE_UNAVAILABLE) {
+				if (result.complete(resRtn)) {
+					cancel(primary);
+					cancel(backup);
+				}
+				return;
+			}
+			//可重试的失败：尚未发出额外请求时立即重发，全部失败时返回最后的结果
+			lastFailure = resRtn;
+			launch();
+			finish();
+		}
+
+		/**
+		 * 发出额外请求(最多一次，受预算限制)
+		 */
+		private void launch() {
+
+			if (result.isDone() || launched.get()) {
+				return;
+			}
+			pending.incrementAndGet();
+			if (launched.compareAndSet(false, true) && hedge.tryWithdraw()) {
+				final HttpGet getMethod = newGet(uri, reqConfig);
+				if (syncUrl != null) {
+					//同步请求：额外请求在同步请求执行器中发送
+					final CompletableFuture<HttpResRtn> attempt = new CompletableFuture<HttpResRtn>();
+					backup = attempt;
+					attempt.whenComplete(this);
+					executor.execute(new Runnable() {
+
+						@Override
+						public void run() {
+							sendBlocking(getMethod, attempt);
+						}
+					});
+					return;
+				}
+				backup = executeAsync(getMethod, null, charSet, reqLog, deadline, rateWait);
+				backup.whenComplete(this);
+			} else {
+				finish();
+			}
+		}
+
+		private void finish() {
+
+			if (pending.decrementAndGet() == 0 && lastFailure != null) {
+				result.complete(lastFailure);
+			}
+		}
+
+		private void cancel(CompletableFuture<HttpResRtn> attempt) {
+
+			if (attempt != null && !attempt.isDone()) {
+				attempt.cancel(false);
+			}
+		}
+	}
+
+
+	/**
+	 * 私有化构造方法
+	 *
+	 * @param name 客户端名称，默认客户端为空
+	 */
+	private HttpClientUtil(String name) {
+
+		this.name = name;
+		initPool();
+	}
+	
+	/**
+	 * 获取当前对象，单例对象
+	 * @return
+	 */
+	public static HttpClientUtil getInstance() {
+		
+		return CLIENT_UTIL;
+	}
+
+	/**
+	 * 获取命名客户端，每个名称独占连接池、超时及连接保持配置
+	 *
+	 * 配置项以"名称."为前缀，如 partnerA.http_client_max_perroute，未配置的沿用默认配置
+	 *
+	 * @param name 客户端名称(下游系统)
+	 * @return
+	 */
+	public static HttpClientUtil getInstance(String name) {
+
+		Args.notBlank(name, "client name");
+
+		HttpClientUtil clientUtil = CLIENT_REGISTRY.get(name);
+		if (null == clientUtil) {
+			REGISTRY_LOCK.lock();
+			try {
+				clientUtil = CLIENT_REGISTRY.get(name);
+				if (null == clientUtil) {
+					clientUtil = new HttpClientUtil(name);
+					CLIENT_REGISTRY.put(name, clientUtil);
+				}
+			} finally {
+				REGISTRY_LOCK.unlock();
+			}
+		}
+		return clientUtil;
+	}
+
+	/**
+	 * 获取客户端名称
+	 *
+	 * @return 默认客户端返回null
+	 */
+	public String getName() {
+
+		return name;
+	}
+
+	/**
+	 * 获取监控指标(同时已注册到JMX)
+	 *
+	 * @return
+	 */
+	public HttpClientMetricsMXBean getMetrics() {
+
+		return metrics;
+	}
+
+	/**
+	 * 重新读取配置并应用，无需重启
+	 *
+	 * 超时时间替换为新的请求配置，之后的请求生效；连接池上限及管理参数即时调整，已建立的连接保留，
+	 * 超出新上限的空闲连接在获取连接时关闭；执行中的请求不受影响。生效配置发布到监控指标(getConfig)，
+	 * 熔断、并发及速率限制、对冲等策略参数不重新读取
+	 *
+	 * @return 生效的配置
+	 */
+	public HttpClientMetricsMXBean.ConfigView reconfigure() {
+
+		configLock.lock();
+		try {
+			int newSocketTimeOut = getIntProp(propKey("http_client_socket_timeout"), getIntProp("http_client_socket_timeout", SOCKET_TIME_OUT));
+			int newConTimeOut = getIntProp(propKey("http_client_connectiontimeout"), getIntProp("http_client_connectiontimeout", CON_TIME_OUT));
+			int newConReqTimeOut = getIntProp(propKey("http_client_connectionrequest_timeout"), getIntProp("http_client_connectionrequest_timeout", CON_REQ_TIME_OUT));
+			int newMaxRoute = getIntProp(propKey("http_client_max_perroute"), getIntProp("http_client_max_perroute", MAX_ROUTE));
+			int newMaxTotal = getIntProp(propKey("http_client_max_poolcount"), getIntProp("http_client_max_poolcount", MAX_TOTAL));
+
+			//超时时间一次替换，请求取到的是完整的新配置或旧配置
+			config = RequestConfig.copy(config).setConnectTimeout(newConTimeOut)
+					.setSocketTimeout(newSocketTimeOut)
+					.setConnectionRequestTimeout(newConReqTimeOut)
+					.build();
+			socketTimeOut = newSocketTimeOut;
+			conTimeOut = newConTimeOut;
+			conReqTimeOut = newConReqTimeOut;
+			keepAliveTime = getIntProp(propKey("http_client_keepalive_timeout"), getIntProp("http_client_keepalive_timeout", KEEP_ALIVE_TIME));
+			gzipThreshold = getIntProp(propKey("http_client_gzip_threshold"), getIntProp("http_client_gzip_threshold", GZIP_THRESHOLD));
+			deadlineTime = getIntProp(propKey("http_client_deadline"), getIntProp("http_client_deadline", -1));
+
+			maxRoute = newMaxRoute;
+			maxTotal = newMaxTotal;
+			//同步连接池上限与自适应调整互斥修改
+			poolManager.configure(poolConfig(), newMaxTotal, newMaxRoute);
+			if (ncm != null) {
+				ncm.setMaxTotal(newMaxTotal);
+				ncm.setDefaultMaxPerRoute(newMaxRoute);
+			}
+
+			HttpClientMetricsMXBean.ConfigView view = configView();
+			metrics.publishConfig(view);
+			logger.info("http 配置已重新加载" + (name == null ? "" : name) + "：socketTimeout " + newSocketTimeOut
+					+ "，connectTimeout " + newConTimeOut + "，connectionRequestTimeout " + newConReqTimeOut
+					+ "，maxTotal " + newMaxTotal + "，maxPerRoute " + newMaxRoute);
+			return view;
+		} finally {
+			configLock.unlock();
+		}
+	}
+
+	/**
+	 * 默认客户端及所有命名客户端重新读取配置(配置文件更新后调用)
+	 */
+	public static void reconfigureAll() {
+
+		CLIENT_UTIL.reconfigure();
+		for (HttpClientUtil clientUtil : CLIENT_REGISTRY.values()) {
+			clientUtil.reconfigure();
+		}
+	}
+
+	/**
+	 * 连接池预热：建立指定数量的连接(含 TLS 握手)放回连接池，并纳入最小空闲连接维护
+	 *
+	 * @param strUrl      目标地址，如 https://host:port
+	 * @param connections 连接数(不超过每路由最大连接数)
+	 * @return 新建连接数
+	 */
+	public int warmUp(String strUrl, int connections) {
+
+		Args.notBlank(strUrl, "url");
+
+		HttpRoute route = HttpPoolWarmer.toRoute(strUrl);
+		warmer.register(route);
+		return warmer.warm(route, Math.min(connections, maxRoute));
+	}
+
+	/**
+	 * 获取请求端点，URL 只解析一次，同一 URL 返回同一端点
+	 *
+	 * 如 Endpoint ep = HttpClientUtil.getInstance().endpoint("https://host/ams/notify/intf/server.intf")，
+	 * 之后经 ep.postJson(json) 等发送；直接以该 URL 调用 postJson 等方法时同样使用已解析的 URI。
+	 * 端点数超过上限时不再缓存(仍可使用，每次请求解析 URL)
+	 *
+	 * @param strUrl 请求URL(绝对地址)
+	 * @return
+	 */
+	public Endpoint endpoint(String strUrl) {
+
+		Args.notBlank(strUrl, "url");
+
+		Endpoint ep = endpoints.get(strUrl);
+		if (ep == null) {
+			Endpoint created = new Endpoint(strUrl);
+			if (endpoints.size() >= MAX_ENDPOINTS) {
+				return created;
+			}
+			ep = endpoints.putIfAbsent(strUrl, created);
+			if (ep == null) {
+				ep = created;
+			}
+		}
+		return ep;
+	}
+
+	/**
+	 * 获取同步请求执行器
+	 *
+	 * 配置 http_client_executor=virtual 且运行于 Java 21+ 时为虚拟线程执行器，否则为平台线程池(线程数为连接池最大连接数)
+	 *
+	 * @return
+	 */
+	public Executor getExecutor() {
+
+		return executor;
+	}
+
+	/**
+	 * 在同步请求执行器中执行阻塞调用，如 submit(() -&gt; client.postJson(url, json))
+	 *
+	 * @param call 阻塞调用
+	 * @return
+	 */
+	public <T> CompletableFuture<T> submit(Supplier<T> call) {
+
+		Args.notNull(call, "call");
+		return CompletableFuture.supplyAsync(call, executor);
+	}
+	
+	
+	/**
+	 * post请求 参数为json串
+	 *
+	 * @param strUrl    请求URL
+	 * @param strJson   请求json字符串
+	 * @param reqConfig 请求连接配置参数
+	 * @param handler   响应体处理器，为空时读取为字符串
+	 * @param compress  是否压缩请求体
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
+	 * @return
+	 */
+	private HttpResRtn postJson(String strUrl, String strJson,RequestConfig reqConfig, BodyHandler handler, boolean compress, long rateWait, HttpDeadline deadline) {
+		// 参数校验
+		Args.notNull(strUrl, "url request");
+		Args.notNull(strJson, "json string request");
+
+		//HTTP/2 传输时经异步客户端发送(多路复用)，可中断地等待结果
+		if (handler == null && h2Enabled) {
+			HttpPost h2Method = new HttpPost(toUri(strUrl));
+			h2Method.setEntity(jsonEntity(strJson, compress));
+			if (reqConfig!= null) {
+				h2Method.setConfig(reqConfig);
+			}
+			return await(executeAsync(h2Method, null, "utf-8", strJson, deadline, rateWait));
+		}
+		
+		//响应信息对象
+		HttpResRtn resRtn = new HttpResRtn();
+		//post
+		HttpPost postMethod = null;
+		//
+		HttpResponse response = null;
+		//请求时间
+		long startTime = System.nanoTime();
+		//非2xx响应体(审计日志)
+		String errBody = null;
+		//速率限制、并发限制
+		HttpRateLimiter rate = null;
+		HttpConcurrencyLimiter limiter = null;
+		//熔断器
+		HttpCircuitBreaker breaker = null;
+		//到期中止
+		ScheduledFuture<?> abort = null;
+		
+		try {
+			//实体
+			HttpEntity entity = jsonEntity(strJson, compress);
+			//post
+			postMethod = new HttpPost(toUri(strUrl));
+			postMethod.setEntity(entity);
+			//设置请求和传输超时时间
+			if (reqConfig!= null) {
+				postMethod.setConfig(reqConfig);
+			}
+			rate = acquireRate(postMethod, deadline, rateWait);
+			limiter = acquireLimiter(postMethod, true, deadline);
+			breaker = acquireBreaker(postMethod);
+			if (deadline != null) {
+				abort = deadline.abortOnExpiry(postMethod);
+			}
+			response = execute(postMethod, deadline);
+
+			//响应
+			StatusLine stsLine = response.getStatusLine();
+			//状态码
+			int stsCode = stsLine.getStatusCode();
+			
+			//封装返回信息
+			resRtn.setStsCode(stsCode);
+			resRtn.setRsnPhrase(stsLine.getReasonPhrase());
+			
+			//Read the response body
+			if (stsCode == HttpStatus.SC_OK) {
+				if (handler != null) {
+					handleBody(response.getEntity(), Consts.UTF_8, handler);
+				} else {
+					String strValue = EntityUtils.toString(response.getEntity(),"utf-8"); 
+					resRtn.setValue(strValue);
+				}
+			} else if (AUDIT.captureBody(stsCode)) {
+				errBody = AUDIT.readBody(response.getEntity(), Consts.UTF_8);
+			}  
+			
+			response.getEntity().getContent().close();
+		} catch (HttpRateLimiter.RejectedException e) {
+
+			resRtn.setStsCode(STS_RATE_LIMITED);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (HttpConcurrencyLimiter.LimitException e) {
+
+			resRtn.setStsCode(STS_LIMITED);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (HttpCircuitBreaker.OpenException e) {
+
+			resRtn.setStsCode(STS_CIRCUIT_OPEN);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (ConnectTimeoutException e) {
+			
+			resRtn.setStsCode(STS_TIMEOUT_CONN);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (SocketTimeoutException e) {
+			
+			resRtn.setStsCode(STS_TIMEOUT_SOCK);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (HttpHostConnectException e) {
+			
+			resRtn.setStsCode(STS_TIMEOUT_CONN);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (InterruptedException e) {
+			//等待并发名额或速率限制时被中断，恢复中断状态
+			Thread.currentThread().interrupt();
+			resRtn.setStsCode(STS_INTERRUPTED);
+			resRtn.setRsnPhrase("interrupted");
+		} catch (Exception e) {
+
+			if (deadline != null && deadline.isExpired()) {
+				//到期被中止
+				resRtn.setStsCode(STS_TIMEOUT_SOCK);
+				resRtn.setRsnPhrase("deadline exceeded: " + e.getMessage());
+			} else {
+				resRtn.setStsCode(STS_OTHER);
+				resRtn.setRsnPhrase(e.getMessage());
+			}
+		} finally {
+			//释放资源
+			if (response!= null) {
+				try {
+					EntityUtils.consume(response.getEntity());
+				} catch (IOException e) {
+					logger.error(e.getMessage(),e);
+				}
+			}
+			if (abort != null) {
+				abort.cancel(false);
+			}
+
+		}
+		
+		//监控指标、审计日志
+		long elapsed = System.nanoTime() - startTime;
+		metrics.record(routeOf(postMethod), resRtn.getStsCode(), elapsed);
+		refundRate(rate, resRtn.getStsCode());
+		if (limiter != null) {
+			releaseLimiter(limiter, resRtn.getStsCode(), elapsed);
+		}
+		if (breaker != null) {
+			breaker.record(resRtn.getStsCode(), elapsed);
+		}
+		AUDIT.record("POST", strUrl, strJson, resRtn.getStsCode(), resRtn.getRsnPhrase(), TimeUnit.NANOSECONDS.toMillis(elapsed), errBody);
+
+		return resRtn;
+		
+	}
+	
+
+	/**
+	 * POST提交
+	 * 
+	 * @param strUrl 请求URL
+	 * @param strJson 请求json字符串
+	 * @return
+	 */
+	public HttpResRtn postJson(String strUrl, String strJson) {
+		
+		return postJson(strUrl, strJson, null, null, false, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * POST提交，响应体交由处理器流式读取
+	 *
+	 * @param strUrl  请求URL
+	 * @param strJson 请求json字符串
+	 * @param handler 响应体处理器
+	 * @return 响应信息(value为空)
+	 */
+	public HttpResRtn postJson(String strUrl, String strJson, BodyHandler handler) {
+
+		Args.notNull(handler, "body handler");
+		return postJson(strUrl, strJson, null, handler, false, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * POST提交，可指定本次请求压缩请求体
+	 *
+	 * @param strUrl   请求URL
+	 * @param strJson  请求json字符串
+	 * @param compress true:请求体按gzip发送(超过客户端压缩阈值时)，并接收压缩响应
+	 * @return
+	 */
+	public HttpResRtn postJson(String strUrl, String strJson, boolean compress) {
+
+		return postJson(strUrl, strJson, null, null, compress, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+	
+	/**
+	 * post请求 参数为json串
+	 *
+	 * @param strUrl        请求URL
+	 * @param strJson       请求json字符串
+	 * @param socetTimeOut  响应超时时间
+	 * @param conTimeOut    请求超时时间
+	 * @return
+	 */
+	public HttpResRtn postJson(String strUrl, String strJson,int socetTimeOut,int conTimeOut) {
+	
+		//设置请求和传输超时时间
+		RequestConfig reqConfig = timeoutConfig(socetTimeOut, conTimeOut);
+		
+		return postJson(strUrl,strJson,reqConfig, null, false, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * post请求 参数为json串，超过速率限制时按本次指定的等待时间排队或直接拒绝(STS_RATE_LIMITED)
+	 *
+	 * @param strUrl        请求URL
+	 * @param strJson       请求json字符串
+	 * @param socetTimeOut  响应超时时间(单位毫秒)
+	 * @param conTimeOut    请求超时时间(单位毫秒)
+	 * @param rateWait      超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，小于0时按客户端配置
+	 * @return
+	 */
+	public HttpResRtn postJson(String strUrl, String strJson, int socetTimeOut, int conTimeOut, int rateWait) {
+
+		return postJson(strUrl, strJson, timeoutConfig(socetTimeOut, conTimeOut), null, false, rateWait, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * post请求 参数为json串，整个调用(排队、获取连接、发送及读取响应)不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+	 *
+	 * @param strUrl         请求URL
+	 * @param strJson        请求json字符串
+	 * @param deadlineMillis 总耗时上限(单位毫秒，long 类型，区别于 int 类型的响应超时时间)，小于等于0时不限制
+	 * @return
+	 */
+	public HttpResRtn postJson(String strUrl, String strJson, long deadlineMillis) {
+
+		return postJson(strUrl, strJson, null, null, false, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+	}
+	
+	/**
+	 * post请求 参数为json串
+	 *
+	 * @param strUrl       请求URL
+	 * @param strJson      请求参数Json串
+	 * @param socetTimeOut 响应超时时间
+	 * @return
+	 */
+	public HttpResRtn postJson(String strUrl, String strJson,int socetTimeOut) {
+
+		//设置请求和传输超时时间
+		RequestConfig reqConfig = timeoutConfig(socetTimeOut, conTimeOut);
+		
+		return postJson(strUrl,strJson,reqConfig, null, false, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+	
+
+	/**
+	 * post请求，参数为Map
+	 *
+	 * @param strUrl    请求URL
+	 * @param paraMap   请求Map对象
+	 * @param reqConfig 请求连接配置参数
+	 * @param handler   响应体处理器，为空时读取为字符串
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
+	 * @return
+	 * @throws Exception
+	 */
+	private HttpResRtn postMap(String strUrl, Map<Object, Object> paraMap, RequestConfig reqConfig, BodyHandler handler, long rateWait, HttpDeadline deadline) {
+		
+		// 参数校验
+		Args.notNull(strUrl, "url request");
+		Args.notNull(paraMap, "json string request");
+
+		//HTTP/2 传输时经异步客户端发送(多路复用)，可中断地等待结果
+		if (handler == null && h2Enabled) {
+			return await(postMapAsync(strUrl, paraMap, reqConfig, rateWait, deadline));
+		}
+		
+		//响应信息对象
+		HttpResRtn resRtn = new HttpResRtn();
+		//post
+		HttpPost postMethod = null;
+		//
+		HttpResponse response = null;
+		//请求时间
+		long startTime = System.nanoTime();
+		//非2xx响应体(审计日志)
+		String errBody = null;
+		//速率限制、并发限制
+		HttpRateLimiter rate = null;
+		HttpConcurrencyLimiter limiter = null;
+		//熔断器
+		HttpCircuitBreaker breaker = null;
+		//到期中止
+		ScheduledFuture<?> abort = null;
+		
+		try {
+			/**  设置请求参数 */
+			//post
+			postMethod = new HttpPost(toUri(strUrl));
+			postMethod.setEntity(formEntity(paraMap));  
+			//设置请求和传输超时时间
+			if (reqConfig!= null) {
+				postMethod.setConfig(reqConfig);
+			}
+			//响应
+			rate = acquireRate(postMethod, deadline, rateWait);
+			limiter = acquireLimiter(postMethod, true, deadline);
+			breaker = acquireBreaker(postMethod);
+			if (deadline != null) {
+				abort = deadline.abortOnExpiry(postMethod);
+			}
+			response = execute(postMethod, deadline);
+			
+			//响应
+			StatusLine stsLine = response.getStatusLine();
+			//状态码
+			int stsCode = stsLine.getStatusCode();
+			
+			//封装返回信息
+			resRtn.setStsCode(stsCode);
+			resRtn.setRsnPhrase(stsLine.getReasonPhrase());
+			
+			//Read the response body
+			if (stsCode == HttpStatus.SC_OK) {
+				if (handler != null) {
+					handleBody(response.getEntity(), null, handler);
+				} else {
+					String strValue = EntityUtils.toString(response.getEntity());
+					resRtn.setValue(strValue);
+				}
+			} else if (AUDIT.captureBody(stsCode)) {
+				errBody = AUDIT.readBody(response.getEntity(), null);
+			}
+		} catch (HttpRateLimiter.RejectedException e) {
+
+			resRtn.setStsCode(STS_RATE_LIMITED);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (HttpConcurrencyLimiter.LimitException e) {
+
+			resRtn.setStsCode(STS_LIMITED);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (HttpCircuitBreaker.OpenException e) {
+
+			resRtn.setStsCode(STS_CIRCUIT_OPEN);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (ConnectTimeoutException e) {
+			
+			resRtn.setStsCode(STS_TIMEOUT_CONN);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (SocketTimeoutException e) {
+			
+			resRtn.setStsCode(STS_TIMEOUT_SOCK);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (HttpHostConnectException e) {
+			
+			resRtn.setStsCode(STS_TIMEOUT_CONN);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (InterruptedException e) {
+			//等待并发名额或速率限制时被中断，恢复中断状态
+			Thread.currentThread().interrupt();
+			resRtn.setStsCode(STS_INTERRUPTED);
+			resRtn.setRsnPhrase("interrupted");
+		} catch (Exception e) {
+
+			if (deadline != null && deadline.isExpired()) {
+				//到期被中止
+				resRtn.setStsCode(STS_TIMEOUT_SOCK);
+				resRtn.setRsnPhrase("deadline exceeded: " + e.getMessage());
+			} else {
+				resRtn.setStsCode(STS_OTHER);
+				resRtn.setRsnPhrase(e.getMessage());
+			}
+		} finally {
+			//释放资源
+			if (response!= null) {
+				try {
+					EntityUtils.consume(response.getEntity());
+				} catch (IOException e) {
+					logger.error(e.getMessage(),e);
+				}
+			}
+			if (abort != null) {
+				abort.cancel(false);
+			}
+		}
+		
+		//监控指标、审计日志
+		long elapsed = System.nanoTime() - startTime;
+		metrics.record(routeOf(postMethod), resRtn.getStsCode(), elapsed);
+		refundRate(rate, resRtn.getStsCode());
+		if (limiter != null) {
+			releaseLimiter(limiter, resRtn.getStsCode(), elapsed);
+		}
+		if (breaker != null) {
+			breaker.record(resRtn.getStsCode(), elapsed);
+		}
+		AUDIT.record("POST", strUrl, paraMap, resRtn.getStsCode(), resRtn.getRsnPhrase(), TimeUnit.NANOSECONDS.toMillis(elapsed), errBody);
+
+		return resRtn;
+	}
+	
+	
+	/**
+	 * POST提交
+	 * 
+	 * @param strUrl 请求URL
+	 * @param paraMap 请求map
+	 * @return
+	 */
+	public HttpResRtn postMap(String strUrl,Map<Object, Object> paraMap) throws Exception {
+		
+		
+		return postMap(strUrl,paraMap,null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * POST提交，响应体交由处理器流式读取
+	 *
+	 * @param strUrl  请求URL
+	 * @param paraMap 请求map
+	 * @param handler 响应体处理器
+	 * @return 响应信息(value为空)
+	 */
+	public HttpResRtn postMap(String strUrl, Map<Object, Object> paraMap, BodyHandler handler) {
+
+		Args.notNull(handler, "body handler");
+		return postMap(strUrl, paraMap, null, handler, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+	
+	
+	/**
+	 * POST提交 参数为Map对象
+	 * 
+	 * @param strUrl        请求URL
+	 * @param paraMap       请求Map字符串
+	 * @param socketTimeOut 响应超时时间(单位毫秒)
+	 * @return
+	 */
+	public HttpResRtn postMap(String strUrl,Map<Object, Object> paraMap,int socketTimeOut) {
+		
+		//设置请求和传输超时时间
+		RequestConfig reqConfig = timeoutConfig(socketTimeOut, conTimeOut);
+
+		return postMap(strUrl,paraMap,reqConfig, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+	
+	/**
+	 * post请求 参数为json串
+	 *
+	 * @param strUrl        请求URL
+	 * @param paraMap       请求Map
+	 * @param socetTimeOut  响应超时时间
+	 * @param conTimeOut    请求超时时间
+	 * @return
+	 */
+	public HttpResRtn postMap(String strUrl, Map<Object, Object> paraMap,int socetTimeOut,int conTimeOut) {
+	
+		//设置请求和传输超时时间
+		RequestConfig reqConfig = timeoutConfig(socetTimeOut, conTimeOut);
+		
+		return postMap(strUrl,paraMap,reqConfig, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * post请求，参数为Map，超过速率限制时按本次指定的等待时间排队或直接拒绝(STS_RATE_LIMITED)
+	 *
+	 * @param strUrl        请求URL
+	 * @param paraMap       请求Map对象
+	 * @param socetTimeOut  响应超时时间(单位毫秒)
+	 * @param conTimeOut    请求超时时间(单位毫秒)
+	 * @param rateWait      超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，小于0时按客户端配置
+	 * @return
+	 */
+	public HttpResRtn postMap(String strUrl, Map<Object, Object> paraMap, int socetTimeOut, int conTimeOut, int rateWait) {
+
+		return postMap(strUrl, paraMap, timeoutConfig(socetTimeOut, conTimeOut), null, rateWait, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * post请求，参数为Map，整个调用(排队、获取连接、发送及读取响应)不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+	 *
+	 * @param strUrl         请求URL
+	 * @param paraMap        请求Map对象
+	 * @param deadlineMillis 总耗时上限(单位毫秒，long 类型，区别于 int 类型的响应超时时间)，小于等于0时不限制
+	 * @return
+	 */
+	public HttpResRtn postMap(String strUrl, Map<Object, Object> paraMap, long deadlineMillis) {
+
+		return postMap(strUrl, paraMap, null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+	}
+	
+	
+	/**
+	 * 同步GET请求：缓存未过期时不经网络；开启请求合并时相同请求执行中则可中断地等待其结果，
+	 * 否则由本线程发送；开启对冲时首个请求在调用线程发送，超过路由耗时分位值仍未响应时
+	 * 在同步请求执行器中发出第二个请求，均经同步连接池
+	 *
+	 * @param strUrl    请求URL(审计日志)
+	 * @param uri       请求URI(含参数)
+	 * @param reqConfig 请求连接配置参数
+	 * @param charSet   响应字符集，为空时按响应头解析
+	 * @param handler   响应体处理器，为空时读取为字符串
+	 * @param reqLog    日志中记录的请求参数
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
+	 * @return
+	 */
+	private HttpResRtn executeGet(final String strUrl, final URI uri, final RequestConfig reqConfig, final String charSet, BodyHandler handler,
+			final Object reqLog, final long rateWait, final HttpDeadline deadline) {
+
+		if (handler != null) {
+			//流式读取不使用缓存及对冲
+			HttpGet getMethod = new HttpGet(uri);
+			if (reqConfig!= null) {
+				getMethod.setConfig(reqConfig);
+			}
+			return sendGet(getMethod, strUrl, charSet, handler, reqLog, deadline, rateWait, null);
+		}
+		//缓存未过期时不经网络(不计入监控及审计)，已过期时条件请求
+		if (responseCache != null) {
+			HttpResponseCache.Entry cached = responseCache.get(uri.toString());
+			if (cached != null) {
+				return fromCache(new HttpResRtn(), cached);
+			}
+		}
+		if (singleFlight != null) {
+			//首个请求在本线程同步发送(返回已完成的 future)，执行期间的相同请求共享其结果
+			return await(singleFlight.execute(flightKey(uri.toString(), reqConfig, charSet), new Supplier<CompletableFuture<HttpResRtn>>() {
+
+				@Override
+				public CompletableFuture<HttpResRtn> get() {
+					return CompletableFuture.completedFuture(sendGet(uri, strUrl, reqConfig, charSet, reqLog, rateWait, deadline));
+				}
+			}));
+		}
+		return sendGet(uri, strUrl, reqConfig, charSet, reqLog, rateWait, deadline);
+	}
+
+	/**
+	 * 同步发送GET请求，开启对冲时按对冲策略发送
+	 *
+	 * @param uri       请求URI(含参数)
+	 * @param strUrl    请求URL(审计日志)
+	 * @param reqConfig 请求连接配置参数
+	 * @param charSet   响应字符集，为空时按响应头解析
+	 * @param reqLog    日志中记录的请求参数
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
+	 * @return
+	 */
+	private HttpResRtn sendGet(URI uri, String strUrl, RequestConfig reqConfig, String charSet, Object reqLog, long rateWait, HttpDeadline deadline) {
+
+		if (hedge.isEnabled()) {
+			return await(new HedgedGet(uri, reqConfig, charSet, reqLog, rateWait, deadline, strUrl).start());
+		}
+		return sendGet(newGet(uri, reqConfig), strUrl, charSet, null, reqLog, deadline, rateWait, null);
+	}
+
+	/**
+	 * 经同步连接池发送GET请求，调用线程阻塞至响应读取完成
+	 *
+	 * @param getMethod 请求
+	 * @param strUrl    请求URL(审计日志)
+	 * @param charSet   响应字符集，为空时按响应头解析
+	 * @param handler   响应体处理器，为空时读取为字符串
+	 * @param reqLog    日志中记录的请求参数
+	 * @param deadline  截止时间，为空时不限制
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param attempt   对冲中的单次请求，落选被取消时不计入监控及熔断；非对冲请求为空
+	 * @return
+	 */
+	private HttpResRtn sendGet(HttpGet getMethod, String strUrl, String charSet, BodyHandler handler, Object reqLog, HttpDeadline deadline,
+			long rateWait, Future<?> attempt) {
+
+		//响应信息对象
+		HttpResRtn resRtn = new HttpResRtn();
+		//
+		HttpResponse response = null;
+		//请求时间
+		long startTime = System.nanoTime();
+		//非2xx响应体(审计日志)
+		String errBody = null;
+		//速率限制、并发限制
+		HttpRateLimiter rate = null;
+		HttpConcurrencyLimiter limiter = null;
+		//熔断器
+		HttpCircuitBreaker breaker = null;
+		//到期中止
+		ScheduledFuture<?> abort = null;
+		
+		try {
+			rate = acquireRate(getMethod, deadline, rateWait);
+			limiter = acquireLimiter(getMethod, true, deadline);
+			breaker = acquireBreaker(getMethod);
+			if (deadline != null) {
+				abort = deadline.abortOnExpiry(getMethod);
+			}
+			response = execute(getMethod, deadline);
+			//响应
+			StatusLine stsLine = response.getStatusLine();
+			//状态码
+			int stsCode = stsLine.getStatusCode();
+			
+			//封装返回信息
+			resRtn.setStsCode(stsCode);
+			resRtn.setRsnPhrase(stsLine.getReasonPhrase());
+			
+			//Read the response body
+			if (stsCode == HttpStatus.SC_OK) {
+				if (handler != null) {
+					handleBody(response.getEntity(), charSet == null ? null : Charset.forName(charSet), handler);
+				} else {
+					String strValue = EntityUtils.toString(response.getEntity(), charSet);
+					resRtn.setValue(strValue);
+					if (responseCache != null) {
+						responseCache.put(getMethod, response, strValue);
+					}
+				}
+			} else if (stsCode == HttpStatus.SC_NOT_MODIFIED && handler == null && responseCache != null) {
+				//缓存内容未变化
+				fromCache(resRtn, responseCache.revalidated(getMethod, response));
+			} else if (AUDIT.captureBody(stsCode)) {
+				errBody = AUDIT.readBody(response.getEntity(), charSet == null ? null : Charset.forName(charSet));
+			}  
+			
+			//304等响应无响应体
+			if (response.getEntity() != null) {
+				response.getEntity().getContent().close();
+			}
+		} catch (HttpRateLimiter.RejectedException e) {
+
+			resRtn.setStsCode(STS_RATE_LIMITED);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (HttpConcurrencyLimiter.LimitException e) {
+
+			resRtn.setStsCode(STS_LIMITED);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (HttpCircuitBreaker.OpenException e) {
+
+			resRtn.setStsCode(STS_CIRCUIT_OPEN);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (ConnectTimeoutException e) {
+			
+			resRtn.setStsCode(STS_TIMEOUT_CONN);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (SocketTimeoutException e) {
+			
+			resRtn.setStsCode(STS_TIMEOUT_SOCK);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (HttpHostConnectException e) {
+			
+			resRtn.setStsCode(STS_TIMEOUT_CONN);
+			resRtn.setRsnPhrase(e.getMessage());
+		} catch (InterruptedException e) {
+			//等待并发名额或速率限制时被中断，恢复中断状态
+			Thread.currentThread().interrupt();
+			resRtn.setStsCode(STS_INTERRUPTED);
+			resRtn.setRsnPhrase("interrupted");
+		} catch (Exception e) {
+
+			if (deadline != null && deadline.isExpired()) {
+				//到期被中止
+				resRtn.setStsCode(STS_TIMEOUT_SOCK);
+				resRtn.setRsnPhrase("deadline exceeded: " + e.getMessage());
+			} else {
+				resRtn.setStsCode(STS_OTHER);
+				resRtn.setRsnPhrase(e.getMessage());
+			}
+		} finally {
+			//释放资源
+			if (response!= null) {
+				try {
+					EntityUtils.consume(response.getEntity());
+				} catch (IOException e) {
+					logger.error(e.getMessage(),e);
+				}
+			}
+			if (abort != null) {
+				abort.cancel(false);
+			}
+		}
+		
+		//监控指标、审计日志
+		long elapsed = System.nanoTime() - startTime;
+		if (attempt != null && attempt.isCancelled()) {
+			//对冲落选被中止，不计入监控及熔断，归还并发及半开探测名额
+			if (limiter != null) {
+				limiter.release();
+			}
+			if (breaker != null) {
+				breaker.release();
+			}
+			return resRtn;
+		}
+		metrics.record(routeOf(getMethod), resRtn.getStsCode(), elapsed);
+		refundRate(rate, resRtn.getStsCode());
+		if (limiter != null) {
+			releaseLimiter(limiter, resRtn.getStsCode(), elapsed);
+		}
+		if (breaker != null) {
+			breaker.record(resRtn.getStsCode(), elapsed);
+		}
+		AUDIT.record("GET", strUrl, reqLog, resRtn.getStsCode(), resRtn.getRsnPhrase(), TimeUnit.NANOSECONDS.toMillis(elapsed), errBody);
+
+		return resRtn;
+	}
+
+	/**
+	 * 请求未发出即失败(如URL格式错误)，记录监控指标及审计日志
+	 *
+	 * @param method 请求方法
+	 * @param strUrl 请求URL
+	 * @param reqLog 日志中记录的请求参数
+	 * @param e      异常
+	 * @return
+	 */
+	private HttpResRtn failed(String method, String strUrl, Object reqLog, Exception e) {
+
+		HttpResRtn resRtn = new HttpResRtn();
+		setErrRtn(resRtn, e);
+		metrics.record(null, resRtn.getStsCode(), 0);
+		AUDIT.record(method, strUrl, reqLog, resRtn.getStsCode(), resRtn.getRsnPhrase(), 0, null);
+		return resRtn;
+	}
+
+	/**
+	 * 同步调用可中断地等待异步结果：被中断时取消请求、恢复中断状态并返回 STS_INTERRUPTED
+	 *
+	 * @param future 异步结果
+	 * @return
+	 */
+	private HttpResRtn await(CompletableFuture<HttpResRtn> future) {
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			HttpResRtn resRtn = new HttpResRtn();
+			resRtn.setStsCode(STS_INTERRUPTED);
+			resRtn.setRsnPhrase("interrupted");
+			return resRtn;
+		} catch (ExecutionException e) {
+			HttpResRtn resRtn = new HttpResRtn();
+			setErrRtn(resRtn, e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+			return resRtn;
+		} catch (CancellationException e) {
+			HttpResRtn resRtn = new HttpResRtn();
+			resRtn.setStsCode(STS_OTHER);
+			resRtn.setRsnPhrase("request cancelled");
+			return resRtn;
+		}
+	}
+
+	/**
+	 * get请求 参数为json串
+	 *
+	 * @param strUrl    请求URL
+	 * @param strJson   请求json字符串
+	 * @param reqConfig 请求连接配置参数
+	 * @param handler   响应体处理器，为空时读取为字符串
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
+	 * @return
+	 */
+	private HttpResRtn getJson(String strUrl, String strJson,RequestConfig reqConfig, BodyHandler handler, long rateWait, HttpDeadline deadline) {
+		// 参数校验
+		Args.notNull(strUrl, "url request");
+		Args.notNull(strJson, "json string request");
+
+		//HTTP/2 传输时经异步客户端发送(多路复用)，可中断地等待结果
+		if (handler == null && h2Enabled) {
+			return await(getJsonAsync(strUrl, strJson, reqConfig, rateWait, deadline));
+		}
+		URI uri;
+		try {
+			uri = queryUri(strUrl, strJson);
+		} catch (IllegalArgumentException e) {
+			return failed("GET", strUrl, strJson, e);
+		}
+		return executeGet(strUrl, uri, reqConfig, "utf-8", handler, strJson, rateWait, deadline);
+	}
+	
+
+	/**
+	 * get提交
+	 * 
+	 * @param strUrl 请求URL
+	 * @param strJson 请求json字符串
+	 * @return
+	 */
+	public HttpResRtn getJson(String strUrl, String strJson) {
+		
+		return getJson(strUrl, strJson, null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * get提交，响应体交由处理器流式读取
+	 *
+	 * @param strUrl  请求URL
+	 * @param strJson 请求json字符串
+	 * @param handler 响应体处理器
+	 * @return 响应信息(value为空)
+	 */
+	public HttpResRtn getJson(String strUrl, String strJson, BodyHandler handler) {
+
+		Args.notNull(handler, "body handler");
+		return getJson(strUrl, strJson, null, handler, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+	
+	/**
+	 * get请求 参数为json串
+	 *
+	 * @param strUrl        请求URL
+	 * @param strJson       请求json字符串
+	 * @param socetTimeOut  响应超时时间
+	 * @param conTimeOut    请求超时时间
+	 * @return
+	 */
+	public HttpResRtn getJson(String strUrl, String strJson,int socetTimeOut,int conTimeOut) {
+	
+		//设置请求和传输超时时间
+		RequestConfig reqConfig = timeoutConfig(socetTimeOut, conTimeOut);
+		
+		return getJson(strUrl,strJson,reqConfig, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * get请求 参数为json串，超过速率限制时按本次指定的等待时间排队或直接拒绝(STS_RATE_LIMITED)
+	 *
+	 * @param strUrl        请求URL
+	 * @param strJson       请求json字符串
+	 * @param socetTimeOut  响应超时时间(单位毫秒)
+	 * @param conTimeOut    请求超时时间(单位毫秒)
+	 * @param rateWait      超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，小于0时按客户端配置
+	 * @return
+	 */
+	public HttpResRtn getJson(String strUrl, String strJson, int socetTimeOut, int conTimeOut, int rateWait) {
+
+		return getJson(strUrl, strJson, timeoutConfig(socetTimeOut, conTimeOut), null, rateWait, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * get请求 参数为json串，整个调用(排队、获取连接、发送及读取响应)不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+	 *
+	 * @param strUrl         请求URL
+	 * @param strJson        请求json字符串
+	 * @param deadlineMillis 总耗时上限(单位毫秒，long 类型，区别于 int 类型的响应超时时间)，小于等于0时不限制
+	 * @return
+	 */
+	public HttpResRtn getJson(String strUrl, String strJson, long deadlineMillis) {
+
+		return getJson(strUrl, strJson, null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+	}
+	
+	/**
+	 * get请求 参数为json串
+	 *
+	 * @param strUrl       请求URL
+	 * @param strJson      请求参数Json串
+	 * @param socetTimeOut 响应超时时间
+	 * @return
+	 */
+	public HttpResRtn getJson(String strUrl, String strJson,int socetTimeOut) {
+		
+		//设置请求和传输超时时间
+		RequestConfig reqConfig = timeoutConfig(socetTimeOut, conTimeOut);
+		
+		return getJson(strUrl,strJson,reqConfig, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+	
+	
+	/**
+	 * GET提交MAP参数
+	 * 
+	 * @param strUrl 请求URL
+	 * @param paraMap 请求MAP对象
+	 * @param reqConfig 请求连接配置参数
+	 * @param handler   响应体处理器，为空时读取为字符串
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
+	 * @return
+	 */
+	private HttpResRtn getMap(String strUrl,Map<Object, Object> paraMap, RequestConfig reqConfig, BodyHandler handler, long rateWait, HttpDeadline deadline) {
+		
+		// 参数校验
+		Args.notNull(strUrl, "url request");
+//		Args.notNull(paraMap, "json string request");
+
+		//HTTP/2 传输时经异步客户端发送(多路复用)，可中断地等待结果
+		if (handler == null && h2Enabled) {
+			return await(getMapAsync(strUrl, paraMap, reqConfig, rateWait, deadline));
+		}
+		URI uri;
+		try {
+			uri = queryUri(strUrl, paraMap);
+		} catch (IllegalArgumentException e) {
+			return failed("GET", strUrl, paraMap, e);
+		}
+		return executeGet(strUrl, uri, reqConfig, null, handler, paraMap, rateWait, deadline);
+	}
+	
+	
+	/**
+	 * get提交
+	 * 
+	 * @param strUrl 请求URL
+	 * @param paraMap 请求map
+	 * @return
+	 */
+	public HttpResRtn getMap(String strUrl,Map<Object, Object> paraMap) throws Exception {
+		
+		return getMap(strUrl,paraMap,null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * get提交，响应体交由处理器流式读取
+	 *
+	 * @param strUrl  请求URL
+	 * @param paraMap 请求map
+	 * @param handler 响应体处理器
+	 * @return 响应信息(value为空)
+	 */
+	public HttpResRtn getMap(String strUrl, Map<Object, Object> paraMap, BodyHandler handler) {
+
+		Args.notNull(handler, "body handler");
+		return getMap(strUrl, paraMap, null, handler, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+	
+	/**
+	 * GET提交 参数为Map对象
+	 * 
+	 * @param strUrl        请求URL
+	 * @param paraMap       请求Map字符串
+	 * @param socketTimeOut 响应超时时间(单位毫秒)
+	 * @return
+	 * @throws Exception 
+	 */
+	public HttpResRtn getMap(String strUrl,Map<Object, Object> paraMap,int socketTimeOut) {
+		
+		//设置请求和传输超时时间
+		RequestConfig reqConfig = timeoutConfig(socketTimeOut, conTimeOut);
+
+		return getMap(strUrl,paraMap,reqConfig, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+	
+	/**
+	 * GET提交
+	 * 
+	 * @param strUrl         请求URL
+	 * @param paraMap        请求Map字符串
+	 * @param socketTimeOut  响应超时时间(单位毫秒)
+	 * @param conTimeOut     请求超时时间(单位毫秒)
+	 * @return
+	 */
+	public HttpResRtn getMap(String strUrl,Map<Object, Object> paraMap,int socketTimeOut,int conTimeOut) {
+		
+		//设置请求和传输超时时间
+		RequestConfig reqConfig = timeoutConfig(socketTimeOut, conTimeOut);
+
+		return getMap(strUrl,paraMap,reqConfig, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * GET提交MAP参数，超过速率限制时按本次指定的等待时间排队或直接拒绝(STS_RATE_LIMITED)
+	 *
+	 * @param strUrl        请求URL
+	 * @param paraMap       请求Map对象
+	 * @param socketTimeOut 响应超时时间(单位毫秒)
+	 * @param conTimeOut    请求超时时间(单位毫秒)
+	 * @param rateWait      超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，小于0时按客户端配置
+	 * @return
+	 */
+	public HttpResRtn getMap(String strUrl, Map<Object, Object> paraMap, int socketTimeOut, int conTimeOut, int rateWait) {
+
+		return getMap(strUrl, paraMap, timeoutConfig(socketTimeOut, conTimeOut), null, rateWait, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * GET提交MAP参数，整个调用(排队、获取连接、发送及读取响应)不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+	 *
+	 * @param strUrl         请求URL
+	 * @param paraMap        请求Map对象
+	 * @param deadlineMillis 总耗时上限(单位毫秒，long 类型，区别于 int 类型的响应超时时间)，小于等于0时不限制
+	 * @return
+	 */
+	public HttpResRtn getMap(String strUrl, Map<Object, Object> paraMap, long deadlineMillis) {
+
+		return getMap(strUrl, paraMap, null, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+	}
+
+	/**
+	 * 异常转换为响应信息(与同步请求的编码保持一致)
+	 *
+	 * @param resRtn 响应信息对象
+	 * @param e      异常
+	 */
+	private void setErrRtn(HttpResRtn resRtn, Exception e) {
+
+		if (e instanceof HttpRateLimiter.RejectedException) {
+
+			resRtn.setStsCode(STS_RATE_LIMITED);
+		} else if (e instanceof HttpConcurrencyLimiter.LimitException) {
+
+			resRtn.setStsCode(STS_LIMITED);
+		} else if (e instanceof HttpCircuitBreaker.OpenException) {
+
+			resRtn.setStsCode(STS_CIRCUIT_OPEN);
+		} else if (e instanceof InterruptedException) {
+
+			resRtn.setStsCode(STS_INTERRUPTED);
+		} else if (e instanceof ConnectTimeoutException || e instanceof ConnectException || e instanceof TimeoutException) {
+			//连接超时、拒绝连接、连接池获取连接超时
+			resRtn.setStsCode(STS_TIMEOUT_CONN);
+		} else if (e instanceof SocketTimeoutException) {
+
+			resRtn.setStsCode(STS_TIMEOUT_SOCK);
+		} else {
+
+			resRtn.setStsCode(STS_OTHER);
+		}
+		resRtn.setRsnPhrase(e.getMessage());
+	}
+
+	/**
+	 * 请求超时配置，未设置的参数(如获取连接超时)沿用默认配置
+	 *
+	 * @param socketTimeOut 响应超时时间
+	 * @param conTimeOut    请求超时时间
+	 * @return
+	 */
+	private RequestConfig timeoutConfig(int socketTimeOut, int conTimeOut) {
+
+		return RequestConfig.copy(config)
+							.setSocketTimeout(socketTimeOut)
+							.setConnectTimeout(conTimeOut)
+							.build();
+	}
+
+	/**
+	 * 异步执行请求，请求内容由生产者按需写出
+	 *
+	 * @param method   请求
+	 * @param producer 请求生产者，为空时按请求创建(开启 HTTP/2 传输时经 HTTP/2 发送)
+	 * @param charSet  响应字符集，为空时按响应头解析
+	 * @param reqLog   日志中记录的请求参数
+	 * @param deadline 截止时间，为空时不限制
+	 * @param rateWait 超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @return 始终正常完成，异常以响应编码返回
+	 */
+	private CompletableFuture<HttpResRtn> executeAsync(final HttpRequestBase method, final HttpAsyncRequestProducer producer, final String charSet,
+			final Object reqLog, final HttpDeadline deadline, long rateWait) {
+
+		final HttpRateLimiter rate = rateLimiter(method);
+		long pacing;
+		try {
+			pacing = rate == null ? 0 : reserveRate(rate, deadline, rateWait);
+		} catch (HttpRateLimiter.RejectedException e) {
+			HttpResRtn resRtn = new HttpResRtn();
+			setErrRtn(resRtn, e);
+			metrics.record(routeOf(method), resRtn.getStsCode(), 0);
+			AUDIT.record(method.getMethod(), method.getURI().toString(), reqLog, resRtn.getStsCode(), resRtn.getRsnPhrase(), 0, null);
+			return CompletableFuture.completedFuture(resRtn);
+		}
+		if (pacing <= 0) {
+			return sendAsync(method, producer, charSet, reqLog, deadline, rate);
+		}
+
+		//超过速率时到预约时间再发送，不阻塞调用线程
+		final CompletableFuture<HttpResRtn> future = new CompletableFuture<HttpResRtn>();
+		final AtomicReference<CompletableFuture<HttpResRtn>> sent = new AtomicReference<CompletableFuture<HttpResRtn>>();
+		final ScheduledFuture<?> task = HttpDeadline.timer().schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				if (future.isDone()) {
+					//排队中已取消，未发出
+					rate.refund();
+					return;
+				}
+				CompletableFuture<HttpResRtn> reqFuture = sendAsync(method, producer, charSet, reqLog, deadline, rate);
+				sent.set(reqFuture);
+				reqFuture.whenComplete(new BiConsumer<HttpResRtn, Throwable>() {
+
+					@Override
+					public void accept(HttpResRtn rtn, Throwable e) {
+						future.complete(rtn);
+					}
+				});
+				if (future.isCancelled()) {
+					reqFuture.cancel(true);
+				}
+			}
+		}, pacing, TimeUnit.NANOSECONDS);
+		//调用方取消时取消排队或中止请求
+		future.whenComplete(new BiConsumer<HttpResRtn, Throwable>() {
+
+			@Override
+			public void accept(HttpResRtn rtn, Throwable e) {
+				if (future.isCancelled()) {
+					if (task.cancel(false)) {
+						//排队中取消，归还许可
+						rate.refund();
+					}
+					CompletableFuture<HttpResRtn> reqFuture = sent.get();
+					if (reqFuture != null) {
+						reqFuture.cancel(true);
+					}
+				}
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * 异步发送请求(已按速率限制排队)
+	 *
+	 * @param method   请求
+	 * @param producer 请求生产者，为空时按请求创建(开启 HTTP/2 传输时经 HTTP/2 发送)
+	 * @param charSet  响应字符集，为空时按响应头解析
+	 * @param reqLog   日志中记录的请求参数
+	 * @param deadline 截止时间，为空时不限制
+	 * @param rate     已预约许可的速率限制，被并发限制或熔断拒绝时归还，为空时不限制
+	 * @return 始终正常完成，异常以响应编码返回
+	 */
+	private CompletableFuture<HttpResRtn> sendAsync(final HttpRequestBase method, HttpAsyncRequestProducer producer, final String charSet, final Object reqLog,
+			final HttpDeadline deadline, HttpRateLimiter rate) {
+
+		//响应信息对象
+		final HttpResRtn resRtn = new HttpResRtn();
+		final CompletableFuture<HttpResRtn> future = new CompletableFuture<HttpResRtn>();
+		//请求时间
+		final long startTime = System.nanoTime();
+		//并发限制、熔断器
+		HttpConcurrencyLimiter acquiredLimiter = null;
+		HttpCircuitBreaker acquired = null;
+
+		try {
+			acquiredLimiter = acquireLimiter(method, false, deadline);
+			acquired = acquireBreaker(method);
+			//未单独指定超时的请求使用当前配置(可重新加载)
+			if (method.getConfig() == null) {
+				method.setConfig(config);
+			}
+			if (deadline != null) {
+				method.setConfig(deadline.cap(method.getConfig()));
+			}
+			final HttpConcurrencyLimiter limiter = acquiredLimiter;
+			final HttpCircuitBreaker breaker = acquired;
+			FutureCallback<HttpResponse> callback = new FutureCallback<HttpResponse>() {
+
+				/** 非2xx响应体(审计日志) */
+				private String errBody;
+
+				@Override
+				public void completed(HttpResponse response) {
+					try {
+						//响应
+						StatusLine stsLine = response.getStatusLine();
+						//状态码
+						int stsCode = stsLine.getStatusCode();
+
+						//封装返回信息
+						resRtn.setStsCode(stsCode);
+						resRtn.setRsnPhrase(stsLine.getReasonPhrase());
+
+						//Read the response body
+						if (stsCode == HttpStatus.SC_OK) {
+							HttpCompressor.RESPONSE_DECODING.process(response, null);
+							String strValue = EntityUtils.toString(response.getEntity(), charSet);
+							resRtn.setValue(strValue);
+							if (responseCache != null && method instanceof HttpGet) {
+								responseCache.put(method, response, strValue);
+							}
+						} else if (stsCode == HttpStatus.SC_NOT_MODIFIED && responseCache != null && method instanceof HttpGet) {
+							//缓存内容未变化
+							fromCache(resRtn, responseCache.revalidated(method, response));
+						} else if (AUDIT.captureBody(stsCode)) {
+							errBody = AUDIT.readBody(response.getEntity(), charSet == null ? null : Charset.forName(charSet));
+						}
+					} catch (Exception e) {
+
+						setErrRtn(resRtn, e);
+					} finally {
+						//释放资源
+						try {
+							EntityUtils.consume(response.getEntity());
+						} catch (IOException e) {
+							logger.error(e.getMessage(),e);
+						}
+					}
+					done();
+				}
+
+				@Override
+				public void failed(Exception e) {
+
+					setErrRtn(resRtn, e);
+					done();
+				}
+
+				@Override
+				public void cancelled() {
+
+					if (deadline != null && deadline.isExpired()) {
+						//到期被中止
+						resRtn.setStsCode(STS_TIMEOUT_SOCK);
+						resRtn.setRsnPhrase("deadline exceeded");
+					} else {
+						resRtn.setStsCode(STS_OTHER);
+						resRtn.setRsnPhrase("request cancelled");
+					}
+					done();
+				}
+
+				/**
+				 * 记录监控指标、审计日志并完成
+				 */
+				private void done() {
+
+					long elapsed = System.nanoTime() - startTime;
+					if (future.isCancelled()) {
+						//调用方放弃(对冲落选)，不计入监控及熔断，归还半开探测名额
+						if (limiter != null) {
+							limiter.release();
+						}
+						if (breaker != null) {
+							breaker.release();
+						}
+						return;
+					}
+					metrics.record(routeOf(method), resRtn.getStsCode(), elapsed);
+					if (limiter != null) {
+						releaseLimiter(limiter, resRtn.getStsCode(), elapsed);
+					}
+					if (breaker != null) {
+						breaker.record(resRtn.getStsCode(), elapsed);
+					}
+					AUDIT.record(method.getMethod(), method.getURI().toString(), reqLog, resRtn.getStsCode(), resRtn.getRsnPhrase(),
+							TimeUnit.NANOSECONDS.toMillis(elapsed), errBody);
+					future.complete(resRtn);
+				}
+			};
+			//HTTP/2 传输(请求体在内存中)多路复用，其余及不支持 HTTP/2 的主机经 HTTP/1.1 异步连接池
+			final Future<?> reqFuture = producer == null && h2Enabled && getH2Transport().accepts(method.getURI()) ? executeH2(method, callback)
+					: getAsyncConnection().execute(producer != null ? producer : asyncProducer(method), HttpAsyncMethods.createConsumer(), callback);
+			//到期中止请求
+			final ScheduledFuture<?> abort = deadline == null ? null : deadline.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					reqFuture.cancel(true);
+				}
+			});
+			//调用方取消时中止请求
+			future.whenComplete(new BiConsumer<HttpResRtn, Throwable>() {
+
+				@Override
+				public void accept(HttpResRtn rtn, Throwable e) {
+					if (abort != null) {
+						abort.cancel(false);
+					}
+					if (future.isCancelled()) {
+						reqFuture.cancel(true);
+					}
+				}
+			});
+		} catch (Exception e) {
+
+			setErrRtn(resRtn, e);
+			long elapsed = System.nanoTime() - startTime;
+			metrics.record(routeOf(method), resRtn.getStsCode(), elapsed);
+			refundRate(rate, resRtn.getStsCode());
+			if (acquiredLimiter != null) {
+				releaseLimiter(acquiredLimiter, resRtn.getStsCode(), elapsed);
+			}
+			if (acquired != null) {
+				acquired.record(resRtn.getStsCode(), elapsed);
+			}
+			AUDIT.record(method.getMethod(), method.getURI().toString(), reqLog, resRtn.getStsCode(), resRtn.getRsnPhrase(),
+					TimeUnit.NANOSECONDS.toMillis(elapsed), null);
+			future.complete(resRtn);
+		}
+
+		return future;
+	}
+
+	/**
+	 * 内存请求体的异步请求，目标主机取自缓存
+	 *
+	 * @param method 请求
+	 * @return
+	 */
+	private HttpAsyncRequestProducer asyncProducer(HttpRequestBase method) {
+
+		HttpHost target = hostOf(method.getURI());
+		return target == null ? HttpAsyncMethods.create(method) : HttpAsyncMethods.create(target, method);
+	}
+
+	/**
+	 * 经 HTTP/2 传输发送，响应体读取完成后回调
+	 *
+	 * @param method   请求
+	 * @param callback 响应回调
+	 * @return 可用于取消请求
+	 * @throws Exception
+	 */
+	private Future<?> executeH2(HttpRequestBase method, FutureCallback<HttpResponse> callback) throws Exception {
+
+		if (gzipThreshold >= 0) {
+			HttpCompressor.ACCEPT_ENCODING.process(method, null);
+		}
+		return getH2Transport().execute(method, method.getConfig() != null ? method.getConfig() : config, callback);
+	}
+
+	/**
+	 * 异步GET请求，按缓存、请求合并及对冲策略发送
+	 *
+	 * @param uri       请求URI(含参数)
+	 * @param reqConfig 请求连接配置参数
+	 * @param charSet   响应字符集，为空时按响应头解析
+	 * @param reqLog    日志中记录的请求参数
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
+	 * @return
+	 */
+	private CompletableFuture<HttpResRtn> executeGetAsync(final URI uri, final RequestConfig reqConfig, final String charSet, final Object reqLog,
+			final long rateWait, final HttpDeadline deadline) {
+
+		//缓存未过期时不经网络(不计入监控及审计)
+		String strUrl = uri.toString();
+		HttpResponseCache.Entry cached = responseCache == null ? null : responseCache.get(strUrl);
+		if (cached != null) {
+			return CompletableFuture.completedFuture(fromCache(new HttpResRtn(), cached));
+		}
+		if (singleFlight != null) {
+			//相同请求执行中时共享其结果
+			return singleFlight.execute(flightKey(strUrl, reqConfig, charSet), new Supplier<CompletableFuture<HttpResRtn>>() {
+
+				@Override
+				public CompletableFuture<HttpResRtn> get() {
+					return sendGetAsync(uri, reqConfig, charSet, reqLog, rateWait, deadline);
+				}
+			});
+		}
+		return sendGetAsync(uri, reqConfig, charSet, reqLog, rateWait, deadline);
+	}
+
+	/**
+	 * 合并请求键：URL(含参数)、单次超时及响应字符集均相同的请求可共享结果
+	 *
+	 * @param strUrl    请求URL(含参数)
+	 * @param reqConfig 请求连接配置参数
+	 * @param charSet   响应字符集
+	 * @return
+	 */
+	private static String flightKey(String strUrl, RequestConfig reqConfig, String charSet) {
+
+		StringBuilder key = new StringBuilder("GET ").append(strUrl);
+		if (reqConfig != null) {
+			key.append(' ').append(reqConfig.getConnectionRequestTimeout())
+				.append('/').append(reqConfig.getConnectTimeout())
+				.append('/').append(reqConfig.getSocketTimeout());
+		}
+		if (charSet != null) {
+			key.append(' ').append(charSet);
+		}
+		return key.toString();
+	}
+
+	/**
+	 * 发送异步GET请求，开启对冲时按对冲策略发送
+	 *
+	 * @param uri       请求URI(含参数)
+	 * @param reqConfig 请求连接配置参数
+	 * @param charSet   响应字符集，为空时按响应头解析
+	 * @param reqLog    日志中记录的请求参数
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
+	 * @return
+	 */
+	private CompletableFuture<HttpResRtn> sendGetAsync(URI uri, RequestConfig reqConfig, String charSet, Object reqLog, long rateWait, HttpDeadline deadline) {
+
+		if (hedge.isEnabled()) {
+			return new HedgedGet(uri, reqConfig, charSet, reqLog, rateWait, deadline).start();
+		}
+		return executeAsync(newGet(uri, reqConfig), null, charSet, reqLog, deadline, rateWait);
+	}
+
+	/**
+	 * 创建GET请求
+	 *
+	 * @param uri       请求URI(含参数)
+	 * @param reqConfig 请求连接配置参数
+	 * @return
+	 */
+	private HttpGet newGet(URI uri, RequestConfig reqConfig) {
+
+		HttpGet getMethod = new HttpGet(uri);
+		if (reqConfig!= null) {
+			getMethod.setConfig(reqConfig);
+		}
+		if (responseCache != null) {
+			responseCache.addValidators(getMethod);
+		}
+		return getMethod;
+	}
+
+	/**
+	 * 以缓存内容作为响应
+	 *
+	 * @param resRtn 响应信息对象
+	 * @param cached 缓存条目，为空(已被淘汰)时保持原响应
+	 * @return
+	 */
+	private HttpResRtn fromCache(HttpResRtn resRtn, HttpResponseCache.Entry cached) {
+
+		if (cached != null) {
+			resRtn.setStsCode(HttpStatus.SC_OK);
+			resRtn.setRsnPhrase(cached.reason);
+			resRtn.setValue(cached.value);
+		}
+		return resRtn;
+	}
+
+	/**
+	 * 异步post请求 参数为json串
+	 *
+	 * @param strUrl    请求URL
+	 * @param strJson   请求json字符串
+	 * @param reqConfig 请求连接配置参数
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
+	 * @return
+	 */
+	private CompletableFuture<HttpResRtn> postJsonAsync(String strUrl, String strJson, RequestConfig reqConfig, long rateWait, HttpDeadline deadline) {
+		// 参数校验
+		Args.notNull(strUrl, "url request");
+		Args.notNull(strJson, "json string request");
+
+		//post
+		HttpPost postMethod = new HttpPost(toUri(strUrl));
+		postMethod.setEntity(jsonEntity(strJson, false));
+		//设置请求和传输超时时间
+		if (reqConfig!= null) {
+			postMethod.setConfig(reqConfig);
+		}
+
+		return executeAsync(postMethod, null, "utf-8", strJson, deadline, rateWait);
+	}
+
+	/**
+	 * 异步POST提交
+	 *
+	 * @param strUrl  请求URL
+	 * @param strJson 请求json字符串
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> postJsonAsync(String strUrl, String strJson) {
+
+		return postJsonAsync(strUrl, strJson, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * 异步post请求 参数为json串
+	 *
+	 * @param strUrl       请求URL
+	 * @param strJson      请求参数Json串
+	 * @param socetTimeOut 响应超时时间
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> postJsonAsync(String strUrl, String strJson, int socetTimeOut) {
+
+		return postJsonAsync(strUrl, strJson, timeoutConfig(socetTimeOut, conTimeOut), RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * 异步post请求 参数为json串
+	 *
+	 * @param strUrl       请求URL
+	 * @param strJson      请求json字符串
+	 * @param socetTimeOut 响应超时时间
+	 * @param conTimeOut   请求超时时间
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> postJsonAsync(String strUrl, String strJson, int socetTimeOut, int conTimeOut) {
+
+		return postJsonAsync(strUrl, strJson, timeoutConfig(socetTimeOut, conTimeOut), RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * 异步post请求 参数为json串，超过速率限制时按本次指定的等待时间排队或直接拒绝(STS_RATE_LIMITED)
+	 *
+	 * @param strUrl        请求URL
+	 * @param strJson       请求json字符串
+	 * @param socetTimeOut  响应超时时间(单位毫秒)
+	 * @param conTimeOut    请求超时时间(单位毫秒)
+	 * @param rateWait      超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，小于0时按客户端配置
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> postJsonAsync(String strUrl, String strJson, int socetTimeOut, int conTimeOut, int rateWait) {
+
+		return postJsonAsync(strUrl, strJson, timeoutConfig(socetTimeOut, conTimeOut), rateWait, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * 异步post请求 参数为json串，整个调用(排队、获取连接、发送及读取响应)不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+	 *
+	 * @param strUrl         请求URL
+	 * @param strJson        请求json字符串
+	 * @param deadlineMillis 总耗时上限(单位毫秒，long 类型，区别于 int 类型的响应超时时间)，小于等于0时不限制
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> postJsonAsync(String strUrl, String strJson, long deadlineMillis) {
+
+		return postJsonAsync(strUrl, strJson, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+	}
+
+	/**
+	 * 异步post请求，参数为Map
+	 *
+	 * @param strUrl    请求URL
+	 * @param paraMap   请求Map对象
+	 * @param reqConfig 请求连接配置参数
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
+	 * @return
+	 */
+	private CompletableFuture<HttpResRtn> postMapAsync(String strUrl, Map<Object, Object> paraMap, RequestConfig reqConfig, long rateWait, HttpDeadline deadline) {
+		// 参数校验
+		Args.notNull(strUrl, "url request");
+		Args.notNull(paraMap, "json string request");
+
+		try {
+			//post
+			HttpPost postMethod = new HttpPost(toUri(strUrl));
+			postMethod.setEntity(formEntity(paraMap));
+			//设置请求和传输超时时间
+			if (reqConfig!= null) {
+				postMethod.setConfig(reqConfig);
+			}
+
+			return executeAsync(postMethod, null, null, paraMap, deadline, rateWait);
+		} catch (Exception e) {
+
+			HttpResRtn resRtn = new HttpResRtn();
+			setErrRtn(resRtn, e);
+			return CompletableFuture.completedFuture(resRtn);
+		}
+	}
+
+	/**
+	 * 异步POST提交
+	 *
+	 * @param strUrl  请求URL
+	 * @param paraMap 请求map
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> postMapAsync(String strUrl, Map<Object, Object> paraMap) {
+
+		return postMapAsync(strUrl, paraMap, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * 异步POST提交 参数为Map对象
+	 *
+	 * @param strUrl        请求URL
+	 * @param paraMap       请求Map字符串
+	 * @param socketTimeOut 响应超时时间(单位毫秒)
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> postMapAsync(String strUrl, Map<Object, Object> paraMap, int socketTimeOut) {
+
+		return postMapAsync(strUrl, paraMap, timeoutConfig(socketTimeOut, conTimeOut), RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * 异步POST提交 参数为Map对象
+	 *
+	 * @param strUrl        请求URL
+	 * @param paraMap       请求Map
+	 * @param socetTimeOut  响应超时时间
+	 * @param conTimeOut    请求超时时间
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> postMapAsync(String strUrl, Map<Object, Object> paraMap, int socetTimeOut, int conTimeOut) {
+
+		return postMapAsync(strUrl, paraMap, timeoutConfig(socetTimeOut, conTimeOut), RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * 异步POST提交 参数为Map对象，超过速率限制时按本次指定的等待时间排队或直接拒绝(STS_RATE_LIMITED)
+	 *
+	 * @param strUrl        请求URL
+	 * @param paraMap       请求Map
+	 * @param socetTimeOut  响应超时时间(单位毫秒)
+	 * @param conTimeOut    请求超时时间(单位毫秒)
+	 * @param rateWait      超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，小于0时按客户端配置
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> postMapAsync(String strUrl, Map<Object, Object> paraMap, int socetTimeOut, int conTimeOut, int rateWait) {
+
+		return postMapAsync(strUrl, paraMap, timeoutConfig(socetTimeOut, conTimeOut), rateWait, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * 异步POST提交 参数为Map对象，整个调用(排队、获取连接、发送及读取响应)不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+	 *
+	 * @param strUrl         请求URL
+	 * @param paraMap        请求Map
+	 * @param deadlineMillis 总耗时上限(单位毫秒，long 类型，区别于 int 类型的响应超时时间)，小于等于0时不限制
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> postMapAsync(String strUrl, Map<Object, Object> paraMap, long deadlineMillis) {
+
+		return postMapAsync(strUrl, paraMap, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+	}
+
+	/**
+	 * 异步get请求 参数为json串
 	 *
 	 * @param strUrl    请求URL
 	 * @param strJson   请求json字符串
 	 * @param reqConfig 请求连接配置参数
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
 	 * @return
 	 */
-	private HttpResRtn postJson(String strUrl, String strJson,RequestConfig reqConfig) {
+	private CompletableFuture<HttpResRtn> getJsonAsync(String strUrl, String strJson, RequestConfig reqConfig, long rateWait, HttpDeadline deadline) {
 		// 参数校验
 		Args.notNull(strUrl, "url request");
 		Args.notNull(strJson, "json string request");
-		
-		//响应信息对象
-		HttpResRtn resRtn = new HttpResRtn();
-		//post
-		HttpPost postMethod = null;
-		//
-		HttpResponse response = null;
-		
-		try {
-			//实体
-			StringEntity entity = new StringEntity(strJson.toString(),"utf-8");
-			//post
-			postMethod = new HttpPost(strUrl);
-			postMethod.setEntity(entity);
-			//设置请求和传输超时时间
-			if (reqConfig!= null) {
-				postMethod.setConfig(reqConfig);
-			}
-			//请求服务
-			long startTime = System.currentTimeMillis();
-			response = getConnection().execute(postMethod);
-			long endTime = System.currentTimeMillis();
-
-			//响应
-			StatusLine stsLine = response.getStatusLine();
-			//状态码
-			int stsCode = stsLine.getStatusCode();
-			logger.info("调用API 花费时间(单位：毫秒)：" + (endTime - startTime)+"，statusCode：" + stsCode+"，请求参数===>"+strJson);
-			
-			//封装返回信息
-			resRtn.setStsCode(stsCode);
-			resRtn.setRsnPhrase(stsLine.getReasonPhrase());
-			
-			//Read the response body
-			if (stsCode == HttpStatus.SC_OK) {
-				String strValue = EntityUtils.toString(response.getEntity(),"utf-8"); 
-				resRtn.setValue(strValue);
-				logger.info("http response body is:" + strValue);
-			}  
-			
-			response.getEntity().getContent().close();
-		} catch (ConnectTimeoutException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_CONN);
-			resRtn.setRsnPhrase(e.getMessage());
-		} catch (SocketTimeoutException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_SOCK);
-			resRtn.setRsnPhrase(e.getMessage());
-		} catch (HttpHostConnectException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_CONN);
-			resRtn.setRsnPhrase(e.getMessage());
-		} catch (Exception e) {
-
-			resRtn.setStsCode(STS_OTHER);
-			resRtn.setRsnPhrase(e.getMessage());
-		} finally {
-			//释放资源
-			if (response!= null) {
-				try {
-					EntityUtils.consume(response.getEntity());
-				} catch (IOException e) {
-					logger.error(e.getMessage(),e);
-				}
-			}
 
-		}
-		
-		return resRtn;
-		
+		return executeGetAsync(queryUri(strUrl, strJson), reqConfig, "utf-8", strJson, rateWait, deadline);
 	}
-	
 
 	/**
-	 * POST提交
-	 * 
-	 * @param strUrl 请求URL
+	 * 异步get提交
+	 *
+	 * @param strUrl  请求URL
 	 * @param strJson 请求json字符串
 	 * @return
 	 */
-	public HttpResRtn postJson(String strUrl, String strJson) {
-		
-		return postJson(strUrl, strJson, null);
+	public CompletableFuture<HttpResRtn> getJsonAsync(String strUrl, String strJson) {
+
+		return getJsonAsync(strUrl, strJson, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
 	}
-	
+
 	/**
-	 * post请求 参数为json串
+	 * 异步get请求 参数为json串
 	 *
-	 * @param strUrl        请求URL
-	 * @param strJson       请求json字符串
-	 * @param socetTimeOut  响应超时时间
-	 * @param conTimeOut    请求超时时间
+	 * @param strUrl       请求URL
+	 * @param strJson      请求参数Json串
+	 * @param socetTimeOut 响应超时时间
 	 * @return
 	 */
-	public HttpResRtn postJson(String strUrl, String strJson,int socetTimeOut,int conTimeOut) {
-	
-		//设置请求和传输超时时间
-		RequestConfig reqConfig = null;
+	public CompletableFuture<HttpResRtn> getJsonAsync(String strUrl, String strJson, int socetTimeOut) {
 
-		/*reqConfig = RequestConfig.custom()
-				.setSocketTimeout(socetTimeOut)
-				.setConnectTimeout(conTimeOut)
-				.build();*/
-		
-		return postJson(strUrl,strJson,reqConfig);
+		return getJsonAsync(strUrl, strJson, timeoutConfig(socetTimeOut, conTimeOut), RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
 	}
-	
+
 	/**
-	 * post请求 参数为json串
+	 * 异步get请求 参数为json串
 	 *
 	 * @param strUrl       请求URL
-	 * @param strJson      请求参数Json串
+	 * @param strJson      请求json字符串
 	 * @param socetTimeOut 响应超时时间
+	 * @param conTimeOut   请求超时时间
 	 * @return
 	 */
-	public HttpResRtn postJson(String strUrl, String strJson,int socetTimeOut) {
+	public CompletableFuture<HttpResRtn> getJsonAsync(String strUrl, String strJson, int socetTimeOut, int conTimeOut) {
 
-		//设置请求和传输超时时间
-		RequestConfig reqConfig = null;
+		return getJsonAsync(strUrl, strJson, timeoutConfig(socetTimeOut, conTimeOut), RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
 
-		/*reqConfig = RequestConfig.custom()
-				.setSocketTimeout(socetTimeOut)
-				.setConnectTimeout(conTimeOut)
-				.build();*/
-		
-		return postJson(strUrl,strJson,reqConfig);
+	/**
+	 * 异步get请求 参数为json串，超过速率限制时按本次指定的等待时间排队或直接拒绝(STS_RATE_LIMITED)
+	 *
+	 * @param strUrl        请求URL
+	 * @param strJson       请求json字符串
+	 * @param socetTimeOut  响应超时时间(单位毫秒)
+	 * @param conTimeOut    请求超时时间(单位毫秒)
+	 * @param rateWait      超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，小于0时按客户端配置
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> getJsonAsync(String strUrl, String strJson, int socetTimeOut, int conTimeOut, int rateWait) {
+
+		return getJsonAsync(strUrl, strJson, timeoutConfig(socetTimeOut, conTimeOut), rateWait, HttpDeadline.after(deadlineTime));
 	}
-	
 
 	/**
-	 * post请求，参数为Map
+	 * 异步get请求 参数为json串，整个调用(排队、获取连接、发送及读取响应)不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+	 *
+	 * @param strUrl         请求URL
+	 * @param strJson        请求json字符串
+	 * @param deadlineMillis 总耗时上限(单位毫秒，long 类型，区别于 int 类型的响应超时时间)，小于等于0时不限制
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> getJsonAsync(String strUrl, String strJson, long deadlineMillis) {
+
+		return getJsonAsync(strUrl, strJson, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+	}
+
+	/**
+	 * 异步GET提交MAP参数
 	 *
 	 * @param strUrl    请求URL
-	 * @param paraMap   请求Map对象
+	 * @param paraMap   请求MAP对象
 	 * @param reqConfig 请求连接配置参数
+	 * @param rateWait  超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，RATE_WAIT_CONFIG 时按客户端配置
+	 * @param deadline  截止时间，为空时不限制
 	 * @return
-	 * @throws Exception
 	 */
-	private HttpResRtn postMap(String strUrl, Map<Object, Object> paraMap, RequestConfig reqConfig) {
-		
+	private CompletableFuture<HttpResRtn> getMapAsync(String strUrl, Map<Object, Object> paraMap, RequestConfig reqConfig, long rateWait, HttpDeadline deadline) {
 		// 参数校验
 		Args.notNull(strUrl, "url request");
-		Args.notNull(paraMap, "json string request");
-		
-		//响应信息对象
-		HttpResRtn resRtn = new HttpResRtn();
-		//post
-		HttpPost postMethod = null;
-		//
-		HttpResponse response = null;
-		
+
 		try {
-			/**  设置请求参数 */
-			//实体
-			UrlEncodedFormEntity urlEntity = mapToEntity(paraMap,Consts.UTF_8);
-			
-			//post
-			postMethod = new HttpPost(strUrl);
-			postMethod.setEntity(urlEntity);  
-			//设置请求和传输超时时间
-			if (reqConfig!= null) {
-				postMethod.setConfig(reqConfig);
-			}
-			//请求时间`
-			long startTime = System.currentTimeMillis();
-			//响应
-			response = getConnection().execute(postMethod);
-			long endTime = System.currentTimeMillis();
-			logger.info("调用API 花费时间(单位：毫秒)：" + (endTime - startTime));
-			
-			//响应
-			StatusLine stsLine = response.getStatusLine();
-			//状态码
-			int stsCode = stsLine.getStatusCode();
-			logger.info("statusCode:" + stsCode);
-			
-			//封装返回信息
-			resRtn.setStsCode(stsCode);
-			resRtn.setRsnPhrase(stsLine.getReasonPhrase());
-			
-			int statusCode = response.getStatusLine().getStatusCode();
-			logger.info("statusCode:" + statusCode);
-			
-			//Read the response body
-			if (stsCode == HttpStatus.SC_OK) {
-				String strValue = EntityUtils.toString(response.getEntity());
-				resRtn.setValue(strValue);
-				logger.info("http response body is:" + strValue);
-			}
-		} catch (ConnectTimeoutException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_CONN);
-			resRtn.setRsnPhrase(e.getMessage());
-		} catch (SocketTimeoutException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_SOCK);
-			resRtn.setRsnPhrase(e.getMessage());
-		} catch (HttpHostConnectException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_CONN);
-			resRtn.setRsnPhrase(e.getMessage());
+			return executeGetAsync(queryUri(strUrl, paraMap), reqConfig, null, paraMap, rateWait, deadline);
 		} catch (Exception e) {
-			
-			resRtn.setStsCode(STS_OTHER);
-			resRtn.setRsnPhrase(e.getMessage());
-		} finally {
-			//释放资源
-			if (response!= null) {
-				try {
-					EntityUtils.consume(response.getEntity());
-				} catch (IOException e) {
-					logger.error(e.getMessage(),e);
-				}
-			}
+
+			HttpResRtn resRtn = new HttpResRtn();
+			setErrRtn(resRtn, e);
+			return CompletableFuture.completedFuture(resRtn);
 		}
-		
-		return resRtn;
 	}
-	
-	
+
 	/**
-	 * POST提交
-	 * 
-	 * @param strUrl 请求URL
+	 * 异步get提交
+	 *
+	 * @param strUrl  请求URL
 	 * @param paraMap 请求map
 	 * @return
 	 */
-	public HttpResRtn postMap(String strUrl,Map<Object, Object> paraMap) throws Exception {
-		
-		
-		return postMap(strUrl,paraMap,null);
+	public CompletableFuture<HttpResRtn> getMapAsync(String strUrl, Map<Object, Object> paraMap) {
+
+		return getMapAsync(strUrl, paraMap, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
 	}
-	
-	
+
 	/**
-	 * POST提交 参数为Map对象
-	 * 
+	 * 异步GET提交 参数为Map对象
+	 *
 	 * @param strUrl        请求URL
 	 * @param paraMap       请求Map字符串
 	 * @param socketTimeOut 响应超时时间(单位毫秒)
 	 * @return
 	 */
-	public HttpResRtn postMap(String strUrl,Map<Object, Object> paraMap,int socketTimeOut) {
-		
-		//设置请求和传输超时时间
-		RequestConfig reqConfig = RequestConfig.custom()
-											   .setSocketTimeout(socketTimeOut)
-											   .setConnectTimeout(CON_TIME_OUT)
-											   .build();
+	public CompletableFuture<HttpResRtn> getMapAsync(String strUrl, Map<Object, Object> paraMap, int socketTimeOut) {
 
-		return postMap(strUrl,paraMap,reqConfig);
+		return getMapAsync(strUrl, paraMap, timeoutConfig(socketTimeOut, conTimeOut), RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
 	}
-	
+
 	/**
-	 * post请求 参数为json串
+	 * 异步GET提交
+	 *
+	 * @param strUrl         请求URL
+	 * @param paraMap        请求Map字符串
+	 * @param socketTimeOut  响应超时时间(单位毫秒)
+	 * @param conTimeOut     请求超时时间(单位毫秒)
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> getMapAsync(String strUrl, Map<Object, Object> paraMap, int socketTimeOut, int conTimeOut) {
+
+		return getMapAsync(strUrl, paraMap, timeoutConfig(socketTimeOut, conTimeOut), RATE_WAIT_CONFIG, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * 异步GET提交MAP参数，超过速率限制时按本次指定的等待时间排队或直接拒绝(STS_RATE_LIMITED)
 	 *
 	 * @param strUrl        请求URL
-	 * @param paraMap       请求Map
-	 * @param socetTimeOut  响应超时时间
-	 * @param conTimeOut    请求超时时间
+	 * @param paraMap       请求MAP对象
+	 * @param socketTimeOut 响应超时时间(单位毫秒)
+	 * @param conTimeOut    请求超时时间(单位毫秒)
+	 * @param rateWait      超过速率时最长等待时间(单位毫秒)，0 时直接拒绝，小于0时按客户端配置
 	 * @return
 	 */
-	public HttpResRtn postMap(String strUrl, Map<Object, Object> paraMap,int socetTimeOut,int conTimeOut) {
-	
-		//设置请求和传输超时时间
-		RequestConfig reqConfig = RequestConfig.custom()
-											   .setSocketTimeout(socetTimeOut)
-											   .setConnectTimeout(conTimeOut)
-											   .build();
-		
-		return postMap(strUrl,paraMap,reqConfig);
+	public CompletableFuture<HttpResRtn> getMapAsync(String strUrl, Map<Object, Object> paraMap, int socketTimeOut, int conTimeOut, int rateWait) {
+
+		return getMapAsync(strUrl, paraMap, timeoutConfig(socketTimeOut, conTimeOut), rateWait, HttpDeadline.after(deadlineTime));
+	}
+
+	/**
+	 * 异步GET提交MAP参数，整个调用(排队、获取连接、发送及读取响应)不超过截止时间，到期中止并返回 STS_TIMEOUT_SOCK
+	 *
+	 * @param strUrl         请求URL
+	 * @param paraMap        请求MAP对象
+	 * @param deadlineMillis 总耗时上限(单位毫秒，long 类型，区别于 int 类型的响应超时时间)，小于等于0时不限制
+	 * @return
+	 */
+	public CompletableFuture<HttpResRtn> getMapAsync(String strUrl, Map<Object, Object> paraMap, long deadlineMillis) {
+
+		return getMapAsync(strUrl, paraMap, null, RATE_WAIT_CONFIG, HttpDeadline.after(deadlineMillis));
+	}
+
+
+	/**
+	 * 持久化投递：请求追加到通知日志后立即返回，由后台按至少一次投递发送(失败按退避重试，重启后重放)
+	 *
+	 * @param strUrl  请求URL
+	 * @param strJson 请求json字符串
+	 * @return 已受理时响应编码为202，未开启通知日志或写入失败时为 STS_OTHER
+	 */
+	public HttpResRtn postJsonDurable(String strUrl, String strJson) {
+		// 参数校验
+		Args.notNull(strJson, "json string request");
+
+		return appendJournal(HttpJournal.JSON, strUrl, strJson.getBytes(Consts.UTF_8));
+	}
+
+	/**
+	 * 持久化投递：表单请求追加到通知日志后立即返回，由后台按至少一次投递发送(失败按退避重试，重启后重放)
+	 *
+	 * @param strUrl  请求URL
+	 * @param paraMap 请求map
+	 * @return 已受理时响应编码为202，未开启通知日志或写入失败时为 STS_OTHER
+	 */
+	public HttpResRtn postMapDurable(String strUrl, Map<Object, Object> paraMap) {
+		// 参数校验
+		Args.notNull(paraMap, "json string request");
+
+		return appendJournal(HttpJournal.FORM, strUrl, HttpFormEncoder.encodeBytes(paraMap));
 	}
-	
-	
+
 	/**
-	 * get请求 参数为json串
+	 * 追加到通知日志
 	 *
-	 * @param strUrl    请求URL
-	 * @param strJson   请求json字符串
-	 * @param reqConfig 请求连接配置参数
+	 * @param kind   请求体类型
+	 * @param strUrl 请求URL
+	 * @param body   请求体
 	 * @return
 	 */
-	private HttpResRtn getJson(String strUrl, String strJson,RequestConfig reqConfig) {
+	private HttpResRtn appendJournal(byte kind, String strUrl, byte[] body) {
 		// 参数校验
 		Args.notNull(strUrl, "url request");
-		Args.notNull(strJson, "json string request");
-		
-		//响应信息对象
+
 		HttpResRtn resRtn = new HttpResRtn();
-		//get
-		HttpGet getMethod = null;
-		//
-		HttpResponse response = null;
-		
 		try {
-			//实体
-			StringEntity entity = new StringEntity(strJson.toString(),"utf-8");
-			//get
-			String strPara = EntityUtils.toString(entity);
-			getMethod = new HttpGet(urlAppend(strUrl,strPara));
-			if (reqConfig!= null) {
-				getMethod.setConfig(reqConfig);
+			if (journal == null) {
+				throw new IllegalStateException("http_client_journal_dir not configured");
 			}
-			
-			//请求服务
-			long startTime = System.currentTimeMillis();
-			response = getConnection().execute(getMethod);
-			long endTime = System.currentTimeMillis();
-			//
-			logger.info("调用API 花费时间(单位：毫秒)：" + (endTime - startTime));
-			//响应
-			StatusLine stsLine = response.getStatusLine();
-			//状态码
-			int stsCode = stsLine.getStatusCode();
-			logger.info("statusCode:" + stsCode);
-			
-			//封装返回信息
-			resRtn.setStsCode(stsCode);
-			resRtn.setRsnPhrase(stsLine.getReasonPhrase());
-			
-			//Read the response body
-			if (stsCode == HttpStatus.SC_OK) {
-				String strValue = EntityUtils.toString(response.getEntity(),"utf-8"); 
-				resRtn.setValue(strValue);
-				logger.info("http response body is:" + strValue);
-			}  
-			
-			response.getEntity().getContent().close();
-		} catch (ConnectTimeoutException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_CONN);
-			resRtn.setRsnPhrase(e.getMessage());
-		} catch (SocketTimeoutException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_SOCK);
-			resRtn.setRsnPhrase(e.getMessage());
-		} catch (HttpHostConnectException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_CONN);
-			resRtn.setRsnPhrase(e.getMessage());
+			//URL 格式错误的请求重试无意义，追加前校验
+			Args.check(hostOf(toUri(strUrl)) != null, "url must be absolute: " + strUrl);
+			journal.append(kind, strUrl, body);
+			resRtn.setStsCode(HttpStatus.SC_ACCEPTED);
+			resRtn.setRsnPhrase("Accepted");
 		} catch (Exception e) {
-			
-			resRtn.setStsCode(STS_OTHER);
-			resRtn.setRsnPhrase(e.getMessage());
-		} finally {
-			//释放资源
-			if (response!= null) {
-				try {
-					EntityUtils.consume(response.getEntity());
-				} catch (IOException e) {
-					logger.error(e.getMessage(),e);
-				}
-			}
+
+			setErrRtn(resRtn, e);
 		}
-		
 		return resRtn;
-		
 	}
-	
 
 	/**
-	 * get提交
-	 * 
-	 * @param strUrl 请求URL
-	 * @param strJson 请求json字符串
+	 * 异步上传文件，文件内容不经过堆内存
+	 *
+	 * @param strUrl      请求URL
+	 * @param file        上传文件
+	 * @param contentType 文件类型，为空时为 application/octet-stream
+	 * @param chunked     true:分块传输，false:按文件长度传输
 	 * @return
 	 */
-	public HttpResRtn getJson(String strUrl, String strJson) {
-		
-		return getJson(strUrl, strJson, null);
+	public CompletableFuture<HttpResRtn> postFileAsync(String strUrl, Path file, ContentType contentType, boolean chunked) {
+		// 参数校验
+		Args.notNull(strUrl, "url request");
+		Args.notNull(file, "file request");
+
+		try {
+			//post
+			HttpPost postMethod = new HttpPost(toUri(strUrl));
+			FileRequestProducer producer = new FileRequestProducer(postMethod, file,
+					contentType != null ? contentType : ContentType.APPLICATION_OCTET_STREAM, chunked);
+
+			return executeAsync(postMethod, producer, "utf-8", file, HttpDeadline.after(deadlineTime), RATE_WAIT_CONFIG);
+		} catch (Exception e) {
+
+			HttpResRtn resRtn = new HttpResRtn();
+			setErrRtn(resRtn, e);
+			return CompletableFuture.completedFuture(resRtn);
+		}
 	}
-	
+
 	/**
-	 * get请求 参数为json串
+	 * 异步上传文件，按文件长度传输
 	 *
-	 * @param strUrl        请求URL
-	 * @param strJson       请求json字符串
-	 * @param socetTimeOut  响应超时时间
-	 * @param conTimeOut    请求超时时间
+	 * @param strUrl      请求URL
+	 * @param file        上传文件
+	 * @param contentType 文件类型
 	 * @return
 	 */
-	public HttpResRtn getJson(String strUrl, String strJson,int socetTimeOut,int conTimeOut) {
-	
-		//设置请求和传输超时时间
-		RequestConfig reqConfig = RequestConfig.custom()
-											   .setSocketTimeout(socetTimeOut)
-											   .setConnectTimeout(conTimeOut)
-											   .build();
-		
-		return getJson(strUrl,strJson,reqConfig);
+	public CompletableFuture<HttpResRtn> postFileAsync(String strUrl, Path file, ContentType contentType) {
+
+		return postFileAsync(strUrl, file, contentType, false);
 	}
-	
+
 	/**
-	 * get请求 参数为json串
+	 * 上传文件，文件内容不经过堆内存
 	 *
-	 * @param strUrl       请求URL
-	 * @param strJson      请求参数Json串
-	 * @param socetTimeOut 响应超时时间
+	 * @param strUrl      请求URL
+	 * @param file        上传文件
+	 * @param contentType 文件类型，为空时为 application/octet-stream
+	 * @param chunked     true:分块传输，false:按文件长度传输
 	 * @return
 	 */
-	public HttpResRtn getJson(String strUrl, String strJson,int socetTimeOut) {
-		
-		//设置请求和传输超时时间
-		RequestConfig reqConfig = RequestConfig.custom()
-											   .setSocketTimeout(socetTimeOut)
-											   .setConnectTimeout(CON_TIME_OUT)
-											   .build();
-		
-		return getJson(strUrl,strJson,reqConfig);
+	public HttpResRtn postFile(String strUrl, Path file, ContentType contentType, boolean chunked) {
+
+		CompletableFuture<HttpResRtn> future = postFileAsync(strUrl, file, contentType, chunked);
+		try {
+			return future.get();
+		} catch (Exception e) {
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			future.cancel(true);
+			HttpResRtn resRtn = new HttpResRtn();
+			setErrRtn(resRtn, e);
+			return resRtn;
+		}
 	}
-	
-	
+
 	/**
-	 * GET提交MAP参数
-	 * 
-	 * @param strUrl 请求URL
-	 * @param paraMap 请求MAP对象
-	 * @param reqConfig 请求连接配置参数
+	 * 上传文件，按文件长度传输
+	 *
+	 * @param strUrl      请求URL
+	 * @param file        上传文件
+	 * @param contentType 文件类型
 	 * @return
 	 */
-	private HttpResRtn getMap(String strUrl,Map<Object, Object> paraMap, RequestConfig reqConfig) {
-		
+	public HttpResRtn postFile(String strUrl, Path file, ContentType contentType) {
+
+		return postFile(strUrl, file, contentType, false);
+	}
+
+	/**
+	 * 批量提交，按路由限制并发数，响应顺序与请求顺序一致
+	 *
+	 * 请求按路由排队，各路由先发送 maxConcurrency 笔，每完成一笔发送本路由下一笔(响应回调中发送，不阻塞调用线程)，
+	 * 慢路由排队不影响其他路由
+	 *
+	 * @param requests       请求列表
+	 * @param maxConcurrency 每路由最大并发数
+	 * @param isPost         true:POST json串，false:GET Map参数
+	 * @return
+	 */
+	private BatchRtn executeBatch(List<Request> requests, int maxConcurrency, boolean isPost) {
 		// 参数校验
-		Args.notNull(strUrl, "url request");
-//		Args.notNull(paraMap, "json string request");
-		
-		//响应信息对象
-		HttpResRtn resRtn = new HttpResRtn();
-		//get
-		HttpGet getMethod = null;
-		//
-		HttpResponse response = null;
-		
-		try {
-			/**  设置请求参数 */
-			//实体
-			UrlEncodedFormEntity urlEntity = mapToEntity(paraMap,Consts.UTF_8);
-			
-			String strPara = EntityUtils.toString(urlEntity);
-			//get
-			getMethod = new HttpGet(urlAppend(strUrl,strPara));
-			if (reqConfig!= null) {
-				getMethod.setConfig(reqConfig);
+		Args.notNull(requests, "batch request");
+		Args.positive(maxConcurrency, "max concurrency");
+
+		final int size = requests.size();
+		BatchRun run = new BatchRun(requests, isPost);
+		//每路由待发送队列(按首次出现顺序)
+		Map<String, Queue<Integer>> routeQueues = new LinkedHashMap<String, Queue<Integer>>();
+		long startTime = System.currentTimeMillis();
+
+		for (int idx = 0; idx < size; idx++) {
+			Request request = requests.get(idx);
+			try {
+				Args.notNull(request, "batch request");
+				String route = hostOf(toUri(request.getUrl())).toHostString();
+				Queue<Integer> queue = routeQueues.get(route);
+				if (queue == null) {
+					queue = new ConcurrentLinkedQueue<Integer>();
+					routeQueues.put(route, queue);
+				}
+				queue.add(idx);
+			} catch (Exception e) {
+				HttpResRtn resRtn = new HttpResRtn();
+				setErrRtn(resRtn, e);
+				run.complete(idx, resRtn, 0);
 			}
-			//响应
-			response = getConnection().execute(getMethod);
-			//响应
-			StatusLine stsLine = response.getStatusLine();
-			//状态码
-			int stsCode = stsLine.getStatusCode();
-			logger.info("statusCode:" + stsCode);
-			
-			//封装返回信息
-			resRtn.setStsCode(stsCode);
-			resRtn.setRsnPhrase(stsLine.getReasonPhrase());
-			
-			int statusCode = response.getStatusLine().getStatusCode();
-			logger.info("statusCode:" + statusCode);
-			
-			//Read the response body
-			if (stsCode == HttpStatus.SC_OK) {
-				String strValue = EntityUtils.toString(response.getEntity());
-				resRtn.setValue(strValue);
-				logger.info("http response body is:" + strValue);
+		}
+		for (Queue<Integer> queue : routeQueues.values()) {
+			for (int i = 0; i < maxConcurrency && !queue.isEmpty(); i++) {
+				run.next(queue);
 			}
-		} catch (ConnectTimeoutException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_CONN);
-			resRtn.setRsnPhrase(e.getMessage());
-		} catch (SocketTimeoutException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_SOCK);
-			resRtn.setRsnPhrase(e.getMessage());
-		} catch (HttpHostConnectException e) {
-			
-			resRtn.setStsCode(STS_TIMEOUT_CONN);
-			resRtn.setRsnPhrase(e.getMessage());
-		} catch (Exception e) {
-			
-			resRtn.setStsCode(STS_OTHER);
-			resRtn.setRsnPhrase(e.getMessage());
-		} finally {
-			//释放资源
-			if (response!= null) {
-				try {
-					EntityUtils.consume(response.getEntity());
-				} catch (IOException e) {
-					logger.error(e.getMessage(),e);
-				}
+		}
+
+		try {
+			run.latch.await();
+		} catch (InterruptedException e) {
+			//中断：停止发送排队中的请求并取消执行中的请求，未完成的请求按其他错误返回
+			Thread.currentThread().interrupt();
+			run.abort();
+			logger.error("http 批量请求中止，已完成" + (size - run.latch.getCount()) + "/" + size + "：" + e.getMessage(), e);
+			for (int i = 0; i < size; i++) {
+				HttpResRtn resRtn = new HttpResRtn();
+				resRtn.setStsCode(STS_OTHER);
+				resRtn.setRsnPhrase("batch aborted");
+				run.results.compareAndSet(i, null, resRtn);
 			}
 		}
-		
-		return resRtn;
+
+		List<HttpResRtn> resRtns = new ArrayList<HttpResRtn>(size);
+		for (int i = 0; i < size; i++) {
+			resRtns.add(run.results.get(i));
+		}
+		BatchRtn batchRtn = new BatchRtn(resRtns, run.latencies, System.currentTimeMillis() - startTime);
+		logger.info("http 批量请求完成，" + batchRtn);
+
+		return batchRtn;
 	}
-	
-	
+
 	/**
-	 * get提交
-	 * 
-	 * @param strUrl 请求URL
-	 * @param paraMap 请求map
-	 * @return
+	 * 一次批量请求的执行状态：各路由队列依次发送，结果按请求序号记录
 	 */
-	public HttpResRtn getMap(String strUrl,Map<Object, Object> paraMap) throws Exception {
-		
-		return getMap(strUrl,paraMap,null);
+	private class BatchRun {
+		/** 请求列表 */
+		private final List<Request> requests;
+		/** true:POST json串，false:GET Map参数 */
+		private final boolean isPost;
+		/** 响应信息(按请求序号) */
+		private final AtomicReferenceArray<HttpResRtn> results;
+		/** 耗时(单位毫秒，按请求序号) */
+		private final long[] latencies;
+		/** 执行中的请求(按请求序号) */
+		private final AtomicReferenceArray<CompletableFuture<HttpResRtn>> futures;
+		/** 未完成的请求数 */
+		private final CountDownLatch latch;
+		/** 调用方中断后不再发送排队中的请求 */
+		private volatile boolean aborted;
+
+		BatchRun(List<Request> requests, boolean isPost) {
+			this.requests = requests;
+			this.isPost = isPost;
+			this.results = new AtomicReferenceArray<HttpResRtn>(requests.size());
+			this.latencies = new long[requests.size()];
+			this.futures = new AtomicReferenceArray<CompletableFuture<HttpResRtn>>(requests.size());
+			this.latch = new CountDownLatch(requests.size());
+		}
+
+		/**
+		 * 发送路由队列中的下一笔请求，完成后继续发送；请求立即完成(如被拒绝)时循环发送，不递归
+		 *
+		 * @param queue 路由待发送队列
+		 */
+		void next(final Queue<Integer> queue) {
+
+			Integer idx;
+			while (!aborted && (idx = queue.poll()) != null) {
+				final int i = idx;
+				final long reqTime = System.currentTimeMillis();
+				CompletableFuture<HttpResRtn> future;
+				try {
+					Request request = requests.get(i);
+					future = isPost ? postJsonAsync(request.getUrl(), request.getStrJson())
+							: getMapAsync(request.getUrl(), request.getParaMap());
+				} catch (Exception e) {
+					HttpResRtn resRtn = new HttpResRtn();
+					setErrRtn(resRtn, e);
+					complete(i, resRtn, 0);
+					continue;
+				}
+				futures.set(i, future);
+				if (aborted) {
+					//发送期间被中止
+					future.cancel(true);
+				}
+				if (future.isDone() && !future.isCompletedExceptionally()) {
+					complete(i, future.getNow(null), System.currentTimeMillis() - reqTime);
+					continue;
+				}
+				future.whenComplete(new BiConsumer<HttpResRtn, Throwable>() {
+
+					@Override
+					public void accept(HttpResRtn resRtn, Throwable e) {
+						if (resRtn == null) {
+							resRtn = new HttpResRtn();
+							resRtn.setStsCode(STS_OTHER);
+							resRtn.setRsnPhrase(e == null ? null : e.getMessage());
+						}
+						complete(i, resRtn, System.currentTimeMillis() - reqTime);
+						next(queue);
+					}
+				});
+				return;
+			}
+		}
+
+		/**
+		 * 中止：不再发送排队中的请求，取消执行中的请求
+		 */
+		void abort() {
+
+			aborted = true;
+			for (int i = 0; i < futures.length(); i++) {
+				CompletableFuture<HttpResRtn> future = futures.get(i);
+				if (future != null && !future.isDone()) {
+					future.cancel(true);
+				}
+			}
+		}
+
+		/**
+		 * 记录单笔结果
+		 *
+		 * @param i       请求序号
+		 * @param resRtn  响应信息
+		 * @param latency 耗时(单位毫秒)
+		 */
+		void complete(int i, HttpResRtn resRtn, long latency) {
+
+			latencies[i] = latency;
+			results.compareAndSet(i, null, resRtn);
+			latch.countDown();
+		}
 	}
-	
+
 	/**
-	 * GET提交 参数为Map对象
-	 * 
-	 * @param strUrl        请求URL
-	 * @param paraMap       请求Map字符串
-	 * @param socketTimeOut 响应超时时间(单位毫秒)
-	 * @return
-	 * @throws Exception 
+	 * 批量POST提交 参数为json串
+	 *
+	 * @param requests       请求列表(URL及json字符串)
+	 * @param maxConcurrency 每路由最大并发数
+	 * @return 响应信息与请求顺序一致，单笔失败以响应编码返回
 	 */
-	public HttpResRtn getMap(String strUrl,Map<Object, Object> paraMap,int socketTimeOut) {
-		
-		//设置请求和传输超时时间
-		RequestConfig reqConfig = RequestConfig.custom()
-											   .setSocketTimeout(socketTimeOut)
-											   .setConnectTimeout(CON_TIME_OUT)
-											   .build();
+	public BatchRtn postJsonBatch(List<Request> requests, int maxConcurrency) {
 
-		return getMap(strUrl,paraMap,reqConfig);
+		return executeBatch(requests, maxConcurrency, true);
 	}
-	
+
 	/**
-	 * GET提交
-	 * 
-	 * @param strUrl         请求URL
-	 * @param paraMap        请求Map字符串
-	 * @param socketTimeOut  响应超时时间(单位毫秒)
-	 * @param conTimeOut     请求超时时间(单位毫秒)
-	 * @return
+	 * 批量GET提交 参数为Map对象
+	 *
+	 * @param requests       请求列表(URL及Map参数)
+	 * @param maxConcurrency 每路由最大并发数
+	 * @return 响应信息与请求顺序一致，单笔失败以响应编码返回
 	 */
-	public HttpResRtn getMap(String strUrl,Map<Object, Object> paraMap,int socketTimeOut,int conTimeOut) {
-		
-		//设置请求和传输超时时间
-		RequestConfig reqConfig = RequestConfig.custom()
-											   .setSocketTimeout(socketTimeOut)
-											   .setConnectTimeout(conTimeOut)
-											   .build();
+	public BatchRtn getMapBatch(List<Request> requests, int maxConcurrency) {
 
-		return getMap(strUrl,paraMap,reqConfig);
+		return executeBatch(requests, maxConcurrency, false);
 	}
 
+
 	public static void main(String[] args) {
 		final HttpResRtn httpResRtn = HttpClientUtil.getInstance().postJson("https://test-cgams.9fbank.com/ams/notify/intf/server.intf", "{\"head\":{\"sysCode\":\"1005\",\"transTime\":\"090953\",\"transType\":\"T\",\"transDate\":\"20180115\",\"transCode\":\"IP03\",\"transSerialNo\":\"100518011503400491515432\"},\"body\":{\"fileName\":\"1000_200_20180115144100_1.txt\",\"sts\":\"S\",\"resCode\":\"0000\",\"remark\":\"\",\"resMsg\":\"等待业务回盘\"}}");
 		System.out.println(httpResRtn.getStsCode()+"==="+httpResRtn.getValue());
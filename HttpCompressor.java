@@ -0,0 +1,377 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.HttpContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * http报文压缩工具类
+ *
+ * Deflater/Inflater 持有 zlib 本地内存，创建和释放代价较高，此处池化复用
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpCompressor {
+
+	/** 池大小 */
+	private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+	/** 压缩器池(gzip 格式，无 zlib 头) */
+	private static final BlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<Deflater>(POOL_SIZE);
+	/** 解压器池(gzip) */
+	private static final BlockingQueue<Inflater> GZIP_INFLATERS = new ArrayBlockingQueue<Inflater>(POOL_SIZE);
+	/** 解压器池(deflate，zlib 格式) */
+	private static final BlockingQueue<Inflater> ZLIB_INFLATERS = new ArrayBlockingQueue<Inflater>(POOL_SIZE);
+	/** 压缩缓冲区 */
+	private static final ThreadLocal<byte[]> BUFFER = new ThreadLocal<byte[]>() {
+
+		@Override
+		protected byte[] initialValue() {
+			return new byte[8192];
+		}
+	};
+	/** gzip 头：魔数、deflate、无标志、无时间、OS未知 */
+	private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+	/** 请求拦截：声明可接收压缩响应 */
+	static final HttpRequestInterceptor ACCEPT_ENCODING = new HttpRequestInterceptor() {
+
+		@Override
+		public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
+			if (!request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+				request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip,deflate");
+			}
+		}
+	};
+
+	/** 响应拦截：压缩响应替换为流式解压实体 */
+	static final HttpResponseInterceptor RESPONSE_DECODING = new HttpResponseInterceptor() {
+
+		@Override
+		public void process(HttpResponse response, HttpContext context) throws HttpException, IOException {
+			HttpEntity entity = response.getEntity();
+			if (entity == null || entity.getContentLength() == 0) {
+				return;
+			}
+			Header encoding = entity.getContentEncoding();
+			if (encoding == null) {
+				return;
+			}
+			for (HeaderElement element : encoding.getElements()) {
+				String codec = element.getName().toLowerCase(Locale.ROOT);
+				if ("gzip".equals(codec) || "x-gzip".equals(codec) || "deflate".equals(codec)) {
+					response.setEntity(new DecompressingEntity(entity, !"deflate".equals(codec)));
+					response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+					response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+					response.removeHeaders(HttpHeaders.CONTENT_MD5);
+					return;
+				}
+			}
+		}
+	};
+
+	/**
+	 * 私有化构造方法
+	 */
+	private HttpCompressor() {
+
+	}
+
+	/**
+	 * gzip 压缩请求体
+	 *
+	 * @param data        请求体
+	 * @param contentType 请求体类型
+	 * @return Content-Encoding 为 gzip 的实体
+	 */
+	static HttpEntity gzipEntity(byte[] data, ContentType contentType) {
+
+		ByteArrayEntity entity = new ByteArrayEntity(gzip(data), contentType);
+		entity.setContentEncoding("gzip");
+		return entity;
+	}
+
+	/**
+	 * gzip 压缩
+	 *
+	 * @param data 原文
+	 * @return
+	 */
+	static byte[] gzip(byte[] data) {
+
+		Deflater deflater = DEFLATERS.poll();
+		if (deflater == null) {
+			deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		}
+		try {
+			CRC32 crc = new CRC32();
+			crc.update(data, 0, data.length);
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+			out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+			deflater.setInput(data);
+			deflater.finish();
+			byte[] buf = BUFFER.get();
+			while (!deflater.finished()) {
+				int len = deflater.deflate(buf);
+				out.write(buf, 0, len);
+			}
+			writeInt(out, crc.getValue());
+			writeInt(out, data.length);
+			return out.toByteArray();
+		} finally {
+			deflater.reset();
+			if (!DEFLATERS.offer(deflater)) {
+				deflater.end();
+			}
+		}
+	}
+
+	/**
+	 * 写入4字节(小端)
+	 */
+	private static void writeInt(OutputStream out, long val) {
+
+		try {
+			out.write((int) (val & 0xff));
+			out.write((int) ((val >> 8) & 0xff));
+			out.write((int) ((val >> 16) & 0xff));
+			out.write((int) ((val >> 24) & 0xff));
+		} catch (IOException e) {
+			//ByteArrayOutputStream 不会抛出
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 获取解压器
+	 */
+	private static Inflater borrow(BlockingQueue<Inflater> pool, boolean nowrap) {
+
+		Inflater inflater = pool.poll();
+		return inflater != null ? inflater : new Inflater(nowrap);
+	}
+
+	/**
+	 * 归还解压器
+	 */
+	private static void release(BlockingQueue<Inflater> pool, Inflater inflater) {
+
+		inflater.reset();
+		if (!pool.offer(inflater)) {
+			inflater.end();
+		}
+	}
+
+
+	/**
+	 * 流式解压实体，读取时才解压
+	 */
+	private static class DecompressingEntity extends HttpEntityWrapper {
+		/** true:gzip，false:deflate */
+		private final boolean gzip;
+		/** 解压流 */
+		private InputStream content;
+
+		DecompressingEntity(HttpEntity entity, boolean gzip) {
+			super(entity);
+			this.gzip = gzip;
+		}
+
+		@Override
+		public InputStream getContent() throws IOException {
+			if (content == null) {
+				content = gzip ? new GzipInputStream(wrappedEntity.getContent())
+						: new PooledInflaterInputStream(wrappedEntity.getContent(), ZLIB_INFLATERS, false);
+			}
+			return content;
+		}
+
+		@Override
+		public Header getContentEncoding() {
+			return null;
+		}
+
+		@Override
+		public long getContentLength() {
+			return -1;
+		}
+
+		@Override
+		public boolean isStreaming() {
+			return true;
+		}
+
+		@Override
+		public void writeTo(OutputStream outstream) throws IOException {
+			InputStream in = getContent();
+			try {
+				byte[] buf = new byte[4096];
+				int len;
+				while ((len = in.read(buf)) != -1) {
+					outstream.write(buf, 0, len);
+				}
+			} finally {
+				in.close();
+			}
+		}
+	}
+
+
+	/**
+	 * 使用池化解压器的解压流，关闭时归还解压器
+	 */
+	private static class PooledInflaterInputStream extends InflaterInputStream {
+		/** 解压器池 */
+		private final BlockingQueue<Inflater> pool;
+		/** 是否已关闭 */
+		private boolean released;
+
+		PooledInflaterInputStream(InputStream in, BlockingQueue<Inflater> pool, boolean nowrap) {
+			super(in, borrow(pool, nowrap), 8192);
+			this.pool = pool;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (released) {
+				return;
+			}
+			released = true;
+			try {
+				super.close();
+			} finally {
+				release(pool, inf);
+			}
+		}
+	}
+
+
+	/**
+	 * gzip 解压流，校验头部及 CRC 尾部
+	 */
+	private static class GzipInputStream extends PooledInflaterInputStream {
+		/** 原文校验 */
+		private final CRC32 crc = new CRC32();
+		/** 是否读取结束 */
+		private boolean eos;
+
+		GzipInputStream(InputStream in) throws IOException {
+			super(in, GZIP_INFLATERS, true);
+			try {
+				readHeader(in);
+			} catch (IOException e) {
+				close();
+				throw e;
+			}
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (eos) {
+				return -1;
+			}
+			int n = super.read(b, off, len);
+			if (n == -1) {
+				readTrailer();
+				eos = true;
+			} else {
+				crc.update(b, off, n);
+			}
+			return n;
+		}
+
+		/**
+		 * 读取 gzip 头
+		 */
+		private void readHeader(InputStream in) throws IOException {
+
+			if (readUByte(in) != 0x1f || readUByte(in) != 0x8b) {
+				throw new ZipException("Not in GZIP format");
+			}
+			if (readUByte(in) != Deflater.DEFLATED) {
+				throw new ZipException("Unsupported compression method");
+			}
+			int flg = readUByte(in);
+			//MTIME、XFL、OS
+			skipBytes(in, 6);
+			//FEXTRA
+			if ((flg & 4) != 0) {
+				skipBytes(in, readUByte(in) | (readUByte(in) << 8));
+			}
+			//FNAME
+			if ((flg & 8) != 0) {
+				while (readUByte(in) != 0) {
+				}
+			}
+			//FCOMMENT
+			if ((flg & 16) != 0) {
+				while (readUByte(in) != 0) {
+				}
+			}
+			//FHCRC
+			if ((flg & 2) != 0) {
+				skipBytes(in, 2);
+			}
+		}
+
+		/**
+		 * 读取并校验 gzip 尾(CRC32、原文长度)
+		 */
+		private void readTrailer() throws IOException {
+
+			int rem = inf.getRemaining();
+			InputStream tin = rem > 0 ? new SequenceInputStream(new ByteArrayInputStream(buf, len - rem, rem), in) : in;
+			long crcVal = readUInt(tin);
+			long isize = readUInt(tin);
+			if (crcVal != crc.getValue() || isize != (inf.getBytesWritten() & 0xffffffffL)) {
+				throw new ZipException("Corrupt GZIP trailer");
+			}
+		}
+
+		private static long readUInt(InputStream in) throws IOException {
+			long low = readUByte(in) | (readUByte(in) << 8);
+			long high = readUByte(in) | (readUByte(in) << 8);
+			return (high << 16) | low;
+		}
+
+		private static int readUByte(InputStream in) throws IOException {
+			int b = in.read();
+			if (b == -1) {
+				throw new EOFException("Unexpected end of GZIP input stream");
+			}
+			return b;
+		}
+
+		private static void skipBytes(InputStream in, int n) throws IOException {
+			for (int i = 0; i < n; i++) {
+				readUByte(in);
+			}
+		}
+	}
+}
@@ -0,0 +1,249 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.HttpHost;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 单个路由的自适应并发限制
+ *
+ * 按 AIMD 调整并发上限：请求超时、429/503 或响应时间超过长期均值的 rttTolerance 倍时视为拥塞，
+ * 上限乘以 backoff(每个响应时间周期最多一次)；其余成功请求在并发接近上限时每次加 1/limit，
+ * 即每个周期约加1。超过上限的请求等待或直接拒绝，不进入连接池
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpConcurrencyLimiter {
+
+	/** 路由 */
+	private final HttpHost host;
+	/** 限流参数 */
+	private final Config config;
+
+	/** 当前上限(double 位存储) */
+	private final AtomicLong limitBits;
+	/** 处理中请求数 */
+	private final AtomicInteger inFlight = new AtomicInteger();
+	/** 拒绝笔数 */
+	private final AtomicLong rejected = new AtomicLong();
+	/** 长期平均响应时间(单位纳秒，指数加权) */
+	private volatile long rttAvg;
+	/** 上次减小上限时间(单位纳秒) */
+	private volatile long lastDecrease;
+
+	/** 等待中的线程数 */
+	private final AtomicInteger waiters = new AtomicInteger();
+	/** 等待锁(仅上限已满时使用) */
+	private final ReentrantLock lock = new ReentrantLock();
+	/** 释放通知 */
+	private final Condition released = lock.newCondition();
+
+	/**
+	 * 构造方法
+	 *
+	 * @param host   路由
+	 * @param config 限流参数
+	 */
+	HttpConcurrencyLimiter(HttpHost host, Config config) {
+
+		this.host = host;
+		this.config = config;
+		this.limitBits = new AtomicLong(Double.doubleToLongBits(config.initialLimit));
+	}
+
+	/**
+	 * 获取并发名额
+	 *
+	 * @param waitMillis 上限已满时最长等待时间(单位毫秒)，小于等于0时直接拒绝
+	 * @throws LimitException 超过并发上限
+	 * @throws InterruptedException
+	 */
+	void acquire(long waitMillis) throws LimitException, InterruptedException {
+
+		if (tryAcquire()) {
+			return;
+		}
+		if (waitMillis > 0) {
+			long nanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+			waiters.incrementAndGet();
+			boolean acquired;
+			lock.lock();
+			try {
+				while (!(acquired = tryAcquire()) && nanos > 0) {
+					nanos = released.awaitNanos(nanos);
+				}
+			} finally {
+				lock.unlock();
+				waiters.decrementAndGet();
+			}
+			if (acquired) {
+				return;
+			}
+		}
+		rejected.incrementAndGet();
+		throw new LimitException(host, getLimit());
+	}
+
+	/**
+	 * 尝试获取并发名额
+	 */
+	private boolean tryAcquire() {
+
+		int limit = getLimit();
+		int cur;
+		do {
+			cur = inFlight.get();
+			if (cur >= limit) {
+				return false;
+			}
+		} while (!inFlight.compareAndSet(cur, cur + 1));
+		return true;
+	}
+
+	/**
+	 * 释放名额并按请求结果调整上限
+	 *
+	 * @param dropped 是否拥塞(超时、429/503)
+	 * @param nanos   耗时(单位纳秒)
+	 */
+	void release(boolean dropped, long nanos) {
+
+		int cur = inFlight.get();
+		long avg = rttAvg;
+		boolean congested = dropped || (avg > 0 && nanos > avg * config.rttTolerance);
+		//长期均值：权重 1/64，超时样本不计入
+		if (!dropped) {
+			rttAvg = avg == 0 ? nanos : avg + (nanos - avg) / 64;
+		}
+
+		if (congested) {
+			long now = System.nanoTime();
+			if (now - lastDecrease > Math.max(avg, nanos)) {
+				lastDecrease = now;
+				update(config.backoff, 0);
+			}
+		} else if (cur * 2 >= getLimit()) {
+			//并发接近上限时才增加，避免空闲时上限无限增长
+			update(1, 1 / getLimitValue());
+		}
+		release();
+	}
+
+	/**
+	 * 释放名额，不调整上限(请求未发出)
+	 */
+	void release() {
+
+		inFlight.decrementAndGet();
+		if (waiters.get() > 0) {
+			lock.lock();
+			try {
+				released.signal();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * 调整上限：limit * ratio + delta，限制在[minLimit, maxLimit]
+	 */
+	private void update(double ratio, double delta) {
+
+		long bits;
+		double next;
+		do {
+			bits = limitBits.get();
+			double cur = Double.longBitsToDouble(bits);
+			next = Math.min(Math.max(cur * ratio + delta, config.minLimit), config.maxLimit);
+			if (next == cur) {
+				return;
+			}
+		} while (!limitBits.compareAndSet(bits, Double.doubleToLongBits(next)));
+	}
+
+	private double getLimitValue() {
+
+		return Double.longBitsToDouble(limitBits.get());
+	}
+
+	/**
+	 * 当前并发上限
+	 */
+	int getLimit() {
+
+		return (int) getLimitValue();
+	}
+
+	/**
+	 * 处理中请求数
+	 */
+	int getInFlight() {
+
+		return inFlight.get();
+	}
+
+	/**
+	 * 拒绝笔数
+	 */
+	long getRejected() {
+
+		return rejected.get();
+	}
+
+
+	/**
+	 * 限流参数
+	 */
+	static class Config {
+		/** 初始上限，小于等于0时不开启 */
+		final int initialLimit;
+		/** 最小上限 */
+		final int minLimit;
+		/** 最大上限 */
+		final int maxLimit;
+		/** 拥塞时上限系数 */
+		final double backoff;
+		/** 响应时间超过长期均值的倍数时视为拥塞 */
+		final int rttTolerance;
+		/** 同步请求超过上限时最长等待时间(单位毫秒) */
+		final long queueTimeout;
+		/** 是否开启 */
+		private final boolean enabled;
+
+		Config(int initialLimit, int minLimit, int maxLimit, int backoffPercent, int rttTolerance, long queueTimeout) {
+			this.minLimit = Math.max(minLimit, 1);
+			this.maxLimit = Math.max(maxLimit, this.minLimit);
+			this.initialLimit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+			this.backoff = Math.min(Math.max(backoffPercent, 10), 99) / 100D;
+			this.rttTolerance = Math.max(rttTolerance, 1);
+			this.queueTimeout = queueTimeout;
+			this.enabled = initialLimit > 0;
+		}
+
+		/**
+		 * 是否开启限流
+		 */
+		boolean isEnabled() {
+			return enabled;
+		}
+	}
+
+
+	/**
+	 * 超过并发上限，请求未发出
+	 */
+	static class LimitException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		LimitException(HttpHost host, int limit) {
+			super("concurrency limit exceeded: " + host + ", limit " + limit);
+		}
+	}
+}
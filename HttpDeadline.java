@@ -0,0 +1,180 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单次请求截止时间
+ *
+ * 覆盖限流等待、获取连接、建立连接及读取响应：各阶段超时取配置值与剩余时间的较小值，
+ * 到期仍未结束的请求由定时器中止(响应体持续缓慢返回时单次读取超时无法限制总耗时)
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpDeadline {
+
+	/** 请求上下文中的属性名 */
+	static final String ATTR = "http.request-deadline";
+
+	/** 中止定时器 */
+	private static volatile ScheduledExecutorService timer;
+
+	/** 截止时间(System.nanoTime) */
+	private final long deadlineNanos;
+
+	private HttpDeadline(long deadlineNanos) {
+
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	/**
+	 * 从当前开始计算截止时间
+	 *
+	 * @param millis 总耗时上限(单位毫秒)
+	 * @return 小于等于0时返回null(不限制)
+	 */
+	static HttpDeadline after(long millis) {
+
+		return millis > 0 ? new HttpDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis)) : null;
+	}
+
+	/**
+	 * 请求上下文中的截止时间
+	 *
+	 * @param context 请求上下文
+	 * @return 未设置时返回null
+	 */
+	static HttpDeadline of(HttpContext context) {
+
+		Object deadline = context == null ? null : context.getAttribute(ATTR);
+		return deadline instanceof HttpDeadline ? (HttpDeadline) deadline : null;
+	}
+
+	/**
+	 * 按上下文中的截止时间限制超时
+	 *
+	 * @param timeout 超时时间(单位毫秒)，小于等于0表示不限
+	 * @param context 请求上下文
+	 * @return
+	 */
+	static int cap(int timeout, HttpContext context) {
+
+		HttpDeadline deadline = of(context);
+		return deadline == null ? timeout : deadline.cap(timeout);
+	}
+
+	/**
+	 * 剩余时间(单位毫秒)
+	 */
+	long remainingMillis() {
+
+		return Math.max(TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()), 0);
+	}
+
+	/**
+	 * 是否已到期
+	 */
+	boolean isExpired() {
+
+		return System.nanoTime() - deadlineNanos >= 0;
+	}
+
+	/**
+	 * 超时时间取配置值与剩余时间的较小值
+	 *
+	 * @param timeout 超时时间(单位毫秒)，小于等于0表示不限
+	 * @return 至少1毫秒(0表示不限)
+	 */
+	int cap(int timeout) {
+
+		long remaining = Math.max(remainingMillis(), 1);
+		return timeout > 0 && timeout < remaining ? timeout : (int) Math.min(remaining, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * 按剩余时间限制请求配置中的各阶段超时
+	 *
+	 * @param config 请求配置
+	 * @return
+	 */
+	RequestConfig cap(RequestConfig config) {
+
+		return RequestConfig.copy(config)
+							.setConnectionRequestTimeout(cap(config.getConnectionRequestTimeout()))
+							.setConnectTimeout(cap(config.getConnectTimeout()))
+							.setSocketTimeout(cap(config.getSocketTimeout()))
+							.build();
+	}
+
+	/**
+	 * 携带截止时间的请求上下文(建立连接及发送请求时按剩余时间设置超时)
+	 */
+	HttpClientContext newContext() {
+
+		HttpClientContext context = HttpClientContext.create();
+		context.setAttribute(ATTR, this);
+		return context;
+	}
+
+	/**
+	 * 到期时中止请求
+	 *
+	 * @param method 请求
+	 * @return 请求结束后应取消
+	 */
+	ScheduledFuture<?> abortOnExpiry(final HttpRequestBase method) {
+
+		return schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				method.abort();
+			}
+		});
+	}
+
+	/**
+	 * 到期时执行
+	 *
+	 * @param task 任务
+	 * @return 请求结束后应取消
+	 */
+	ScheduledFuture<?> schedule(Runnable task) {
+
+		return timer().schedule(task, deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 中止定时器(守护线程)
+	 */
+	static ScheduledExecutorService timer() {
+
+		if (timer == null) {
+			synchronized (HttpDeadline.class) {
+				if (timer == null) {
+					ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "http-deadline-timer");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+					//请求大多在截止前结束，取消的任务及时移出队列
+					executor.setRemoveOnCancelPolicy(true);
+					timer = executor;
+				}
+			}
+		}
+		return timer;
+	}
+}
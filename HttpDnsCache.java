@@ -0,0 +1,191 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 域名解析缓存
+ *
+ * 解析结果按 TTL 缓存，使用超过 TTL 的80%后由后台线程刷新，请求线程不等待解析；
+ * 超过 TTL 仍未刷新(如长时间空闲)时请求线程等待刷新结果(最长 maxWait)。
+ * 仅在刷新失败(解析服务不可用)或等待超时时继续使用旧结果，并按 TTL 的10%间隔重试；
+ * 旧结果超过 maxStale 后不再使用，解析失败时抛出 UnknownHostException
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpDnsCache implements DnsResolver {
+
+	/** 日志 */
+	private static final Logger logger = LoggerFactory.getLogger(HttpDnsCache.class);
+
+	/** 实际解析 */
+	private final DnsResolver delegate;
+	/** 缓存时间(单位毫秒) */
+	private final long ttl;
+	/** 过期后等待刷新的最长时间(单位毫秒) */
+	private final long maxWait;
+	/** 刷新失败时旧结果的最长使用时间(自解析起，单位毫秒) */
+	private final long maxStale;
+	/** 缓存 */
+	private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<String, Entry>();
+	/** 后台刷新线程 */
+	private final Executor refresher;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param ttl      缓存时间(单位毫秒)
+	 * @param maxWait  过期后等待刷新的最长时间(单位毫秒)
+	 * @param maxStale 刷新失败时旧结果的最长使用时间(自解析起，单位毫秒)，不小于 ttl
+	 */
+	HttpDnsCache(long ttl, long maxWait, long maxStale) {
+
+		this(SystemDefaultDnsResolver.INSTANCE, ttl, maxWait, maxStale);
+	}
+
+	/**
+	 * 构造方法
+	 *
+	 * @param delegate 实际解析
+	 * @param ttl      缓存时间(单位毫秒)
+	 * @param maxWait  过期后等待刷新的最长时间(单位毫秒)
+	 * @param maxStale 刷新失败时旧结果的最长使用时间(自解析起，单位毫秒)，不小于 ttl
+	 */
+	HttpDnsCache(DnsResolver delegate, long ttl, long maxWait, long maxStale) {
+
+		this.delegate = delegate;
+		this.ttl = ttl;
+		this.maxWait = Math.max(maxWait, 0);
+		this.maxStale = Math.max(maxStale, ttl);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "http-dns-refresh");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		this.refresher = executor;
+	}
+
+	@Override
+	public InetAddress[] resolve(String host) throws UnknownHostException {
+
+		long now = System.currentTimeMillis();
+		Entry entry = cache.get(host);
+		if (entry == null) {
+			//首次解析在请求线程完成
+			entry = new Entry(delegate.resolve(host), now);
+			Entry prev = cache.putIfAbsent(host, entry);
+			return prev != null ? prev.addresses : entry.addresses;
+		}
+
+		if (now < entry.resolvedAt + ttl) {
+			//未过期，接近过期时后台刷新
+			if (now >= entry.nextRefresh) {
+				refresh(host, entry, now);
+			}
+			return entry.addresses;
+		}
+
+		//已过期：等待刷新结果，刷新失败或超时才使用旧结果
+		CompletableFuture<Entry> refreshed = refresh(host, entry, now);
+		try {
+			return refreshed.get(maxWait, TimeUnit.MILLISECONDS).addresses;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			//刷新失败
+		} catch (TimeoutException e) {
+			//解析慢，刷新在后台继续
+		}
+		if (now - entry.resolvedAt > maxStale) {
+			throw new UnknownHostException(host + "解析失败，缓存结果已超过最长使用时间" + maxStale + "毫秒");
+		}
+		return entry.addresses;
+	}
+
+	/**
+	 * 后台刷新(同一缓存项同时只刷新一次，失败后间隔期内返回失败结果)
+	 *
+	 * @param host  域名
+	 * @param entry 当前缓存
+	 * @param now   当前时间
+	 * @return 刷新结果
+	 */
+	private CompletableFuture<Entry> refresh(final String host, final Entry entry, long now) {
+
+		CompletableFuture<Entry> current = entry.refresh.get();
+		if (current != null && (!current.isCompletedExceptionally() || now < entry.nextRefresh)) {
+			//刷新中、已刷新，或失败后未到重试时间
+			return current;
+		}
+		final CompletableFuture<Entry> refreshed = new CompletableFuture<Entry>();
+		if (!entry.refresh.compareAndSet(current, refreshed)) {
+			return entry.refresh.get();
+		}
+		try {
+			refresher.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					long now = System.currentTimeMillis();
+					try {
+						InetAddress[] addresses = delegate.resolve(host);
+						Entry next = new Entry(addresses, System.currentTimeMillis());
+						cache.replace(host, entry, next);
+						refreshed.complete(next);
+					} catch (Exception e) {
+						//解析失败，继续使用旧结果，稍后重试
+						entry.nextRefresh = now + Math.max(ttl / 10, 1000);
+						logger.warn("http 域名解析刷新失败，继续使用缓存结果" + host + "(已缓存" + (now - entry.resolvedAt) + "毫秒)：" + e.getMessage());
+						refreshed.completeExceptionally(e);
+					}
+				}
+			});
+		} catch (Exception e) {
+			entry.nextRefresh = now + Math.max(ttl / 10, 1000);
+			refreshed.completeExceptionally(e);
+		}
+		return refreshed;
+	}
+
+
+	/**
+	 * 缓存项
+	 */
+	private class Entry {
+		/** 解析结果 */
+		final InetAddress[] addresses;
+		/** 解析时间 */
+		final long resolvedAt;
+		/** 下次刷新时间 */
+		volatile long nextRefresh;
+		/** 刷新结果(刷新中、已完成或最近一次失败) */
+		final AtomicReference<CompletableFuture<Entry>> refresh = new AtomicReference<CompletableFuture<Entry>>();
+
+		Entry(InetAddress[] addresses, long resolvedAt) {
+			this.addresses = addresses;
+			this.resolvedAt = resolvedAt;
+			this.nextRefresh = resolvedAt + ttl * 4 / 5;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.util.Args;
+import java.util.Map;
+
+/**
+ * 表单及查询参数编码(application/x-www-form-urlencoded，UTF-8)
+ *
+ * 编码结果与 UrlEncodedFormEntity 一致：字母、数字及 -_.* 不编码，空格编码为 +，其他按 UTF-8 字节编码为 %XX，
+ * 值为空时只输出参数名；参数直接写入线程复用的缓冲区，按预先计算的字符表判断是否编码，
+ * 不创建 NameValuePair 列表及中间实体
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+public final class HttpFormEncoder {
+
+	/** 缓冲区初始大小 */
+	private static final int INITIAL_CAPACITY = 256;
+	/** 超过该大小的缓冲区用后不再复用，避免线程长期占用大缓冲区 */
+	private static final int MAX_RETAINED = 8192;
+
+	/** 十六进制字符 */
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+	/** ASCII 字符是否无需编码 */
+	private static final boolean[] SAFE = new boolean[128];
+
+	/** 线程复用的缓冲区 */
+	private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+
+		@Override
+		protected StringBuilder initialValue() {
+			return new StringBuilder(INITIAL_CAPACITY);
+		}
+	};
+
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			SAFE[c] = true;
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			SAFE[c] = true;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			SAFE[c] = true;
+		}
+		SAFE['-'] = true;
+		SAFE['_'] = true;
+		SAFE['.'] = true;
+		SAFE['*'] = true;
+	}
+
+	private HttpFormEncoder() {
+
+	}
+
+	/**
+	 * 编码参数
+	 *
+	 * @param paraMap 参数，为空时返回空串
+	 * @return 如 a=1&amp;b=2
+	 */
+	public static String encode(Map<Object, Object> paraMap) {
+
+		StringBuilder buf = buffer();
+		encodeTo(buf, paraMap);
+		return buf.toString();
+	}
+
+	/**
+	 * URL 拼接参数(与 urlAppend 一致：URL 已含 ? 时以 &amp; 连接)
+	 *
+	 * @param strUrl  请求URL
+	 * @param paraMap 参数
+	 * @return
+	 */
+	public static String appendQuery(String strUrl, Map<Object, Object> paraMap) {
+
+		Args.notNull(strUrl, "url request");
+
+		StringBuilder buf = buffer();
+		buf.append(strUrl).append(strUrl.indexOf('?') > 0 ? '&' : '?');
+		encodeTo(buf, paraMap);
+		return buf.toString();
+	}
+
+	/**
+	 * 编码为表单请求体
+	 *
+	 * @param paraMap 参数
+	 * @return ASCII 字节
+	 */
+	public static byte[] encodeBytes(Map<Object, Object> paraMap) {
+
+		StringBuilder buf = buffer();
+		encodeTo(buf, paraMap);
+		int len = buf.length();
+		byte[] bytes = new byte[len];
+		for (int i = 0; i < len; i++) {
+			bytes[i] = (byte) buf.charAt(i);
+		}
+		return bytes;
+	}
+
+	/**
+	 * 当前线程的缓冲区(已清空)
+	 */
+	private static StringBuilder buffer() {
+
+		StringBuilder buf = BUFFER.get();
+		if (buf.capacity() > MAX_RETAINED) {
+			buf = new StringBuilder(INITIAL_CAPACITY);
+			BUFFER.set(buf);
+		}
+		buf.setLength(0);
+		return buf;
+	}
+
+	private static void encodeTo(StringBuilder buf, Map<Object, Object> paraMap) {
+
+		if (paraMap == null) {
+			return;
+		}
+		//与 URLEncodedUtils 一致，已有内容时才添加分隔符
+		int start = buf.length();
+		for (Map.Entry<Object, Object> entry : paraMap.entrySet()) {
+			if (buf.length() > start) {
+				buf.append('&');
+			}
+			encodeComponent(buf, String.valueOf(entry.getKey()));
+			Object value = entry.getValue();
+			if (value != null) {
+				buf.append('=');
+				encodeComponent(buf, value.toString());
+			}
+		}
+	}
+
+	/**
+	 * 编码参数名或值
+	 */
+	private static void encodeComponent(StringBuilder buf, String str) {
+
+		for (int i = 0, n = str.length(); i < n; i++) {
+			char c = str.charAt(i);
+			if (c < 0x80) {
+				if (SAFE[c]) {
+					buf.append(c);
+				} else if (c == ' ') {
+					buf.append('+');
+				} else {
+					percent(buf, c);
+				}
+			} else if (c < 0x800) {
+				percent(buf, 0xC0 | (c >> 6));
+				percent(buf, 0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(str.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, str.charAt(++i));
+				percent(buf, 0xF0 | (cp >> 18));
+				percent(buf, 0x80 | ((cp >> 12) & 0x3F));
+				percent(buf, 0x80 | ((cp >> 6) & 0x3F));
+				percent(buf, 0x80 | (cp & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				//不成对的代理字符与 JDK 编码器一致替换为 ?
+				percent(buf, '?');
+			} else {
+				percent(buf, 0xE0 | (c >> 12));
+				percent(buf, 0x80 | ((c >> 6) & 0x3F));
+				percent(buf, 0x80 | (c & 0x3F));
+			}
+		}
+	}
+
+	private static void percent(StringBuilder buf, int b) {
+
+		buf.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+	}
+}
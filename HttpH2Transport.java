@@ -0,0 +1,398 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ConnectionClosedException;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.ProtocolVersion;
+import org.apache.hc.core5.http2.H2ConnectionException;
+import org.apache.hc.core5.http2.H2CorruptFrameException;
+import org.apache.hc.core5.http2.H2Error;
+import org.apache.hc.core5.http2.impl.nio.ProtocolNegotiationException;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * HTTP/2 传输
+ *
+ * 每个主机一条连接，并发请求作为独立的流多路复用。HTTPS 经 ALPN 协商 h2，HTTP 按预知方式(prior knowledge)使用 h2c；
+ * 未成功使用过 HTTP/2 的主机协商失败(ALPN 未选择 h2、不识别连接前言而关闭连接或返回非 HTTP/2 数据)时，
+ * 在 fallbackTime 内改经 HTTP/1.1 连接池发送，到期后重新尝试 HTTP/2。协商失败的请求仅幂等方法改经 HTTP/1.1 重新发送，
+ * 其他请求返回失败；流重置、超时等其他异常及已成功使用 HTTP/2 的主机不改用 HTTP/1.1。
+ * 请求及响应在此与 HttpClient 4 对象相互转换，响应码、超时及异常与 HTTP/1.1 传输保持一致
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpH2Transport {
+
+	/** 日志 */
+	private static final Logger logger = LoggerFactory.getLogger(HttpH2Transport.class);
+
+	/** HTTP/2 禁止的逐跳请求头 */
+	private static final String[] HOP_HEADERS = {"Connection", "Keep-Alive", "Proxy-Connection", "Transfer-Encoding", "Upgrade", "Host", "Content-Length"};
+
+	/** 客户端 */
+	private final CloseableHttpAsyncClient client;
+	/** HTTP/1.1 客户端(不支持 HTTP/2 的主机) */
+	private final Http1Client fallback;
+	/** HTTP 是否使用 h2c */
+	private final boolean h2c;
+	/** 协商失败后改用 HTTP/1.1 的时间(单位毫秒) */
+	private final long fallbackTime;
+	/** 已成功使用 HTTP/2 的主机 */
+	private final ConcurrentHashMap<String, Boolean> h2Hosts = new ConcurrentHashMap<String, Boolean>();
+	/** 协商失败的主机(主机 -&gt; 改用 HTTP/1.1 的截止时间) */
+	private final ConcurrentHashMap<String, Long> h1Hosts = new ConcurrentHashMap<String, Long>();
+
+	/**
+	 * HTTP/1.1 客户端(按需创建)
+	 */
+	interface Http1Client {
+
+		/**
+		 * 获取客户端
+		 */
+		org.apache.http.impl.nio.client.CloseableHttpAsyncClient get();
+	}
+
+	/**
+	 * 构造方法，并启动客户端
+	 *
+	 * @param conTimeOut    建立连接超时时间(单位毫秒)
+	 * @param socketTimeOut 响应超时时间(单位毫秒)
+	 * @param keepAlive     连接保持时间(单位毫秒)，小于等于0时不限
+	 * @param h2c           HTTP 是否按预知方式使用 h2c
+	 * @param fallbackTime  协商失败后改用 HTTP/1.1 的时间(单位毫秒)
+	 * @param dnsResolver   域名解析
+	 * @param fallback      HTTP/1.1 客户端
+	 */
+	HttpH2Transport(int conTimeOut, int socketTimeOut, long keepAlive, boolean h2c, long fallbackTime,
+			final org.apache.http.conn.DnsResolver dnsResolver, Http1Client fallback) {
+
+		this.h2c = h2c;
+		this.fallbackTime = fallbackTime;
+		this.fallback = fallback;
+
+		ConnectionConfig.Builder connConfig = ConnectionConfig.custom()
+				.setConnectTimeout(Timeout.ofMilliseconds(conTimeOut))
+				.setSocketTimeout(Timeout.ofMilliseconds(socketTimeOut))
+				.setValidateAfterInactivity(TimeValue.ofSeconds(5));
+		if (keepAlive > 0) {
+			connConfig.setTimeToLive(TimeValue.ofMilliseconds(keepAlive));
+		}
+
+		client = HttpAsyncClients.customHttp2()
+				.setTlsStrategy(ClientTlsStrategyBuilder.create().useSystemProperties().build())
+				.setDefaultConnectionConfig(connConfig.build())
+				.setDnsResolver(new DnsResolver() {
+
+					@Override
+					public InetAddress[] resolve(String host) throws UnknownHostException {
+						return dnsResolver.resolve(host);
+					}
+
+					@Override
+					public String resolveCanonicalHostname(String host) throws UnknownHostException {
+						return InetAddress.getByName(host).getCanonicalHostName();
+					}
+				})
+				.setIOReactorConfig(IOReactorConfig.custom()
+						.setIoThreadCount(Runtime.getRuntime().availableProcessors())
+						.setSoTimeout(Timeout.ofMilliseconds(socketTimeOut))
+						.setTcpNoDelay(true)
+						.build())
+				.evictIdleConnections(TimeValue.ofMilliseconds(keepAlive > 0 ? keepAlive : 60000))
+				.disableAutomaticRetries()
+				.disableRedirectHandling()
+				.disableCookieManagement()
+				.build();
+		client.start();
+	}
+
+	/**
+	 * 是否经 HTTP/2 发送(协商失败未到期的主机及关闭 h2c 时的 HTTP 请求不经 HTTP/2)
+	 *
+	 * @param uri 请求地址
+	 * @return
+	 */
+	boolean accepts(URI uri) {
+
+		boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+		if (!secure && !h2c) {
+			return false;
+		}
+		if (h1Hosts.isEmpty()) {
+			return true;
+		}
+		String host = hostKey(uri.getHost(), uri.getPort(), uri.getScheme());
+		Long until = h1Hosts.get(host);
+		if (until == null) {
+			return true;
+		}
+		if (System.currentTimeMillis() < until) {
+			return false;
+		}
+		//到期后重新尝试 HTTP/2
+		h1Hosts.remove(host, until);
+		return true;
+	}
+
+	/**
+	 * 发送请求，主机协商 HTTP/2 失败时幂等请求改经 HTTP/1.1 重新发送
+	 *
+	 * @param method   请求(请求体需可重复读取)
+	 * @param config   请求连接配置参数
+	 * @param callback 响应回调，响应体已完整读取
+	 * @return 可用于取消请求
+	 * @throws IOException 读取请求体失败
+	 */
+	Future<org.apache.http.HttpResponse> execute(final HttpRequestBase method, org.apache.http.client.config.RequestConfig config,
+			final org.apache.http.concurrent.FutureCallback<org.apache.http.HttpResponse> callback) throws IOException {
+
+		final String host = hostKey(method.getURI().getHost(), method.getURI().getPort(), method.getURI().getScheme());
+
+		SimpleHttpRequest request = SimpleHttpRequest.create(method.getMethod(), method.getURI());
+		for (org.apache.http.Header header : method.getAllHeaders()) {
+			if (!isHopHeader(header.getName())) {
+				request.addHeader(header.getName(), header.getValue());
+			}
+		}
+		if (method instanceof HttpEntityEnclosingRequest) {
+			HttpEntity entity = ((HttpEntityEnclosingRequest) method).getEntity();
+			if (entity != null) {
+				org.apache.http.Header contentType = entity.getContentType();
+				request.setBody(EntityUtils.toByteArray(entity),
+						contentType == null ? ContentType.APPLICATION_OCTET_STREAM : ContentType.parse(contentType.getValue()));
+				if (entity.getContentEncoding() != null) {
+					request.setHeader(entity.getContentEncoding().getName(), entity.getContentEncoding().getValue());
+				}
+			}
+		}
+		request.setConfig(toConfig(config));
+
+		//当前执行中的请求(改经 HTTP/1.1 发送后为 HTTP/1.1 请求)，取消时一并取消
+		final AtomicReference<Future<?>> current = new AtomicReference<Future<?>>();
+		final BasicFuture<org.apache.http.HttpResponse> result = new BasicFuture<org.apache.http.HttpResponse>(callback) {
+
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				Future<?> exchange = current.get();
+				if (exchange != null) {
+					exchange.cancel(mayInterruptIfRunning);
+				}
+				return super.cancel(mayInterruptIfRunning);
+			}
+		};
+		//HTTP/2 流不按请求设置读取超时，到期仍未响应时按读取超时结束
+		final ScheduledFuture<?> timeout = config.getSocketTimeout() <= 0 ? null : HttpDeadline.timer().schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				if (result.failed(new SocketTimeoutException("Read timed out"))) {
+					Future<?> exchange = current.get();
+					if (exchange != null) {
+						exchange.cancel(true);
+					}
+				}
+			}
+		}, config.getSocketTimeout(), TimeUnit.MILLISECONDS);
+		current.set(client.execute(request, new FutureCallback<SimpleHttpResponse>() {
+
+			@Override
+			public void completed(SimpleHttpResponse response) {
+				cancel(timeout);
+				h2Hosts.putIfAbsent(host, Boolean.TRUE);
+				result.completed(toResponse(response));
+			}
+
+			@Override
+			public void failed(Exception e) {
+				cancel(timeout);
+				if (result.isDone() || !isNegotiationFailure(e)) {
+					result.failed(e);
+					return;
+				}
+				if (h2Hosts.remove(host) != null) {
+					//已成功使用过 HTTP/2，按连接异常处理；再次失败时改用 HTTP/1.1
+					result.failed(e);
+					return;
+				}
+				if (h1Hosts.put(host, System.currentTimeMillis() + fallbackTime) == null) {
+					logger.warn("http 主机" + host + "协商 HTTP/2 失败，" + fallbackTime + "毫秒内改用 HTTP/1.1：" + e);
+				}
+				//非幂等请求不重新发送(ALPN 失败时请求未发出除外)，由调用方决定是否重试
+				if (!isIdempotent(method.getMethod()) && !(e instanceof ProtocolNegotiationException)) {
+					result.failed(e);
+					return;
+				}
+				current.set(fallback.get().execute(HttpAsyncMethods.create(method), HttpAsyncMethods.createConsumer(),
+						new org.apache.http.concurrent.FutureCallback<org.apache.http.HttpResponse>() {
+
+					@Override
+					public void completed(org.apache.http.HttpResponse response) {
+						result.completed(response);
+					}
+
+					@Override
+					public void failed(Exception ex) {
+						result.failed(ex);
+					}
+
+					@Override
+					public void cancelled() {
+						result.cancel(true);
+					}
+				}));
+			}
+
+			@Override
+			public void cancelled() {
+				cancel(timeout);
+				result.cancel(true);
+			}
+		}));
+		return result;
+	}
+
+	/**
+	 * 关闭客户端
+	 */
+	void close() {
+
+		client.close(CloseMode.GRACEFUL);
+	}
+
+	/**
+	 * 请求配置转换(未设置的沿用连接配置)
+	 */
+	@SuppressWarnings("deprecation")
+	private static RequestConfig toConfig(org.apache.http.client.config.RequestConfig config) {
+
+		RequestConfig.Builder builder = RequestConfig.custom();
+		if (config.getConnectionRequestTimeout() > 0) {
+			builder.setConnectionRequestTimeout(config.getConnectionRequestTimeout(), TimeUnit.MILLISECONDS);
+		}
+		if (config.getConnectTimeout() > 0) {
+			//按请求设置建立连接超时(5.2 中标记为过时，仍然生效)
+			builder.setConnectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS);
+		}
+		if (config.getSocketTimeout() > 0) {
+			builder.setResponseTimeout(config.getSocketTimeout(), TimeUnit.MILLISECONDS);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * 响应转换，响应体以字节数组实体返回
+	 */
+	private static org.apache.http.HttpResponse toResponse(SimpleHttpResponse response) {
+
+		ProtocolVersion version = response.getVersion();
+		int code = response.getCode();
+		String reason = response.getReasonPhrase();
+		if (reason == null || reason.length() == 0) {
+			//HTTP/2 无原因短语
+			reason = EnglishReasonPhraseCatalog.INSTANCE.getReason(code, null);
+		}
+		BasicHttpResponse rtn = new BasicHttpResponse(new BasicStatusLine(
+				new org.apache.http.ProtocolVersion("HTTP", version == null ? 2 : version.getMajor(), version == null ? 0 : version.getMinor()),
+				code, reason));
+		for (Header header : response.getHeaders()) {
+			rtn.addHeader(header.getName(), header.getValue());
+		}
+		byte[] body = response.getBodyBytes();
+		ByteArrayEntity entity = new ByteArrayEntity(body == null ? new byte[0] : body);
+		Header contentType = response.getFirstHeader("Content-Type");
+		if (contentType != null) {
+			entity.setContentType(contentType.getValue());
+		}
+		Header contentEncoding = response.getFirstHeader("Content-Encoding");
+		if (contentEncoding != null) {
+			entity.setContentEncoding(contentEncoding.getValue());
+		}
+		rtn.setEntity(entity);
+		return rtn;
+	}
+
+	private static void cancel(ScheduledFuture<?> timeout) {
+
+		if (timeout != null) {
+			timeout.cancel(false);
+		}
+	}
+
+	/**
+	 * 是否协商 HTTP/2 失败：ALPN 未选择 h2、服务端不识别连接前言而关闭连接或返回非 HTTP/2 数据
+	 */
+	private static boolean isNegotiationFailure(Exception e) {
+
+		if (e instanceof ProtocolNegotiationException || e instanceof H2CorruptFrameException || e instanceof ConnectionClosedException) {
+			return true;
+		}
+		if (e instanceof H2ConnectionException) {
+			int code = ((H2ConnectionException) e).getCode();
+			return code == H2Error.PROTOCOL_ERROR.getCode() || code == H2Error.FRAME_SIZE_ERROR.getCode();
+		}
+		return false;
+	}
+
+	/**
+	 * 是否幂等方法(可安全重新发送)
+	 */
+	private static boolean isIdempotent(String method) {
+
+		return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method) || "TRACE".equals(method)
+				|| "PUT".equals(method) || "DELETE".equals(method);
+	}
+
+	private static boolean isHopHeader(String name) {
+
+		for (String hop : HOP_HEADERS) {
+			if (hop.equalsIgnoreCase(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String hostKey(String hostName, int port, String scheme) {
+
+		if (port <= 0) {
+			port = "https".equalsIgnoreCase(scheme) ? 443 : 80;
+		}
+		return hostName.toLowerCase() + ":" + port;
+	}
+}
@@ -0,0 +1,155 @@
+package com.jf.ams.notify.common.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 幂等请求对冲策略
+ *
+ * 对冲延迟取该路由成功请求耗时的指定分位值(每秒最多重算一次)；
+ * 对冲及重试从令牌桶预算中扣减，每笔请求按预算比例存入令牌，额外请求不超过流量的固定比例
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpHedgePolicy {
+
+	/** 令牌精度(千分之一) */
+	private static final long TOKEN = 1000;
+	/** 令牌桶容量(突发) */
+	private static final long BURST = 10 * TOKEN;
+	/** 对冲延迟重算间隔(单位毫秒) */
+	private static final long REFRESH_MILLIS = 1000;
+
+	/** 对冲定时器 */
+	private static volatile ScheduledExecutorService timer;
+
+	/** 对冲延迟分位，小于等于0时不开启 */
+	private final double percentile;
+	/** 每笔请求存入令牌 */
+	private final long deposit;
+	/** 最小对冲延迟(单位毫秒) */
+	private final long minDelay;
+	/** 计算分位所需最少样本数，不足时不对冲 */
+	private final long minSamples;
+	/** 监控指标(耗时分布) */
+	private final HttpClientMetrics metrics;
+
+	/** 剩余令牌 */
+	private final AtomicLong tokens = new AtomicLong(BURST);
+	/** 各路由对冲延迟 */
+	private final ConcurrentHashMap<String, Delay> delays = new ConcurrentHashMap<String, Delay>();
+
+	/**
+	 * 构造方法
+	 *
+	 * @param percentile    对冲延迟分位(如 95)，小于等于0时不开启
+	 * @param budgetPercent 额外请求预算(占请求量百分比)
+	 * @param minDelay      最小对冲延迟(单位毫秒)
+	 * @param minSamples    最少样本数
+	 * @param metrics       监控指标
+	 */
+	HttpHedgePolicy(double percentile, int budgetPercent, long minDelay, long minSamples, HttpClientMetrics metrics) {
+
+		this.percentile = percentile;
+		this.deposit = Math.max(budgetPercent, 0) * TOKEN / 100;
+		this.minDelay = minDelay;
+		this.minSamples = minSamples;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * 是否开启对冲
+	 */
+	boolean isEnabled() {
+
+		return percentile > 0;
+	}
+
+	/**
+	 * 每笔请求存入令牌
+	 */
+	void deposit() {
+
+		if (tokens.get() < BURST) {
+			tokens.addAndGet(deposit);
+		}
+	}
+
+	/**
+	 * 扣减一次对冲或重试的令牌
+	 *
+	 * @return 预算不足时返回 false
+	 */
+	boolean tryWithdraw() {
+
+		long cur;
+		do {
+			cur = tokens.get();
+			if (cur < TOKEN) {
+				return false;
+			}
+		} while (!tokens.compareAndSet(cur, cur - TOKEN));
+		return true;
+	}
+
+	/**
+	 * 获取路由对冲延迟
+	 *
+	 * @param route 路由(host:port)
+	 * @return 单位毫秒，样本不足时返回-1
+	 */
+	long getDelay(String route) {
+
+		long now = System.currentTimeMillis();
+		Delay delay = delays.get(route);
+		if (delay == null || now - delay.computedAt > REFRESH_MILLIS) {
+			long micros = metrics.percentile(route, 200, percentile, minSamples);
+			delay = new Delay(micros < 0 ? -1 : Math.max(micros / 1000, minDelay), now);
+			delays.put(route, delay);
+		}
+		return delay.millis;
+	}
+
+	/**
+	 * 对冲定时器(守护线程)
+	 */
+	static ScheduledExecutorService timer() {
+
+		if (timer == null) {
+			synchronized (HttpHedgePolicy.class) {
+				if (timer == null) {
+					timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "http-hedge-timer");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+				}
+			}
+		}
+		return timer;
+	}
+
+
+	/**
+	 * 对冲延迟
+	 */
+	private static class Delay {
+		/** 延迟(单位毫秒)，-1 表示不对冲 */
+		final long millis;
+		/** 计算时间 */
+		final long computedAt;
+
+		Delay(long millis, long computedAt) {
+			this.millis = millis;
+			this.computedAt = computedAt;
+		}
+	}
+}
@@ -0,0 +1,800 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.Consts;
+import org.apache.http.util.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * 出站通知日志(持久化投递)
+ *
+ * 请求追加到本地内存映射的分段文件后立即返回，后台线程按追加顺序读取并异步发送(同时发送数受窗口限制，等待重试的记录不占用窗口)；
+ * 超时、连接失败、5xx、408 及 429 按指数退避重试，其他非 2xx 响应及超过最多发送次数的记录转入死信文件，至少投递一次。
+ * 每条记录完成后在长度的最高位标记，重启后从检查点重放未标记完成的请求；某条记录持续重试不影响之后的分段，
+ * 已读取且其中记录全部完成的分段文件即删除并释放映射。
+ *
+ * 记录格式：长度(4字节，不含头部，最高位为完成标记) + CRC32(4字节) + 类型(1字节) + URL长度(4字节) + URL(UTF-8) + 请求体；
+ * 分段文件预分配并以0填充，长度为0处即已写入数据的末尾；死信文件(dead-letter.log)为相同格式的追加文件
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpJournal {
+
+	private static final Logger logger = LoggerFactory.getLogger(HttpJournal.class);
+
+	/** 请求体类型：json */
+	static final byte JSON = 1;
+	/** 请求体类型：表单 */
+	static final byte FORM = 2;
+
+	/** 记录头部长度(长度 + CRC32) */
+	private static final int HEADER = 8;
+	/** 分段文件名前缀 */
+	private static final String SEGMENT_PREFIX = "journal-";
+	/** 分段文件名后缀 */
+	private static final String SEGMENT_SUFFIX = ".log";
+	/** 检查点文件名 */
+	private static final String CHECKPOINT_FILE = "checkpoint";
+	/** 死信文件名 */
+	private static final String DEAD_LETTER_FILE = "dead-letter.log";
+	/** 检查点写入间隔(单位毫秒) */
+	private static final long CHECKPOINT_INTERVAL = 1000;
+	/** 记录完成标记(长度最高位) */
+	private static final int DONE = 0x80000000;
+
+	/**
+	 * 请求发送
+	 */
+	interface Sender {
+
+		/**
+		 * 异步发送POST请求
+		 *
+		 * @param kind 请求体类型
+		 * @param url  请求URL
+		 * @param body 请求体
+		 * @return 响应编码(同 HttpResRtn)
+		 */
+		CompletableFuture<Integer> send(byte kind, String url, byte[] body);
+	}
+
+	/** 日志目录 */
+	private final File dir;
+	/** 新建分段文件大小 */
+	private final int segmentSize;
+	/** 首次重试延迟(单位毫秒) */
+	private final long retryDelay;
+	/** 最大重试延迟(单位毫秒) */
+	private final long maxRetryDelay;
+	/** 最多发送次数，小于等于0时不限 */
+	private final int maxAttempts;
+	/** 是否每次追加后刷盘 */
+	private final boolean sync;
+	/** 请求发送 */
+	private final Sender sender;
+	/** 同时发送数 */
+	private final Semaphore window;
+	/** 退避结束、等待窗口的重试记录(读取线程优先发送) */
+	private final ConcurrentLinkedQueue<Delivery> retries = new ConcurrentLinkedQueue<Delivery>();
+
+	/** 分段文件(序号 -&gt; 分段) */
+	private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<Long, Segment>();
+	/** 追加锁(不使用 synchronized，虚拟线程等待时不占用载体线程) */
+	private final ReentrantLock lock = new ReentrantLock();
+	/** 追加通知 */
+	private final Condition appended = lock.newCondition();
+	/** 检查点文件 */
+	private final RandomAccessFile checkpointFile;
+	/** 检查点锁(读取线程与关闭时的检查点、分段删除互斥) */
+	private final ReentrantLock checkpointLock = new ReentrantLock();
+	/** 死信文件(首次写入时打开) */
+	private FileChannel deadLetter;
+	/** 死信写入锁 */
+	private final ReentrantLock deadLetterLock = new ReentrantLock();
+	/** 当前追加的分段 */
+	private Segment tail;
+
+	/** 读取位置 */
+	private Segment readSegment;
+	private int readOffset;
+	/** 已读取位置(分段序号 &lt;&lt; 32 | 偏移)，之前的记录均已发送或完成 */
+	private volatile long readPos;
+	/** 发送中记录的位置 */
+	private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<Long>();
+	/** 已写入的检查点 */
+	private long checkpointPos;
+	/** 已刷盘的分段序号(之前的分段已封闭并刷盘) */
+	private long forcedSeq;
+
+	/** 读取发送线程 */
+	private Thread drainer;
+	private volatile boolean closed;
+
+	/** 追加笔数 */
+	private final LongAdder appendCount = new LongAdder();
+	/** 投递成功笔数 */
+	private final LongAdder deliveredCount = new LongAdder();
+	/** 重试次数 */
+	private final LongAdder retryCount = new LongAdder();
+	/** 放弃(转入死信)笔数 */
+	private final LongAdder failedCount = new LongAdder();
+	/** 未完成笔数 */
+	private final AtomicLong pendingCount = new AtomicLong();
+
+	/**
+	 * 构造方法，打开日志目录并从检查点恢复(不发送，由 start 开始发送)
+	 *
+	 * @param dir           日志目录
+	 * @param segmentSize   分段文件大小(单位字节)
+	 * @param window        同时发送数
+	 * @param retryDelay    首次重试延迟(单位毫秒)，之后逐次加倍
+	 * @param maxRetryDelay 最大重试延迟(单位毫秒)
+	 * @param maxAttempts   最多发送次数，超过后转入死信文件，小于等于0时不限
+	 * @param sync          是否每次追加后刷盘(否则每秒刷盘，进程异常退出不丢失，操作系统崩溃可能丢失最近1秒)
+	 * @param sender        请求发送
+	 * @throws IOException
+	 */
+	HttpJournal(File dir, int segmentSize, int window, long retryDelay, long maxRetryDelay, int maxAttempts,
+			boolean sync, Sender sender) throws IOException {
+
+		Args.notNull(dir, "journal dir");
+		Args.positive(segmentSize, "journal segment size");
+		Args.notNull(sender, "sender");
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("journal dir can not be created: " + dir);
+		}
+		this.dir = dir;
+		this.segmentSize = segmentSize;
+		this.retryDelay = Math.max(retryDelay, 1);
+		this.maxRetryDelay = Math.max(maxRetryDelay, this.retryDelay);
+		this.maxAttempts = maxAttempts;
+		this.sync = sync;
+		this.sender = sender;
+		this.window = new Semaphore(Math.max(window, 1));
+		this.checkpointFile = new RandomAccessFile(new File(dir, CHECKPOINT_FILE), "rw");
+		recover();
+	}
+
+	/**
+	 * 从检查点恢复：删除已完成的分段，校验各分段记录确定写入末尾，统计未标记完成的记录
+	 */
+	private void recover() throws IOException {
+
+		checkpointPos = checkpointFile.length() >= 8 ? checkpointFile.readLong() : 0;
+		long checkpointSeq = checkpointPos >>> 32;
+
+		File[] files = dir.listFiles(new FileFilter() {
+
+			@Override
+			public boolean accept(File file) {
+				String fileName = file.getName();
+				return file.isFile() && fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+			}
+		});
+		long[] seqs = new long[files == null ? 0 : files.length];
+		for (int i = 0; i < seqs.length; i++) {
+			String fileName = files[i].getName();
+			seqs[i] = Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+		}
+		Arrays.sort(seqs);
+
+		long pending = 0;
+		for (int i = 0; i < seqs.length; i++) {
+			if (seqs[i] < checkpointSeq) {
+				//检查点之前的分段均已完成
+				deleteFile(segmentFile(seqs[i]));
+				continue;
+			}
+			Segment seg = Segment.open(segmentFile(seqs[i]), seqs[i], 0);
+			int start = seqs[i] == checkpointSeq ? (int) checkpointPos : 0;
+			int offset = 0;
+			int segPending = 0;
+			for (int len; (len = seg.validLength(offset)) > 0; offset += HEADER + len) {
+				if (offset >= start && !seg.isDone(offset)) {
+					segPending++;
+				}
+			}
+			seg.limit = offset;
+			if (i < seqs.length - 1) {
+				if (offset < seg.capacity && seg.buffer.getInt(offset) != 0) {
+					logger.warn("http 通知日志分段" + seg.file + "在" + offset + "处损坏，之后的记录不再发送");
+				}
+				seg.sealed = true;
+				if (segPending == 0) {
+					//记录均已完成
+					seg.unmap();
+					deleteFile(seg.file);
+					continue;
+				}
+			} else {
+				//进程异常退出时可能写入了部分记录，清除后由新记录覆盖
+				seg.clear(offset);
+			}
+			pending += segPending;
+			segments.put(seg.seq, seg);
+		}
+		if (segments.isEmpty()) {
+			Segment seg = Segment.open(segmentFile(Math.max(checkpointSeq, 1)), Math.max(checkpointSeq, 1), segmentSize);
+			segments.put(seg.seq, seg);
+		}
+		tail = segments.lastEntry().getValue();
+		forcedSeq = segments.firstKey();
+
+		Map.Entry<Long, Segment> first = segments.ceilingEntry(checkpointSeq);
+		readSegment = first.getValue();
+		readOffset = first.getKey() == checkpointSeq ? Math.min((int) checkpointPos, readSegment.limit) : 0;
+		readPos = position(readSegment.seq, readOffset);
+		pendingCount.set(pending);
+		if (pending > 0) {
+			logger.info("http 通知日志" + dir + "待重放：" + pending);
+		}
+	}
+
+	/**
+	 * 开始后台发送
+	 *
+	 * @param name 线程名称
+	 */
+	void start(String name) {
+
+		drainer = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				drain();
+			}
+		}, name);
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+
+	/**
+	 * 追加请求
+	 *
+	 * @param kind 请求体类型
+	 * @param url  请求URL
+	 * @param body 请求体
+	 * @throws IOException 写入失败
+	 */
+	void append(byte kind, String url, byte[] body) throws IOException {
+
+		byte[] urlBytes = url.getBytes(Consts.UTF_8);
+		int len = 1 + 4 + urlBytes.length + body.length;
+		Args.check(HEADER + len <= segmentSize, "journal record exceeds segment size: " + len);
+		CRC32 crc = new CRC32();
+		crc.update(kind);
+		for (int shift = 24; shift >= 0; shift -= 8) {
+			crc.update(urlBytes.length >>> shift);
+		}
+		crc.update(urlBytes);
+		crc.update(body);
+
+		lock.lock();
+		try {
+			if (closed) {
+				throw new IOException("journal closed");
+			}
+			Segment seg = tail;
+			if (seg.limit + HEADER + len > seg.capacity) {
+				seg = roll();
+			}
+			int offset = seg.limit;
+			ByteBuffer buf = seg.buffer.duplicate();
+			buf.position(offset + HEADER);
+			buf.put(kind).putInt(urlBytes.length).put(urlBytes).put(body);
+			seg.buffer.putInt(offset + 4, (int) crc.getValue());
+			//最后写入长度，长度非0即为完整记录
+			seg.buffer.putInt(offset, len);
+			if (sync) {
+				seg.buffer.force();
+			}
+			seg.limit = offset + HEADER + len;
+			appendCount.increment();
+			pendingCount.incrementAndGet();
+			appended.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 当前分段已满，新建分段
+	 */
+	private Segment roll() throws IOException {
+
+		Segment seg = Segment.open(segmentFile(tail.seq + 1), tail.seq + 1, segmentSize);
+		segments.put(seg.seq, seg);
+		tail.sealed = true;
+		tail = seg;
+		return seg;
+	}
+
+	/**
+	 * 读取并发送，定期写入检查点
+	 */
+	private void drain() {
+
+		long lastCheckpoint = System.nanoTime();
+		while (!closed) {
+			try {
+				if (!readNext()) {
+					lock.lock();
+					try {
+						if (!closed && readOffset >= readSegment.limit && !readSegment.sealed && retries.isEmpty()) {
+							appended.await(CHECKPOINT_INTERVAL, TimeUnit.MILLISECONDS);
+						}
+					} finally {
+						lock.unlock();
+					}
+				}
+				if (System.nanoTime() - lastCheckpoint >= TimeUnit.MILLISECONDS.toNanos(CHECKPOINT_INTERVAL)) {
+					checkpoint();
+					lastCheckpoint = System.nanoTime();
+				}
+			} catch (InterruptedException e) {
+				break;
+			} catch (Exception e) {
+				logger.error("http 通知日志发送异常" + e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * 读取下一条记录并发送
+	 *
+	 * @return 无可读记录时返回false
+	 * @throws InterruptedException
+	 */
+	private boolean readNext() throws InterruptedException {
+
+		if (!retries.isEmpty()) {
+			//重试记录优先，仅读取线程取出
+			if (window.tryAcquire(CHECKPOINT_INTERVAL, TimeUnit.MILLISECONDS)) {
+				retries.poll().send();
+			}
+			return true;
+		}
+		Segment seg = readSegment;
+		if (readOffset >= seg.limit) {
+			if (!seg.sealed) {
+				return false;
+			}
+			readSegment = segments.higherEntry(seg.seq).getValue();
+			readOffset = 0;
+			readPos = position(readSegment.seq, 0);
+			return true;
+		}
+		int len = seg.buffer.getInt(readOffset);
+		if ((len & DONE) != 0) {
+			//重启前已完成
+			readOffset += HEADER + (len & ~DONE);
+			readPos = position(seg.seq, readOffset);
+			return true;
+		}
+		//发送窗口已满时等待，期间照常写入检查点
+		if (!window.tryAcquire(CHECKPOINT_INTERVAL, TimeUnit.MILLISECONDS)) {
+			return true;
+		}
+		ByteBuffer buf = seg.buffer.duplicate();
+		buf.position(readOffset + HEADER);
+		byte kind = buf.get();
+		byte[] urlBytes = new byte[buf.getInt()];
+		buf.get(urlBytes);
+		byte[] body = new byte[len - 1 - 4 - urlBytes.length];
+		buf.get(body);
+
+		long pos = position(seg.seq, readOffset);
+		inFlight.add(pos);
+		seg.active.incrementAndGet();
+		Delivery delivery = new Delivery(seg, readOffset, kind, new String(urlBytes, Consts.UTF_8), body);
+		readOffset += HEADER + len;
+		readPos = position(seg.seq, readOffset);
+		delivery.send();
+		return true;
+	}
+
+	/**
+	 * 写入检查点：发送中的最早记录，无发送中记录时为已读取位置；删除已读取且记录均已完成的分段，
+	 * 未刷盘的分段及有新完成标记的分段刷盘
+	 */
+	private void checkpoint() throws IOException {
+
+		checkpointLock.lock();
+		try {
+			//先取已读取位置再取发送中记录，读取线程先登记发送中记录再推进读取位置
+			long pos = readPos;
+			Long first = inFlight.ceiling(Long.MIN_VALUE);
+			if (first != null && first < pos) {
+				pos = first;
+			}
+
+			for (Segment seg : segments.values()) {
+				boolean newSeg = !sync && seg.seq >= forcedSeq;
+				if (newSeg || seg.dirty) {
+					seg.dirty = false;
+					seg.buffer.force();
+				}
+				if (newSeg && seg.sealed) {
+					forcedSeq = seg.seq + 1;
+				}
+			}
+			if (pos != checkpointPos) {
+				checkpointFile.seek(0);
+				checkpointFile.writeLong(pos);
+				if (sync) {
+					checkpointFile.getFD().sync();
+				}
+				checkpointPos = pos;
+			}
+
+			//读取位置之前的分段已封闭，发送中记录为0时不再访问，可释放映射
+			for (Segment seg : segments.headMap(readPos >>> 32).values()) {
+				if (seg.active.get() == 0) {
+					segments.remove(seg.seq);
+					seg.unmap();
+					deleteFile(seg.file);
+				}
+			}
+		} finally {
+			checkpointLock.unlock();
+		}
+	}
+
+	/**
+	 * 记录转入死信文件(与分段文件记录格式相同，不含完成标记)
+	 *
+	 * @param record 记录(含头部)
+	 */
+	private void deadLetter(ByteBuffer record) throws IOException {
+
+		deadLetterLock.lock();
+		try {
+			if (deadLetter == null) {
+				deadLetter = new FileOutputStream(new File(dir, DEAD_LETTER_FILE), true).getChannel();
+			}
+			while (record.hasRemaining()) {
+				deadLetter.write(record);
+			}
+			if (sync) {
+				deadLetter.force(false);
+			}
+		} finally {
+			deadLetterLock.unlock();
+		}
+	}
+
+	/**
+	 * 停止发送并写入检查点，发送中及重试等待中的记录重启后重放
+	 */
+	void close() {
+
+		lock.lock();
+		try {
+			closed = true;
+			appended.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		try {
+			if (drainer != null) {
+				drainer.join(CHECKPOINT_INTERVAL * 2);
+			}
+			checkpoint();
+			checkpointFile.close();
+			deadLetterLock.lock();
+			try {
+				if (deadLetter != null) {
+					deadLetter.close();
+				}
+			} finally {
+				deadLetterLock.unlock();
+			}
+		} catch (Exception e) {
+			logger.warn("http 通知日志关闭异常" + e.getMessage());
+		}
+	}
+
+	/**
+	 * 日志统计
+	 */
+	HttpClientMetricsMXBean.JournalView toView() {
+
+		return new HttpClientMetricsMXBean.JournalView(appendCount.sum(), deliveredCount.sum(), retryCount.sum(),
+				failedCount.sum(), pendingCount.get(), segments.size());
+	}
+
+	private File segmentFile(long seq) {
+
+		return new File(dir, SEGMENT_PREFIX + String.format("%020d", seq) + SEGMENT_SUFFIX);
+	}
+
+	private static long position(long seq, int offset) {
+
+		return seq << 32 | offset;
+	}
+
+	private static void deleteFile(File file) {
+
+		if (!file.delete() && file.exists()) {
+			logger.warn("http 通知日志分段删除失败" + file);
+		}
+	}
+
+
+	/**
+	 * 一条记录的发送及重试，退避期间释放窗口，退避结束后重新占用窗口再发送
+	 */
+	private final class Delivery implements Runnable, BiConsumer<Integer, Throwable> {
+		/** 所在分段 */
+		private final Segment seg;
+		/** 分段内偏移 */
+		private final int offset;
+		private final byte kind;
+		private final String url;
+		private final byte[] body;
+		/** 已发送次数 */
+		private int attempts;
+
+		Delivery(Segment seg, int offset, byte kind, String url, byte[] body) {
+			this.seg = seg;
+			this.offset = offset;
+			this.kind = kind;
+			this.url = url;
+			this.body = body;
+		}
+
+		/**
+		 * 发送(已占用窗口)
+		 */
+		void send() {
+			attempts++;
+			CompletableFuture<Integer> future;
+			try {
+				future = sender.send(kind, url, body);
+			} catch (RuntimeException e) {
+				accept(null, e);
+				return;
+			}
+			future.whenComplete(this);
+		}
+
+		/**
+		 * 退避结束，窗口有空余时直接发送，否则交给读取线程
+		 */
+		@Override
+		public void run() {
+			if (closed) {
+				//重启后重放
+				return;
+			}
+			if (window.tryAcquire()) {
+				send();
+				return;
+			}
+			retries.offer(this);
+			lock.lock();
+			try {
+				appended.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void accept(Integer stsCode, Throwable e) {
+			int code = e != null || stsCode == null ? -9 : stsCode;
+			if (code >= 200 && code < 300) {
+				deliveredCount.increment();
+				done();
+			} else if (closed) {
+				//重启后重放
+			} else if (!retryable(code) || (maxAttempts > 0 && attempts >= maxAttempts)) {
+				failedCount.increment();
+				String strDead;
+				try {
+					deadLetter(seg.record(offset));
+					strDead = "已转入死信文件";
+				} catch (Exception ex) {
+					strDead = "写入死信文件失败(" + ex.getMessage() + ")";
+				}
+				logger.error("http 通知投递失败，" + strDead + "：" + url + "，响应编码：" + code + "，发送次数：" + attempts
+						+ "，请求：" + new String(body, Consts.UTF_8));
+				done();
+			} else {
+				retryCount.increment();
+				//退避期间不占用窗口，其他目标的记录照常发送
+				window.release();
+				long delay = Math.min(retryDelay << Math.min(attempts - 1, 20), maxRetryDelay);
+				HttpDeadline.timer().schedule(this, delay, TimeUnit.MILLISECONDS);
+			}
+		}
+
+		private void done() {
+			//先标记完成再减少分段发送中笔数，之后分段才可能释放映射
+			seg.markDone(offset);
+			seg.active.decrementAndGet();
+			inFlight.remove(position(seg.seq, offset));
+			pendingCount.decrementAndGet();
+			window.release();
+		}
+	}
+
+	/**
+	 * 是否可重试：超时、连接失败等(负数编码)、5xx、408 及 429
+	 */
+	private static boolean retryable(int code) {
+
+		return code < 0 || code >= 500 || code == 408 || code == 429;
+	}
+
+
+	/**
+	 * 分段文件
+	 */
+	private static final class Segment {
+		/** 序号 */
+		final long seq;
+		final File file;
+		/** 文件映射 */
+		final MappedByteBuffer buffer;
+		/** 文件大小 */
+		final int capacity;
+		/** 已写入末尾 */
+		volatile int limit;
+		/** 是否已写满(不再追加) */
+		volatile boolean sealed;
+		/** 发送中(含等待重试)笔数 */
+		final AtomicInteger active = new AtomicInteger();
+		/** 是否有未刷盘的完成标记 */
+		volatile boolean dirty;
+
+		private Segment(long seq, File file, MappedByteBuffer buffer) {
+			this.seq = seq;
+			this.file = file;
+			this.buffer = buffer;
+			this.capacity = buffer.capacity();
+		}
+
+		/**
+		 * 打开分段文件
+		 *
+		 * @param size 新建文件大小，为0时按已有文件大小
+		 */
+		static Segment open(File file, long seq, int size) throws IOException {
+
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			try {
+				if (size > 0 && raf.length() < size) {
+					raf.setLength(size);
+				}
+				FileChannel channel = raf.getChannel();
+				//映射在通道关闭后仍有效
+				return new Segment(seq, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+			} finally {
+				raf.close();
+			}
+		}
+
+		/**
+		 * 校验记录
+		 *
+		 * @param offset 记录位置
+		 * @return 记录长度(不含头部)，无记录或不完整时返回0
+		 */
+		int validLength(int offset) {
+
+			if (offset + HEADER > capacity) {
+				return 0;
+			}
+			int len = buffer.getInt(offset) & ~DONE;
+			if (len < 5 || len > capacity - offset - HEADER) {
+				return 0;
+			}
+			ByteBuffer buf = buffer.duplicate();
+			buf.position(offset + HEADER).limit(offset + HEADER + len);
+			CRC32 crc = new CRC32();
+			crc.update(buf);
+			return (int) crc.getValue() == buffer.getInt(offset + 4) ? len : 0;
+		}
+
+		/**
+		 * 记录是否已完成
+		 */
+		boolean isDone(int offset) {
+
+			return (buffer.getInt(offset) & DONE) != 0;
+		}
+
+		/**
+		 * 标记记录完成(检查点时刷盘)
+		 */
+		void markDone(int offset) {
+
+			buffer.putInt(offset, buffer.getInt(offset) | DONE);
+			dirty = true;
+		}
+
+		/**
+		 * 读取记录(含头部，不含完成标记)
+		 */
+		ByteBuffer record(int offset) {
+
+			int len = buffer.getInt(offset) & ~DONE;
+			byte[] bytes = new byte[HEADER + len];
+			ByteBuffer buf = buffer.duplicate();
+			buf.position(offset);
+			buf.get(bytes);
+			ByteBuffer record = ByteBuffer.wrap(bytes);
+			record.putInt(0, len);
+			return record;
+		}
+
+		/**
+		 * 释放映射(分段不再访问时调用)，不支持时由垃圾回收释放
+		 */
+		void unmap() {
+
+			try {
+				Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+				Method invokeCleaner;
+				try {
+					invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+				} catch (NoSuchMethodException e) {
+					invokeCleaner = null;
+				}
+				if (invokeCleaner != null) {
+					//Java 9+
+					Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+					theUnsafe.setAccessible(true);
+					invokeCleaner.invoke(theUnsafe.get(null), buffer);
+				} else {
+					//Java 8
+					Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+					cleanerMethod.setAccessible(true);
+					Object cleaner = cleanerMethod.invoke(buffer);
+					if (cleaner != null) {
+						cleaner.getClass().getMethod("clean").invoke(cleaner);
+					}
+				}
+			} catch (Exception e) {
+				logger.debug("http 通知日志分段映射释放失败" + file + "：" + e);
+			}
+		}
+
+		/**
+		 * 清除指定位置的不完整记录头部，其余字节由新记录覆盖(恢复时以 CRC32 校验为准)
+		 */
+		void clear(int offset) {
+
+			for (int i = offset; i < capacity && i < offset + HEADER; i++) {
+				buffer.put(i, (byte) 0);
+			}
+		}
+	}
+}
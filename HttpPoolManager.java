@@ -0,0 +1,477 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.config.Registry;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolEntry;
+import org.apache.http.pool.PoolEntryCallback;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 同步连接池管理
+ *
+ * 后台定时关闭过期连接，并校验空闲超过一定时间的连接(isStale)、关闭失效连接：持有连接池锁时只选出并标记待校验连接
+ * (标记期间不会被请求获取)，释放锁后逐个检查，获取连接时仅校验后台未及时校验的连接；
+ * 开启自适应时按各路由获取连接等待时间、排队数及使用率，在配置范围内调整每路由及总连接数上限；
+ * 管理参数可在运行中替换，与维护互斥执行
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpPoolManager {
+
+	/** 日志 */
+	private static final Logger logger = LoggerFactory.getLogger(HttpPoolManager.class);
+
+	/** 关闭后台校验时，获取连接前校验空闲超过该时间(单位毫秒)的连接 */
+	private static final int LEASE_VALIDATE_AFTER = 5 * 1000;
+
+	/** 同步连接池 */
+	private final ConnectionPool cm;
+	/** 统计(获取连接等待时间) */
+	private final HttpClientMetrics metrics;
+	/** 管理参数 */
+	private volatile Config config;
+	/** 维护及参数替换锁 */
+	private final ReentrantLock lock = new ReentrantLock();
+	/** 定时维护任务，未开启时为空 */
+	private ScheduledFuture<?> task;
+
+	/** 已校验且之后未被使用的连接(连接标识)，持有锁时访问 */
+	private Map<String, Validated> validated = new HashMap<String, Validated>();
+	/** 各路由调整周期内的状态，持有锁时访问 */
+	private final Map<HttpRoute, RouteState> states = new HashMap<HttpRoute, RouteState>();
+	/** 调整周期内最大占用连接数(所有路由) */
+	private int totalPeak;
+	/** 调整周期内是否出现排队(所有路由) */
+	private boolean totalPending;
+	/** 距上次调整的维护次数 */
+	private int rounds;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param cm      同步连接池
+	 * @param metrics 统计
+	 * @param config  管理参数
+	 */
+	HttpPoolManager(ConnectionPool cm, HttpClientMetrics metrics, Config config) {
+
+		this.cm = cm;
+		this.metrics = metrics;
+		this.config = config;
+	}
+
+	/**
+	 * 启动定时维护
+	 */
+	void start() {
+
+		lock.lock();
+		try {
+			schedule();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 替换管理参数及连接数上限：维护间隔变化时重新调度，各路由连接数上限恢复为新的默认值(开启自适应时从默认值重新调整)；
+	 * 与自适应调整持有同一把锁，连接池上限只经此处及维护线程修改
+	 *
+	 * @param config      管理参数
+	 * @param maxTotal    总连接数上限
+	 * @param maxPerRoute 每路由默认连接数上限
+	 */
+	void configure(Config config, int maxTotal, int maxPerRoute) {
+
+		lock.lock();
+		try {
+			cm.setMaxTotal(maxTotal);
+			cm.setDefaultMaxPerRoute(maxPerRoute);
+			long oldInterval = this.config.interval;
+			this.config = config;
+			if (config.interval != oldInterval) {
+				schedule();
+			}
+			for (HttpRoute route : cm.getRoutes()) {
+				cm.setMaxPerRoute(route, maxPerRoute);
+			}
+			states.clear();
+			totalPeak = 0;
+			totalPending = false;
+			rounds = 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 是否在定时维护(关闭过期连接及校验空闲连接)
+	 */
+	boolean isRunning() {
+
+		lock.lock();
+		try {
+			return task != null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 管理参数
+	 */
+	Config getConfig() {
+		return config;
+	}
+
+	/**
+	 * 按维护间隔调度；后台校验开启时，获取连接前仅校验超过一个维护周期仍未校验的连接，关闭时恢复默认的获取连接前校验
+	 */
+	private void schedule() {
+
+		if (task != null) {
+			task.cancel(false);
+			task = null;
+		}
+		if (config.interval <= 0) {
+			cm.setValidateAfterInactivity(LEASE_VALIDATE_AFTER);
+			return;
+		}
+		cm.setValidateAfterInactivity((int) Math.min(config.validateIdle + config.interval, Integer.MAX_VALUE));
+		task = HttpPoolWarmer.scheduler().scheduleWithFixedDelay(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					maintain();
+				} catch (Exception e) {
+					logger.warn("http 连接池维护失败：" + e.getMessage(), e);
+				}
+			}
+		}, config.interval, config.interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 执行一次维护(维护线程调用)
+	 */
+	void maintain() {
+
+		lock.lock();
+		try {
+			cm.closeExpiredConnections();
+			validate();
+			if (config.adaptive) {
+				sample();
+				if (++rounds * config.interval >= config.resizeInterval) {
+					rounds = 0;
+					resize();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 校验空闲连接：空闲超过 maxIdle 的关闭，距上次使用或校验超过 validateIdle 的检查是否失效，
+	 * 每次最多检查 batch 个，其余留待下次；检查(读取套接字)时不持有连接池锁，不阻塞其他路由获取及释放连接
+	 */
+	private void validate() {
+
+		final long now = System.currentTimeMillis();
+		final Map<String, Validated> last = validated;
+		final Map<String, Validated> current = new HashMap<String, Validated>();
+		final List<Candidate> candidates = new ArrayList<Candidate>();
+		final int[] counts = new int[2];
+		//持有连接池锁：选出待校验连接并以非空状态标记，请求获取连接时跳过
+		cm.enumIdle(new PoolEntryCallback<HttpRoute, ManagedHttpClientConnection>() {
+
+			@Override
+			public void process(PoolEntry<HttpRoute, ManagedHttpClientConnection> entry) {
+				long updated = entry.getUpdated();
+				Validated prev = last.get(entry.getId());
+				//校验后未被使用时，空闲起始时间沿用校验前的值
+				boolean unused = prev != null && prev.updated == updated;
+				long idleSince = unused ? prev.idleSince : updated;
+				if (config.maxIdle > 0 && now - idleSince >= config.maxIdle) {
+					entry.close();
+					counts[0]++;
+					return;
+				}
+				if (now - updated < config.validateIdle || candidates.size() >= config.batch) {
+					if (unused) {
+						current.put(entry.getId(), prev);
+					}
+					return;
+				}
+				Candidate candidate = new Candidate(entry, idleSince);
+				entry.setState(candidate);
+				candidates.add(candidate);
+			}
+		});
+		if (candidates.isEmpty()) {
+			validated = current;
+			logClosed(counts, 0);
+			return;
+		}
+		try {
+			//不持有连接池锁：逐个检查
+			for (Candidate candidate : candidates) {
+				candidate.stale = candidate.entry.getConnection().isStale();
+			}
+		} finally {
+			//持有连接池锁：失效的关闭，有效的恢复状态并刷新使用时间(获取时不再重复校验)，有效期不变
+			cm.enumIdle(new PoolEntryCallback<HttpRoute, ManagedHttpClientConnection>() {
+
+				@Override
+				public void process(PoolEntry<HttpRoute, ManagedHttpClientConnection> entry) {
+					if (!(entry.getState() instanceof Candidate)) {
+						return;
+					}
+					Candidate candidate = (Candidate) entry.getState();
+					entry.setState(candidate.state);
+					long remaining = entry.getExpiry() - System.currentTimeMillis();
+					if (candidate.stale || remaining <= 0) {
+						entry.close();
+						counts[1]++;
+						return;
+					}
+					entry.updateExpiry(entry.getExpiry() == Long.MAX_VALUE ? 0 : remaining, TimeUnit.MILLISECONDS);
+					current.put(entry.getId(), new Validated(candidate.idleSince, entry.getUpdated()));
+				}
+			});
+			validated = current;
+		}
+		logClosed(counts, candidates.size());
+	}
+
+	private static void logClosed(int[] counts, int checked) {
+
+		if ((counts[0] > 0 || counts[1] > 0) && logger.isDebugEnabled()) {
+			logger.debug("http 关闭空闲连接：超时 " + counts[0] + "，失效 " + counts[1] + "，校验 " + checked);
+		}
+	}
+
+	/**
+	 * 记录本次维护时各路由占用连接数及排队情况
+	 */
+	private void sample() {
+
+		for (HttpRoute route : cm.getRoutes()) {
+			PoolStats stats = cm.getStats(route);
+			RouteState state = states.get(route);
+			if (state == null) {
+				state = new RouteState(metrics.leaseTotals(route));
+				states.put(route, state);
+			}
+			state.peak = Math.max(state.peak, stats.getLeased());
+			state.pending |= stats.getPending() > 0;
+		}
+		PoolStats total = cm.getTotalStats();
+		totalPeak = Math.max(totalPeak, total.getLeased());
+		totalPending |= total.getPending() > 0;
+	}
+
+	/**
+	 * 调整连接数上限：出现排队时增加1/2，平均获取连接等待时间超过 growWait 或占满上限时增加1/4，
+	 * 周期内最大占用数不足上限一半时减少1/8，均在配置范围内
+	 */
+	private void resize() {
+
+		Set<HttpRoute> routes = cm.getRoutes();
+		for (Iterator<Map.Entry<HttpRoute, RouteState>> it = states.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<HttpRoute, RouteState> entry = it.next();
+			HttpRoute route = entry.getKey();
+			RouteState state = entry.getValue();
+			if (!routes.contains(route)) {
+				it.remove();
+				continue;
+			}
+			long[] totals = metrics.leaseTotals(route);
+			//统计重置后从零计算
+			long leases = totals[0] >= state.leases ? totals[0] - state.leases : totals[0];
+			long waitSum = totals[1] >= state.waitSum ? totals[1] - state.waitSum : totals[1];
+			long avgWait = leases > 0 ? waitSum / leases : 0;
+			int max = cm.getMaxPerRoute(route);
+			int next = nextMax(max, state.peak, state.pending, avgWait >= config.growWait * 1000L,
+					config.routeMin, config.routeMax);
+			if (next != max) {
+				cm.setMaxPerRoute(route, next);
+				logger.info("http 调整路由连接数上限" + route + "：" + max + " -> " + next + "，最大占用 " + state.peak
+						+ "，平均等待 " + avgWait + "us");
+			}
+			state.reset(totals);
+		}
+
+		int max = cm.getMaxTotal();
+		int next = nextMax(max, totalPeak, totalPending, false, config.totalMin, config.totalMax);
+		if (next != max) {
+			cm.setMaxTotal(next);
+			logger.info("http 调整总连接数上限：" + max + " -> " + next + "，最大占用 " + totalPeak);
+		}
+		totalPeak = 0;
+		totalPending = false;
+	}
+
+	/**
+	 * 计算调整后的上限
+	 *
+	 * @param max      当前上限
+	 * @param peak     周期内最大占用数
+	 * @param pending  周期内是否出现排队
+	 * @param waiting  平均获取连接等待时间是否过长
+	 * @param min      上限下界
+	 * @param limit    上限上界
+	 * @return
+	 */
+	private static int nextMax(int max, int peak, boolean pending, boolean waiting, int min, int limit) {
+
+		if (pending && max < limit) {
+			return Math.min(limit, max + Math.max(1, max / 2));
+		}
+		if ((waiting || peak >= max) && max < limit) {
+			return Math.min(limit, max + Math.max(1, max / 4));
+		}
+		if (!pending && !waiting && peak * 2 < max && max > min) {
+			return Math.max(min, max - Math.max(1, max / 8));
+		}
+		return Math.max(min, Math.min(max, limit));
+	}
+
+
+	/**
+	 * 待校验连接(作为连接状态标记，标记期间请求不会获取该连接)
+	 */
+	private static class Candidate {
+		/** 连接 */
+		final PoolEntry<HttpRoute, ManagedHttpClientConnection> entry;
+		/** 原连接状态 */
+		final Object state;
+		/** 空闲起始时间 */
+		final long idleSince;
+		/** 是否失效 */
+		boolean stale;
+
+		Candidate(PoolEntry<HttpRoute, ManagedHttpClientConnection> entry, long idleSince) {
+			this.entry = entry;
+			this.state = entry.getState();
+			this.idleSince = idleSince;
+		}
+	}
+
+	/**
+	 * 已校验连接
+	 */
+	private static class Validated {
+		/** 空闲起始时间(校验前最后使用时间) */
+		final long idleSince;
+		/** 校验后刷新的使用时间，不一致时说明已被使用 */
+		final long updated;
+
+		Validated(long idleSince, long updated) {
+			this.idleSince = idleSince;
+			this.updated = updated;
+		}
+	}
+
+	/**
+	 * 路由调整周期内的状态
+	 */
+	private static class RouteState {
+		/** 周期开始时累计获取连接笔数 */
+		long leases;
+		/** 周期开始时累计等待时间(单位微秒) */
+		long waitSum;
+		/** 周期内最大占用连接数 */
+		int peak;
+		/** 周期内是否出现排队 */
+		boolean pending;
+
+		RouteState(long[] totals) {
+			reset(totals);
+		}
+
+		void reset(long[] totals) {
+			leases = totals[0];
+			waitSum = totals[1];
+			peak = 0;
+			pending = false;
+		}
+	}
+
+	/**
+	 * 连接池管理参数
+	 */
+	static class Config {
+		/** 维护间隔(单位毫秒)，小于等于0时不开启后台校验及自适应 */
+		final long interval;
+		/** 空闲超过该时间(单位毫秒)的连接需校验 */
+		final long validateIdle;
+		/** 每次最多校验连接数 */
+		final int batch;
+		/** 空闲超过该时间(单位毫秒)的连接直接关闭，小于等于0时不关闭 */
+		final long maxIdle;
+		/** 是否自适应调整连接数上限 */
+		final boolean adaptive;
+		/** 调整间隔(单位毫秒) */
+		final long resizeInterval;
+		/** 平均获取连接等待时间超过该值(单位毫秒)时增加上限 */
+		final long growWait;
+		/** 每路由连接数上限范围 */
+		final int routeMin;
+		final int routeMax;
+		/** 总连接数上限范围 */
+		final int totalMin;
+		final int totalMax;
+
+		Config(long interval, long validateIdle, int batch, long maxIdle, boolean adaptive, long resizeInterval,
+				long growWait, int routeMin, int routeMax, int totalMin, int totalMax) {
+			this.interval = interval;
+			this.validateIdle = Math.max(validateIdle, 0);
+			this.batch = Math.max(batch, 1);
+			this.maxIdle = maxIdle;
+			this.adaptive = adaptive;
+			this.resizeInterval = resizeInterval;
+			this.growWait = growWait;
+			this.routeMin = Math.max(routeMin, 1);
+			this.routeMax = Math.max(routeMax, this.routeMin);
+			this.totalMin = Math.max(totalMin, this.routeMin);
+			this.totalMax = Math.max(totalMax, this.totalMin);
+		}
+	}
+
+	/**
+	 * 同步连接池：开放空闲连接遍历，供后台校验使用
+	 */
+	static class ConnectionPool extends PoolingHttpClientConnectionManager {
+
+		ConnectionPool(Registry<ConnectionSocketFactory> socketFactoryRegistry,
+				HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> connFactory, DnsResolver dnsResolver) {
+			super(socketFactoryRegistry, connFactory, dnsResolver);
+		}
+
+		/**
+		 * 遍历空闲连接(持有连接池锁，回调中不可获取或释放连接，也不应有阻塞操作)
+		 */
+		void enumIdle(PoolEntryCallback<HttpRoute, ManagedHttpClientConnection> callback) {
+			enumAvailable(callback);
+		}
+	}
+}
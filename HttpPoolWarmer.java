@@ -0,0 +1,202 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接池预热及最小空闲连接维护
+ *
+ * 预热时按路由建立连接(含 TLS 握手)后放回连接池；后台定时校验各预热路由的空闲连接，
+ * 关闭失效连接，并补足最小空闲连接数，使请求线程不承担建立连接的耗时。
+ * 连接池管理(HttpPoolManager)定时维护时，过期及失效连接由其处理，这里只在路由空闲连接不足且无排队时补足
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpPoolWarmer {
+
+	/** 日志 */
+	private static final Logger logger = LoggerFactory.getLogger(HttpPoolWarmer.class);
+
+	/** 维护线程(所有客户端共用) */
+	private static volatile ScheduledExecutorService scheduler;
+
+	/** 同步连接池 */
+	private final PoolingHttpClientConnectionManager cm;
+	/** 连接池管理，可为空 */
+	private final HttpPoolManager poolManager;
+	/** 预热路由 */
+	private final CopyOnWriteArrayList<HttpRoute> routes = new CopyOnWriteArrayList<HttpRoute>();
+	/** 每路由最小空闲连接数 */
+	private final int minIdle;
+	/** 建立连接超时时间(单位毫秒) */
+	private final int conTimeOut;
+	/** 连接保持时间(单位毫秒) */
+	private final long keepAlive;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param cm          同步连接池
+	 * @param poolManager 连接池管理，可为空
+	 * @param minIdle     每路由最小空闲连接数，小于等于0时不维护
+	 * @param conTimeOut  建立连接超时时间(单位毫秒)
+	 * @param keepAlive   连接保持时间(单位毫秒)
+	 */
+	HttpPoolWarmer(PoolingHttpClientConnectionManager cm, HttpPoolManager poolManager, int minIdle, int conTimeOut, long keepAlive) {
+
+		this.cm = cm;
+		this.poolManager = poolManager;
+		this.minIdle = minIdle;
+		this.conTimeOut = conTimeOut;
+		this.keepAlive = keepAlive;
+	}
+
+	/**
+	 * URL 对应的连接池路由(与默认路由规划一致，不经代理)
+	 *
+	 * @param strUrl URL，如 https://host:port
+	 * @return
+	 */
+	static HttpRoute toRoute(String strUrl) {
+
+		HttpHost host = HttpHost.create(strUrl.trim());
+		boolean secure = "https".equalsIgnoreCase(host.getSchemeName());
+		if (host.getPort() <= 0) {
+			host = new HttpHost(host.getHostName(), secure ? 443 : 80, host.getSchemeName());
+		}
+		return new HttpRoute(host, null, secure);
+	}
+
+	/**
+	 * 登记路由，纳入最小空闲连接维护
+	 *
+	 * @param route 路由
+	 */
+	void register(HttpRoute route) {
+
+		routes.addIfAbsent(route);
+	}
+
+	/**
+	 * 预热：建立连接后放回连接池，已有空闲连接计入数量
+	 *
+	 * @param route       路由
+	 * @param connections 连接数
+	 * @return 新建连接数
+	 */
+	int warm(HttpRoute route, int connections) {
+
+		List<HttpClientConnection> leased = new ArrayList<HttpClientConnection>();
+		int opened = 0;
+		try {
+			//同时持有全部连接，保证取到的是不同连接
+			for (int i = 0; i < connections; i++) {
+				HttpClientConnection conn = cm.requestConnection(route, null).get(conTimeOut, TimeUnit.MILLISECONDS);
+				leased.add(conn);
+				if (conn.isOpen() && conn.isStale()) {
+					conn.close();
+				}
+				if (!conn.isOpen()) {
+					HttpClientContext context = HttpClientContext.create();
+					cm.connect(conn, route, conTimeOut, context);
+					cm.routeComplete(conn, route, context);
+					//绑定读写缓冲，未发送过请求的连接也可做失效检查
+					conn.flush();
+					opened++;
+				}
+			}
+		} catch (Exception e) {
+			logger.warn("http 连接预热失败" + route + "：" + e.getMessage());
+		} finally {
+			for (HttpClientConnection conn : leased) {
+				cm.releaseConnection(conn, null, keepAlive, TimeUnit.MILLISECONDS);
+			}
+		}
+		return opened;
+	}
+
+	/**
+	 * 维护各预热路由的最小空闲连接；连接池管理定时维护时不借出空闲连接校验，空闲连接足够或有请求排队的路由不补充
+	 */
+	void maintain() {
+
+		boolean managed = poolManager != null && poolManager.isRunning();
+		if (!managed) {
+			cm.closeExpiredConnections();
+		}
+		for (HttpRoute route : routes) {
+			PoolStats stats = cm.getStats(route);
+			if (managed && (stats.getAvailable() >= minIdle || stats.getPending() > 0)) {
+				continue;
+			}
+			//校验最近使用的空闲连接，并补足到最小空闲数(不超过路由上限)
+			int target = Math.min(minIdle, stats.getMax() - stats.getLeased());
+			if (target > 0) {
+				int opened = warm(route, target);
+				if (opened > 0 && logger.isDebugEnabled()) {
+					logger.debug("http 补充空闲连接" + route + "：" + opened);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 启动定时维护
+	 *
+	 * @param intervalMillis 间隔(单位毫秒)
+	 */
+	void start(long intervalMillis) {
+
+		if (minIdle <= 0 || intervalMillis <= 0) {
+			return;
+		}
+		scheduler().scheduleWithFixedDelay(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					maintain();
+				} catch (Exception e) {
+					logger.warn("http 空闲连接维护失败：" + e.getMessage(), e);
+				}
+			}
+		}, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 维护线程(守护线程)
+	 */
+	static ScheduledExecutorService scheduler() {
+
+		if (scheduler == null) {
+			synchronized (HttpPoolWarmer.class) {
+				if (scheduler == null) {
+					scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "http-pool-maintainer");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+				}
+			}
+		}
+		return scheduler;
+	}
+}
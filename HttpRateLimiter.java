@@ -0,0 +1,192 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.HttpHost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个目标主机的速率限制(GCRA)
+ *
+ * 按理论到达时间(TAT)调度：每个请求将 TAT 推后一个发送间隔(1/速率)，最多允许 burst 个请求同时发送，
+ * 其余请求按发送间隔均匀排队，不成批突发。无锁实现(CAS 更新 TAT)，获取许可时预约发送时间，
+ * 需等待的时间超过调用方允许的最长等待时间时直接拒绝(不占用许可)
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpRateLimiter {
+
+	private static final Logger logger = LoggerFactory.getLogger(HttpRateLimiter.class);
+
+	/** 不限制速率(未配置速率的主机) */
+	static final HttpRateLimiter UNLIMITED = new HttpRateLimiter(null, Double.POSITIVE_INFINITY, 1);
+
+	/** 目标主机 */
+	private final HttpHost host;
+	/** 每秒请求数 */
+	private final double rate;
+	/** 发送间隔(单位纳秒) */
+	private final long interval;
+	/** 突发容忍时间(单位纳秒)：(burst - 1) * interval */
+	private final long tolerance;
+	/** 理论到达时间(System.nanoTime) */
+	private final AtomicLong tat;
+
+	/** 排队等待笔数 */
+	private final LongAdder delayed = new LongAdder();
+	/** 拒绝笔数 */
+	private final LongAdder rejected = new LongAdder();
+
+	/**
+	 * 构造方法
+	 *
+	 * @param host  目标主机
+	 * @param rate  每秒请求数
+	 * @param burst 允许同时发送的请求数(最小为1，即严格按间隔发送)
+	 */
+	HttpRateLimiter(HttpHost host, double rate, int burst) {
+
+		this.host = host;
+		this.rate = rate;
+		this.interval = Math.max((long) (TimeUnit.SECONDS.toNanos(1) / rate), 1);
+		this.tolerance = (Math.max(burst, 1) - 1) * interval;
+		this.tat = new AtomicLong(System.nanoTime() - tolerance);
+	}
+
+	/**
+	 * 获取发送许可
+	 *
+	 * @param maxWaitNanos 最长等待时间(单位纳秒)，小于等于0时不等待
+	 * @return 需等待的时间(单位纳秒)，到时后发送
+	 * @throws RejectedException 需等待的时间超过最长等待时间
+	 */
+	long reserve(long maxWaitNanos) throws RejectedException {
+
+		for (;;) {
+			long now = System.nanoTime();
+			long cur = tat.get();
+			//TAT 落后于当前时间时从当前时间起算，空闲期间不累积超过 burst 的许可
+			long base = cur - now < 0 ? now : cur;
+			long wait = base - tolerance - now;
+			if (wait > 0 && wait > maxWaitNanos) {
+				rejected.increment();
+				throw new RejectedException(host, rate, TimeUnit.NANOSECONDS.toMillis(wait));
+			}
+			if (tat.compareAndSet(cur, base + interval)) {
+				if (wait > 0) {
+					delayed.increment();
+					return wait;
+				}
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * 归还已预约的发送许可(请求被并发限制或熔断拒绝、排队中取消或等待被中断，未发出)
+	 *
+	 * TAT 前移一个发送间隔；前移后落后于当前时间的部分在下次预约时按当前时间起算，不累积超过 burst 的许可
+	 */
+	void refund() {
+		tat.addAndGet(-interval);
+	}
+
+	/**
+	 * 每秒请求数
+	 */
+	double getRate() {
+		return rate;
+	}
+
+	/**
+	 * 排队等待笔数
+	 */
+	long getDelayed() {
+		return delayed.sum();
+	}
+
+	/**
+	 * 拒绝笔数
+	 */
+	long getRejected() {
+		return rejected.sum();
+	}
+
+
+	/**
+	 * 速率限制参数
+	 */
+	static class Config {
+		/** 默认每秒请求数，小于等于0时仅限制单独配置的主机 */
+		final double defaultRate;
+		/** 允许同时发送的请求数 */
+		final int burst;
+		/** 超过速率时最长等待时间(单位毫秒)，小于等于0时直接拒绝 */
+		final long maxWait;
+		/** 各主机每秒请求数(host 或 host:port) */
+		private final Map<String, Double> rates;
+
+		/**
+		 * 构造方法
+		 *
+		 * @param defaultRate 默认每秒请求数
+		 * @param strRates    各主机每秒请求数，如 api.partner.com=50,10.1.1.1:8443=200
+		 * @param burst       允许同时发送的请求数
+		 * @param maxWait     超过速率时最长等待时间(单位毫秒)
+		 */
+		Config(double defaultRate, String strRates, int burst, long maxWait) {
+			this.defaultRate = defaultRate;
+			this.burst = Math.max(burst, 1);
+			this.maxWait = maxWait;
+			this.rates = new HashMap<String, Double>();
+			if (strRates != null) {
+				for (String item : strRates.split(",")) {
+					int idx = item.lastIndexOf('=');
+					try {
+						rates.put(item.substring(0, idx).trim().toLowerCase(), Double.valueOf(item.substring(idx + 1).trim()));
+					} catch (RuntimeException e) {
+						logger.warn("http 速率限制配置格式错误" + item + "：" + e.getMessage());
+					}
+				}
+			}
+		}
+
+		/**
+		 * 是否开启速率限制
+		 */
+		boolean isEnabled() {
+			return defaultRate > 0 || !rates.isEmpty();
+		}
+
+		/**
+		 * 目标主机的每秒请求数：依次按 host:port、host 及默认值
+		 *
+		 * @return 小于等于0时不限制
+		 */
+		double rateOf(HttpHost host) {
+			Double hostRate = rates.get(host.toHostString().toLowerCase());
+			if (hostRate == null) {
+				hostRate = rates.get(host.getHostName().toLowerCase());
+			}
+			return hostRate != null ? hostRate : defaultRate;
+		}
+	}
+
+	/**
+	 * 超过速率限制，请求未发出
+	 */
+	static class RejectedException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		RejectedException(HttpHost host, double rate, long waitMillis) {
+			super("rate limit exceeded: " + host + ", rate " + rate + "/s, wait " + waitMillis + "ms");
+		}
+	}
+}
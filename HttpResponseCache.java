@@ -0,0 +1,276 @@
+package com.jf.ams.notify.common.util;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.utils.DateUtils;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * GET 响应缓存
+ *
+ * 以含参数的完整 URL 为键缓存 200 响应体，有效期按 Cache-Control(no-store、no-cache、max-age)及 Expires/Date 计算，
+ * 扣除 Age；过期后携带 ETag/Last-Modified 条件请求，304 时沿用缓存内容并刷新有效期。
+ * 按字节数限制总大小，超出时淘汰最久未访问的条目；单个响应超过总大小 1/8 时不缓存
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpResponseCache {
+
+	/** 条目固定开销估算(单位字节) */
+	private static final int ENTRY_OVERHEAD = 128;
+
+	/** 最大字节数 */
+	private final long maxBytes;
+	/** 缓存条目(访问顺序) */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	/** 条目访问锁(不使用 synchronized，虚拟线程等待时不占用载体线程) */
+	private final ReentrantLock lock = new ReentrantLock();
+	/** 当前字节数 */
+	private long bytes;
+
+	/** 命中次数 */
+	private final LongAdder hits = new LongAdder();
+	/** 未命中次数(含过期需条件请求) */
+	private final LongAdder misses = new LongAdder();
+	/** 条件请求返回304次数 */
+	private final LongAdder revalidations = new LongAdder();
+	/** 淘汰次数 */
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * 构造方法
+	 *
+	 * @param maxBytes 最大字节数
+	 */
+	HttpResponseCache(long maxBytes) {
+
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * 查找未过期的缓存
+	 *
+	 * @param url 请求URL(含参数)
+	 * @return 未缓存或已过期时返回null
+	 */
+	Entry get(String url) {
+
+		Entry entry;
+		lock.lock();
+		try {
+			entry = entries.get(url);
+		} finally {
+			lock.unlock();
+		}
+		if (entry != null && entry.isFresh()) {
+			hits.increment();
+			return entry;
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * 存在过期缓存时添加条件请求头
+	 *
+	 * @param method 请求
+	 */
+	void addValidators(HttpRequestBase method) {
+
+		Entry entry;
+		lock.lock();
+		try {
+			entry = entries.get(method.getURI().toString());
+		} finally {
+			lock.unlock();
+		}
+		if (entry == null) {
+			return;
+		}
+		if (entry.etag != null) {
+			method.setHeader("If-None-Match", entry.etag);
+		}
+		if (entry.lastModified != null) {
+			method.setHeader("If-Modified-Since", entry.lastModified);
+		}
+	}
+
+	/**
+	 * 条件请求返回304，按响应头刷新有效期
+	 *
+	 * @param method   请求
+	 * @param response 304响应
+	 * @return 缓存条目，已被淘汰时返回null
+	 */
+	Entry revalidated(HttpRequestBase method, HttpResponse response) {
+
+		Entry entry;
+		lock.lock();
+		try {
+			entry = entries.get(method.getURI().toString());
+		} finally {
+			lock.unlock();
+		}
+		if (entry != null) {
+			revalidations.increment();
+			entry.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(freshness(response), 0));
+		}
+		return entry;
+	}
+
+	/**
+	 * 缓存200响应
+	 *
+	 * @param method   请求
+	 * @param response 响应
+	 * @param value    响应体
+	 */
+	void put(HttpRequestBase method, HttpResponse response, String value) {
+
+		String url = method.getURI().toString();
+		long lifetime = freshness(response);
+		Header etag = response.getFirstHeader("ETag");
+		Header lastModified = response.getFirstHeader("Last-Modified");
+		long size = ENTRY_OVERHEAD + 2L * (url.length() + (value == null ? 0 : value.length()));
+
+		//不允许缓存、无有效期且无校验器、或过大的响应不缓存(同时移除旧条目)
+		boolean storable = lifetime > 0 || (lifetime == 0 && (etag != null || lastModified != null));
+		Entry entry = storable && size <= maxBytes / 8 ? new Entry(value, response.getStatusLine().getReasonPhrase(),
+				etag == null ? null : etag.getValue(), lastModified == null ? null : lastModified.getValue(),
+				System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lifetime), size) : null;
+
+		lock.lock();
+		try {
+			Entry old = entry == null ? entries.remove(url) : entries.put(url, entry);
+			if (old != null) {
+				bytes -= old.size;
+			}
+			if (entry == null) {
+				return;
+			}
+			bytes += entry.size;
+			//淘汰最久未访问的条目
+			Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+			while (bytes > maxBytes && it.hasNext()) {
+				Entry eldest = it.next().getValue();
+				it.remove();
+				bytes -= eldest.size;
+				evictions.increment();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 缓存统计
+	 */
+	HttpClientMetricsMXBean.CacheView toView() {
+
+		int count;
+		long used;
+		lock.lock();
+		try {
+			count = entries.size();
+			used = bytes;
+		} finally {
+			lock.unlock();
+		}
+		return new HttpClientMetricsMXBean.CacheView(hits.sum(), misses.sum(), revalidations.sum(), evictions.sum(),
+				count, used, maxBytes);
+	}
+
+	/**
+	 * 响应有效期(单位毫秒)
+	 *
+	 * @param response 响应
+	 * @return no-store 时返回-1，no-cache 或无有效期时返回0
+	 */
+	private static long freshness(HttpResponse response) {
+
+		long maxAge = -1;
+		for (Header header : response.getHeaders("Cache-Control")) {
+			for (HeaderElement element : header.getElements()) {
+				String directive = element.getName().toLowerCase();
+				if ("no-store".equals(directive)) {
+					return -1;
+				} else if ("no-cache".equals(directive)) {
+					maxAge = 0;
+				} else if ("max-age".equals(directive) && maxAge != 0) {
+					maxAge = parseSeconds(element.getValue());
+				}
+			}
+		}
+
+		long lifetime;
+		if (maxAge >= 0) {
+			lifetime = maxAge * 1000;
+		} else {
+			Header expires = response.getFirstHeader("Expires");
+			Date expiresDate = expires == null ? null : DateUtils.parseDate(expires.getValue());
+			if (expiresDate == null) {
+				//无 Expires 或格式错误(如"0")视为已过期
+				return 0;
+			}
+			Header date = response.getFirstHeader("Date");
+			Date dateDate = date == null ? null : DateUtils.parseDate(date.getValue());
+			lifetime = expiresDate.getTime() - (dateDate == null ? System.currentTimeMillis() : dateDate.getTime());
+		}
+
+		Header age = response.getFirstHeader("Age");
+		if (age != null) {
+			lifetime -= Math.max(parseSeconds(age.getValue()), 0) * 1000;
+		}
+		return Math.max(lifetime, 0);
+	}
+
+	private static long parseSeconds(String value) {
+
+		try {
+			return value == null ? -1 : Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+
+	/**
+	 * 缓存条目
+	 */
+	static final class Entry {
+		/** 响应体 */
+		final String value;
+		/** 原因短语 */
+		final String reason;
+		/** ETag */
+		final String etag;
+		/** Last-Modified */
+		final String lastModified;
+		/** 过期时间(System.nanoTime) */
+		volatile long expiresAt;
+		/** 估算字节数 */
+		final long size;
+
+		Entry(String value, String reason, String etag, String lastModified, long expiresAt, long size) {
+			this.value = value;
+			this.reason = reason;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.expiresAt = expiresAt;
+			this.size = size;
+		}
+
+		boolean isFresh() {
+			return System.nanoTime() - expiresAt < 0;
+		}
+	}
+}
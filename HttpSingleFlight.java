@@ -0,0 +1,147 @@
+package com.jf.ams.notify.common.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 相同请求合并(single-flight)
+ *
+ * 同一键的请求执行期间，后续请求不再发起网络调用，而是等待并共享首个请求的结果；
+ * 每个调用方得到独立的 future，取消只影响自身，全部调用方取消后才取消网络调用。
+ * 请求结束时先移出执行中列表再通知调用方，之后的请求重新发起。
+ * 发起请求可在调用线程同步执行(同步请求返回已完成的 future)，执行期间的相同请求等待其结果
+ *
+ * @param <T> 结果类型
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+final class HttpSingleFlight<T> {
+
+	/** 执行中的请求 */
+	private final ConcurrentHashMap<String, Call<T>> inFlight = new ConcurrentHashMap<String, Call<T>>();
+
+	/**
+	 * 执行请求，相同键的请求执行中时共享其结果
+	 *
+	 * @param key    请求键
+	 * @param action 发起请求
+	 * @return 调用方独立的 future，可单独取消
+	 */
+	CompletableFuture<T> execute(final String key, Supplier<CompletableFuture<T>> action) {
+
+		for (;;) {
+			Call<T> call = inFlight.get(key);
+			if (call == null) {
+				//首个调用方在发布前订阅，并发加入的调用方不会看到无订阅者的请求
+				final Call<T> created = new Call<T>();
+				CompletableFuture<T> subscriber = created.subscriber();
+				call = inFlight.putIfAbsent(key, created);
+				if (call == null) {
+					launch(key, created, action);
+					return subscriber;
+				}
+			}
+			CompletableFuture<T> subscriber = call.join();
+			if (subscriber != null) {
+				return subscriber;
+			}
+			//调用方已全部取消，移除后重新发起
+			inFlight.remove(key, call);
+		}
+	}
+
+	/**
+	 * 发起网络调用，结束时移出执行中列表并通知调用方
+	 */
+	private void launch(final String key, final Call<T> call, Supplier<CompletableFuture<T>> action) {
+
+		CompletableFuture<T> source;
+		try {
+			source = action.get();
+		} catch (RuntimeException e) {
+			inFlight.remove(key, call);
+			call.result.completeExceptionally(e);
+			return;
+		}
+		call.source = source;
+		source.whenComplete(new BiConsumer<T, Throwable>() {
+
+			@Override
+			public void accept(T value, Throwable e) {
+				inFlight.remove(key, call);
+				if (e != null) {
+					call.result.completeExceptionally(e);
+				} else {
+					call.result.complete(value);
+				}
+			}
+		});
+		if (call.subscribers.get() <= 0) {
+			//发起前调用方已全部取消
+			source.cancel(true);
+		}
+	}
+
+
+	/**
+	 * 执行中的请求
+	 */
+	private static final class Call<T> {
+		/** 共享结果 */
+		final CompletableFuture<T> result = new CompletableFuture<T>();
+		/** 未取消的调用方数(含首个调用方)，降为0后不再接受新调用方 */
+		final AtomicInteger subscribers = new AtomicInteger(1);
+		/** 网络调用 */
+		volatile CompletableFuture<T> source;
+
+		/**
+		 * 加入执行中的请求
+		 *
+		 * @return 调用方已全部取消时返回null
+		 */
+		CompletableFuture<T> join() {
+			for (;;) {
+				int count = subscribers.get();
+				if (count <= 0) {
+					return null;
+				}
+				if (subscribers.compareAndSet(count, count + 1)) {
+					return subscriber();
+				}
+			}
+		}
+
+		private CompletableFuture<T> subscriber() {
+			final CompletableFuture<T> subscriber = new CompletableFuture<T>();
+			result.whenComplete(new BiConsumer<T, Throwable>() {
+
+				@Override
+				public void accept(T value, Throwable e) {
+					if (e != null) {
+						subscriber.completeExceptionally(e);
+					} else {
+						subscriber.complete(value);
+					}
+				}
+			});
+			subscriber.whenComplete(new BiConsumer<T, Throwable>() {
+
+				@Override
+				public void accept(T value, Throwable e) {
+					//最后一个调用方取消时取消网络调用
+					if (subscriber.isCancelled() && subscribers.decrementAndGet() == 0) {
+						CompletableFuture<T> call = source;
+						if (call != null) {
+							call.cancel(true);
+						}
+					}
+				}
+			});
+			return subscriber;
+		}
+	}
+}
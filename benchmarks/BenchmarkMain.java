@@ -0,0 +1,68 @@
+package com.jf.ams.notify.common.util.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ *
+ * 按 1、8、64 线程运行 HttpClientUtilBenchmark，再运行 PoolSaturationBenchmark、VirtualThreadBenchmark、FormEncoderBenchmark，
+ * 均启用 GC 分析(分配速率)，结果以 JSON 输出到 jmh-&lt;标签&gt;-*.json，便于不同提交间对比
+ *
+ * 构建：mvn -f benchmarks/pom.xml clean package
+ * 用法：java -D&lt;客户端配置&gt; -jar benchmarks/target/benchmarks.jar [标签，如提交号] [基准测试正则]
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+public class BenchmarkMain {
+
+	/** 线程数 */
+	private static final int[] THREADS = {1, 8, 64};
+
+	public static void main(String[] args) throws Exception {
+
+		String tag = args.length > 0 ? args[0] : "local";
+		String include = args.length > 1 ? args[1] : null;
+
+		for (int threads : THREADS) {
+			Options opt = new OptionsBuilder()
+					.include(include != null ? include : HttpClientUtilBenchmark.class.getSimpleName())
+					.threads(threads)
+					.addProfiler(GCProfiler.class)
+					.resultFormat(ResultFormatType.JSON)
+					.result("jmh-" + tag + "-t" + threads + ".json")
+					.build();
+			new Runner(opt).run();
+		}
+
+		if (include == null) {
+			Options opt = new OptionsBuilder()
+					.include(PoolSaturationBenchmark.class.getSimpleName())
+					.addProfiler(GCProfiler.class)
+					.resultFormat(ResultFormatType.JSON)
+					.result("jmh-" + tag + "-saturated.json")
+					.build();
+			new Runner(opt).run();
+
+			opt = new OptionsBuilder()
+					.include(VirtualThreadBenchmark.class.getSimpleName())
+					.addProfiler(GCProfiler.class)
+					.resultFormat(ResultFormatType.JSON)
+					.result("jmh-" + tag + "-executor.json")
+					.build();
+			new Runner(opt).run();
+
+			opt = new OptionsBuilder()
+					.include(FormEncoderBenchmark.class.getSimpleName())
+					.addProfiler(GCProfiler.class)
+					.resultFormat(ResultFormatType.JSON)
+					.result("jmh-" + tag + "-encoder.json")
+					.build();
+			new Runner(opt).run();
+		}
+	}
+}
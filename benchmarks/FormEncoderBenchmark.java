@@ -0,0 +1,99 @@
+package com.jf.ams.notify.common.util.bench;
+
+import com.jf.ams.notify.common.util.HttpFormEncoder;
+import org.apache.http.Consts;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 表单/查询参数编码基准测试：原 UrlEncodedFormEntity 往返方式与 HttpFormEncoder 对比
+ *
+ * legacy* 为改造前 getMap/postMap 的做法(NameValuePair 列表、实体、再读回字符串后拼接 URL)，
+ * 需配合 GC 分析查看每次操作分配字节数(gc.alloc.rate.norm)
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormEncoderBenchmark {
+
+	/**
+	 * 请求参数
+	 */
+	@State(Scope.Benchmark)
+	public static class ParamState {
+		/** 参数个数 */
+		@Param({"4", "16"})
+		public int fields;
+
+		String url;
+		Map<Object, Object> paraMap;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			url = "https://partner.example.com/api/notify";
+			paraMap = new HashMap<Object, Object>();
+			for (int i = 0; i < fields; i++) {
+				//ASCII、需编码的符号及中文混合
+				paraMap.put("field" + i, i % 2 == 0 ? "value-" + i + " a&b=c" : "中文参数" + i);
+			}
+		}
+	}
+
+	@Benchmark
+	public String legacyQuery(ParamState state) throws Exception {
+
+		String strPara = EntityUtils.toString(legacyEntity(state.paraMap));
+		return state.url.indexOf("?") > 0 ? state.url + "&" + strPara : state.url + "?" + strPara;
+	}
+
+	@Benchmark
+	public String encoderQuery(ParamState state) {
+
+		return HttpFormEncoder.appendQuery(state.url, state.paraMap);
+	}
+
+	@Benchmark
+	public byte[] legacyBody(ParamState state) throws Exception {
+
+		return EntityUtils.toByteArray(legacyEntity(state.paraMap));
+	}
+
+	@Benchmark
+	public byte[] encoderBody(ParamState state) {
+
+		return HttpFormEncoder.encodeBytes(state.paraMap);
+	}
+
+	private static UrlEncodedFormEntity legacyEntity(Map<Object, Object> paraMap) {
+
+		List<NameValuePair> params = new ArrayList<NameValuePair>();
+		for (Object key : paraMap.keySet()) {
+			params.add(new BasicNameValuePair(key.toString(), (String) paraMap.get(key)));
+		}
+		return new UrlEncodedFormEntity(params, Consts.UTF_8);
+	}
+}
@@ -0,0 +1,108 @@
+package com.jf.ams.notify.common.util.bench;
+
+import com.jf.ams.notify.common.util.HttpClientUtil;
+import com.jf.ams.notify.common.util.HttpClientUtil.HttpResRtn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HttpClientUtil 同步接口基准测试
+ *
+ * 覆盖 postJson、postMap、getJson、getMap，按协议、请求大小、长/短连接组合；
+ * 线程数由运行参数 -t 指定(见 BenchmarkMain)
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HttpClientUtilBenchmark {
+
+	/**
+	 * 桩服务及请求参数
+	 */
+	@State(Scope.Benchmark)
+	public static class StubState {
+		/** 协议 */
+		@Param({"http", "https"})
+		public String scheme;
+		/** 请求大小(字节) */
+		@Param({"64", "1024", "16384"})
+		public int payloadSize;
+		/** true:长连接，false:服务端每次响应后关闭连接 */
+		@Param({"true", "false"})
+		public boolean keepAlive;
+
+		StubServer server;
+		HttpClientUtil client;
+		String url;
+		String strJson;
+		String query;
+		Map<Object, Object> paraMap;
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception {
+			//https 桩服务需在客户端初始化前设置信任库
+			server = new StubServer("https".equals(scheme), 256, 0);
+			client = HttpClientUtil.getInstance();
+			url = server.url(keepAlive ? "/notify" : "/close/notify");
+			strJson = StubServer.jsonPayload(payloadSize);
+			query = "body=" + StubServer.payload(Math.max(payloadSize - 5, 0));
+			paraMap = new HashMap<Object, Object>();
+			int fieldSize = Math.max(payloadSize / 4 - 8, 1);
+			for (int i = 0; i < 4; i++) {
+				paraMap.put("field" + i, StubServer.payload(fieldSize));
+			}
+			HttpResRtn resRtn = client.postJson(url, strJson);
+			if (resRtn.getStsCode() != 200) {
+				throw new IllegalStateException("桩服务不可用：" + resRtn.getStsCode() + " " + resRtn.getRsnPhrase());
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			server.stop();
+		}
+	}
+
+	@Benchmark
+	public HttpResRtn postJson(StubState state) {
+
+		return state.client.postJson(state.url, state.strJson);
+	}
+
+	@Benchmark
+	public HttpResRtn postMap(StubState state) throws Exception {
+
+		return state.client.postMap(state.url, state.paraMap);
+	}
+
+	@Benchmark
+	public HttpResRtn getJson(StubState state) {
+
+		return state.client.getJson(state.url, state.query);
+	}
+
+	@Benchmark
+	public HttpResRtn getMap(StubState state) throws Exception {
+
+		return state.client.getMap(state.url, state.paraMap);
+	}
+}
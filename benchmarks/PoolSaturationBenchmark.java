@@ -0,0 +1,86 @@
+package com.jf.ams.notify.common.util.bench;
+
+import com.jf.ams.notify.common.util.HttpClientMetricsMXBean.LatencyView;
+import com.jf.ams.notify.common.util.HttpClientUtil;
+import com.jf.ams.notify.common.util.HttpClientUtil.HttpResRtn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接池饱和基准测试
+ *
+ * 64 线程请求延迟响应的桩服务，使用命名客户端 bench-saturated，
+ * 需在配置文件中设置较小的连接池，例如：
+ * bench-saturated.http_client_max_perroute=8
+ * bench-saturated.http_client_max_poolcount=8
+ * bench-saturated.http_client_connectionrequest_timeout=5000
+ *
+ * 结束时输出获取连接等待时间分布
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class PoolSaturationBenchmark {
+
+	/**
+	 * 桩服务及命名客户端
+	 */
+	@State(Scope.Benchmark)
+	public static class SaturatedState {
+		/** 桩服务响应延迟(单位毫秒) */
+		@Param({"2", "20"})
+		public long delayMs;
+
+		StubServer server;
+		HttpClientUtil client;
+		String url;
+		String strJson;
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception {
+			server = new StubServer(false, 256, delayMs);
+			client = HttpClientUtil.getInstance("bench-saturated");
+			url = server.url("/slow/notify");
+			strJson = StubServer.jsonPayload(512);
+			client.getMetrics().reset();
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			System.out.println();
+			System.out.println("pool max: " + client.getMetrics().getPoolTotal().getMax());
+			for (Map.Entry<String, LatencyView> entry : client.getMetrics().getLeaseWait().entrySet()) {
+				LatencyView view = entry.getValue();
+				System.out.println("lease wait " + entry.getKey() + " count=" + view.getCount()
+						+ " mean=" + view.getMean() + "ms p99=" + view.getP99() + "ms max=" + view.getMax() + "ms");
+			}
+			server.stop();
+		}
+	}
+
+	@Benchmark
+	public HttpResRtn postJson(SaturatedState state) {
+
+		return state.client.postJson(state.url, state.strJson);
+	}
+}
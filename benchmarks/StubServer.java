@@ -0,0 +1,193 @@
+package com.jf.ams.notify.common.util.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基准测试用内嵌http/https桩服务
+ *
+ * 读取完整请求体后返回固定响应；路径以 /close 开头时响应 Connection: close(短连接)，
+ * 以 /slow 开头时按配置延迟响应(模拟下游耗时，用于连接池饱和场景)
+ *
+ * https 证书首次使用时由 JDK keytool 生成自签名证书(CN=localhost)，
+ * 并设置为 javax.net.ssl.trustStore，需在 HttpClientUtil 初始化前启动
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+public class StubServer {
+
+	/** 证书库密码 */
+	private static final String STORE_PASS = "changeit";
+	/** 证书库 */
+	private static File keyStore;
+
+	static {
+		//关闭 Nagle，否则长连接下响应头与响应体分两次写出时受延迟确认影响(约40ms)
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+	}
+
+	/** 服务 */
+	private final HttpServer server;
+	/** 处理线程池 */
+	private final ExecutorService executor;
+	/** 是否https */
+	private final boolean https;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param https    是否https
+	 * @param respSize 响应体大小(字节)
+	 * @param delayMs  /slow 路径延迟时间(单位毫秒)
+	 * @throws Exception
+	 */
+	public StubServer(boolean https, int respSize, final long delayMs) throws Exception {
+
+		this.https = https;
+		InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+		if (https) {
+			HttpsServer httpsServer = HttpsServer.create(address, 1024);
+			httpsServer.setHttpsConfigurator(new HttpsConfigurator(sslContext()));
+			server = httpsServer;
+		} else {
+			server = HttpServer.create(address, 1024);
+		}
+
+		final byte[] respBody = new byte[respSize];
+		Arrays.fill(respBody, (byte) 'a');
+		server.createContext("/", new HttpHandler() {
+
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					drain(exchange.getRequestBody());
+					String path = exchange.getRequestURI().getPath();
+					if (path.startsWith("/slow") && delayMs > 0) {
+						TimeUnit.MILLISECONDS.sleep(delayMs);
+					}
+					if (path.startsWith("/close")) {
+						exchange.getResponseHeaders().set("Connection", "close");
+					}
+					exchange.getResponseHeaders().set("Content-Type", "text/plain;charset=UTF-8");
+					exchange.sendResponseHeaders(200, respBody.length);
+					OutputStream out = exchange.getResponseBody();
+					out.write(respBody);
+					out.close();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+		executor = Executors.newCachedThreadPool();
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * 获取请求地址
+	 *
+	 * @param path 路径，如 /notify
+	 * @return
+	 */
+	public String url(String path) {
+
+		return (https ? "https" : "http") + "://localhost:" + server.getAddress().getPort() + path;
+	}
+
+	/**
+	 * 停止服务
+	 */
+	public void stop() {
+
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * 读取并丢弃请求体
+	 */
+	private static void drain(InputStream in) throws IOException {
+
+		byte[] buf = new byte[8192];
+		while (in.read(buf) != -1) {
+		}
+		in.close();
+	}
+
+	/**
+	 * 服务端SSL上下文，同时将自签名证书设为客户端信任库
+	 */
+	private static synchronized SSLContext sslContext() throws Exception {
+
+		if (keyStore == null) {
+			File file = File.createTempFile("httpclient-bench", ".p12");
+			file.delete();
+			file.deleteOnExit();
+			String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+			Process process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "stub", "-keyalg", "RSA",
+					"-keysize", "2048", "-validity", "365", "-dname", "CN=localhost", "-ext", "SAN=dns:localhost",
+					"-storetype", "PKCS12", "-keystore", file.getAbsolutePath(),
+					"-storepass", STORE_PASS, "-keypass", STORE_PASS)
+					.redirectErrorStream(true).start();
+			drain(process.getInputStream());
+			if (process.waitFor() != 0) {
+				throw new IllegalStateException("keytool 生成证书失败");
+			}
+			keyStore = file;
+			System.setProperty("javax.net.ssl.trustStore", file.getAbsolutePath());
+			System.setProperty("javax.net.ssl.trustStorePassword", STORE_PASS);
+			System.setProperty("javax.net.ssl.trustStoreType", "PKCS12");
+		}
+
+		KeyStore ks = KeyStore.getInstance("PKCS12");
+		InputStream in = new FileInputStream(keyStore);
+		try {
+			ks.load(in, STORE_PASS.toCharArray());
+		} finally {
+			in.close();
+		}
+		KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+		kmf.init(ks, STORE_PASS.toCharArray());
+		SSLContext sslContext = SSLContext.getInstance("TLS");
+		sslContext.init(kmf.getKeyManagers(), null, null);
+		return sslContext;
+	}
+
+	/**
+	 * 指定长度的请求参数
+	 */
+	static String payload(int size) {
+
+		char[] chars = new char[size];
+		Arrays.fill(chars, 'x');
+		return new String(chars);
+	}
+
+	/**
+	 * json 请求体
+	 */
+	static String jsonPayload(int size) {
+
+		return "{\"body\":\"" + payload(Math.max(size - 11, 0)) + "\"}";
+	}
+}
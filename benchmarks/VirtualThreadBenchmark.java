@@ -0,0 +1,116 @@
+package com.jf.ams.notify.common.util.bench;
+
+import com.jf.ams.notify.common.util.HttpClientUtil;
+import com.jf.ams.notify.common.util.HttpClientUtil.HttpResRtn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 同步请求执行器基准测试：平台线程池与虚拟线程吞吐对比
+ *
+ * 每次调用经执行器提交 1000 笔阻塞 postJson(桩服务延迟响应)并等待全部完成，
+ * 使用命名客户端 bench-platform / bench-virtual，需在配置文件中设置，例如：
+ * bench-platform.http_client_max_poolcount=1000
+ * bench-platform.http_client_max_perroute=1000
+ * bench-virtual.http_client_max_poolcount=1000
+ * bench-virtual.http_client_max_perroute=1000
+ * bench-virtual.http_client_executor=virtual
+ *
+ * virtual 需在 Java 21+ 运行，低版本退回平台线程池(结束时输出执行线程)
+ *
+ * @author   brilliance.ke
+ * @version  1.0   2026-10-18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(1)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+	/** 每次调用提交的请求数 */
+	private static final int CALLS = 1000;
+
+	/**
+	 * 桩服务及命名客户端
+	 */
+	@State(Scope.Benchmark)
+	public static class ExecutorState {
+		/** 执行器 */
+		@Param({"platform", "virtual"})
+		public String mode;
+		/** 桩服务响应延迟(单位毫秒) */
+		@Param({"20"})
+		public long delayMs;
+
+		StubServer server;
+		HttpClientUtil client;
+		Supplier<HttpResRtn> call;
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception {
+			server = new StubServer(false, 256, delayMs);
+			client = HttpClientUtil.getInstance("bench-" + mode);
+			final String url = server.url("/slow/notify");
+			final String strJson = StubServer.jsonPayload(512);
+			final HttpClientUtil httpClient = client;
+			call = new Supplier<HttpResRtn>() {
+
+				@Override
+				public HttpResRtn get() {
+					return httpClient.postJson(url, strJson);
+				}
+			};
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			System.out.println();
+			String thread = client.submit(new Supplier<String>() {
+
+				@Override
+				public String get() {
+					return Thread.currentThread().toString();
+				}
+			}).join();
+			System.out.println("executor thread: " + thread + ", pool max: " + client.getMetrics().getPoolTotal().getMax());
+			server.stop();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public int submit(ExecutorState state) {
+
+		List<CompletableFuture<HttpResRtn>> futures = new ArrayList<CompletableFuture<HttpResRtn>>(CALLS);
+		for (int i = 0; i < CALLS; i++) {
+			futures.add(state.client.submit(state.call));
+		}
+		int succ = 0;
+		for (CompletableFuture<HttpResRtn> future : futures) {
+			if (future.join().getStsCode() == 200) {
+				succ++;
+			}
+		}
+		return succ;
+	}
+}